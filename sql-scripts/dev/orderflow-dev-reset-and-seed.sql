@@ -4,12 +4,18 @@
 
 DELETE FROM orders;
 
-INSERT INTO orders (code, status, total)
+-- Ids come from id_generators (Flyway V8), never from AUTO_INCREMENT: reserve
+-- 4 ids plus one block gap above everything the application handed out, so a
+-- running application does not collide with these rows.
+UPDATE id_generators SET next_val = next_val + 4 + 50 WHERE name = 'orders';
+SET @base = (SELECT next_val - 4 - 50 FROM id_generators WHERE name = 'orders');
+
+INSERT INTO orders (id, code, status, total)
 VALUES
-    ('ORD-DEV-001', 'NEW',       50.00),
-    ('ORD-DEV-002', 'NEW',       75.50),
-    ('ORD-DEV-003', 'PAID',     120.00),
-    ('ORD-DEV-004', 'SHIPPED',  200.00);
+    (@base + 1, 'ORD-DEV-001', 'NEW',       50.00),
+    (@base + 2, 'ORD-DEV-002', 'NEW',       75.50),
+    (@base + 3, 'ORD-DEV-003', 'PAID',     120.00),
+    (@base + 4, 'ORD-DEV-004', 'SHIPPED',  200.00);
     
 
 -- Usage:
@@ -0,0 +1,93 @@
+package ch.devprojects.orderflow.analytics.service;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import ch.devprojects.orderflow.analytics.dto.AnalyticsOverviewDto;
+import ch.devprojects.orderflow.bench.BenchmarkContext;
+import ch.devprojects.orderflow.bench.BenchmarkOrders;
+
+/**
+ * {@link AnalyticsService#getOverview} against H2 loaded with generated orders.
+ *
+ * Paths: - live: unfiltered, served from {@link LiveOrderAnalytics} - all:
+ * unfiltered grouped SQL aggregate (live counters bypassed via an open range) -
+ * range: createdAt range pushed into the WHERE clause - customer: customer
+ * LIKE filter
+ *
+ * H2 in-memory numbers are only meaningful relative to each other; they do not
+ * predict MariaDB latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AnalyticsOverviewBenchmark {
+
+	@Param({ "1000", "100000" })
+	private int orders;
+
+	private ConfigurableApplicationContext context;
+	private AnalyticsService analyticsService;
+
+	private final Instant rangeFrom = Instant.parse("2025-01-01T00:00:00Z");
+	private final Instant rangeTo = Instant.parse("2025-04-01T00:00:00Z");
+	private final String customer = BenchmarkOrders.sampleCustomer();
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = BenchmarkContext.start();
+
+		JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+		jdbcTemplate.update("delete from orders");
+		BenchmarkOrders.insert(jdbcTemplate, orders);
+
+		// Counters were seeded from the Flyway demo rows at startup; align them with
+		// the generated data.
+		context.getBean(LiveOrderAnalytics.class).reconcile();
+		analyticsService = context.getBean(AnalyticsService.class);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public AnalyticsOverviewDto live() {
+		return analyticsService.getOverview();
+	}
+
+	@Benchmark
+	public AnalyticsOverviewDto all() {
+		return analyticsService.getOverview(Instant.EPOCH, null, null);
+	}
+
+	@Benchmark
+	public AnalyticsOverviewDto range() {
+		return analyticsService.getOverview(rangeFrom, rangeTo, null);
+	}
+
+	@Benchmark
+	public AnalyticsOverviewDto customer() {
+		return analyticsService.getOverview(null, null, customer);
+	}
+}
@@ -0,0 +1,50 @@
+package ch.devprojects.orderflow.bench;
+
+import java.util.UUID;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import ch.devprojects.orderflow.OrderflowCloudBackendApplication;
+
+/**
+ * Starts the real application context (no web server, or Tomcat on a random
+ * port) on a private in-memory H2 database for benchmarks that need JPA.
+ *
+ * Notes: - Flyway runs as usual, so the schema (and indexes) match production
+ * migrations - SQL logging is switched off: printing every statement would
+ * dominate the measurements - Each call gets its own database, so forks and
+ * parameter combinations never share data
+ */
+public final class BenchmarkContext {
+
+	private BenchmarkContext() {
+	}
+
+	public static ConfigurableApplicationContext start() {
+		return builder().web(WebApplicationType.NONE).run();
+	}
+
+	/**
+	 * Same, but with the embedded Tomcat on a random port (see {@link #port}).
+	 *
+	 * @param properties extra "key=value" properties, e.g. the threading mode
+	 */
+	public static ConfigurableApplicationContext startWeb(String... properties) {
+		return builder().web(WebApplicationType.SERVLET).properties("server.port=0").properties(properties).run();
+	}
+
+	public static int port(ConfigurableApplicationContext context) {
+		return ((WebServerApplicationContext) context).getWebServer().getPort();
+	}
+
+	private static SpringApplicationBuilder builder() {
+		return new SpringApplicationBuilder(OrderflowCloudBackendApplication.class).properties(
+				"spring.profiles.active=dev",
+				"spring.datasource.url=jdbc:h2:mem:orderflow_bench_" + UUID.randomUUID()
+						+ ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+				"spring.jpa.show-sql=false", "spring.main.banner-mode=off", "logging.level.root=WARN");
+	}
+}
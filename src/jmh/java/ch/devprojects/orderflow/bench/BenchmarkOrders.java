@@ -0,0 +1,113 @@
+package ch.devprojects.orderflow.bench;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import ch.devprojects.orderflow.domain.Order;
+import ch.devprojects.orderflow.domain.OrderStatus;
+
+/**
+ * Deterministic order data for the benchmarks.
+ *
+ * Shape (roughly what the demo data looks like, scaled up): - codes
+ * "BENCH-0000001".. (unique, like orders.code) - ~500 distinct customers, a
+ * few without name - totals 1.00..5000.00 with scale 2 - createdAt spread over
+ * the last 2 years - every 4th order has a description
+ *
+ * The same seed always produces the same data, so results of different runs
+ * are comparable.
+ */
+public final class BenchmarkOrders {
+
+	public static final long SEED = 42L;
+
+	private static final int CUSTOMERS = 500;
+	private static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+	private static final long SPAN_SECONDS = Duration.ofDays(730).toSeconds();
+	private static final OrderStatus[] STATUSES = OrderStatus.values();
+	// allocationSize of the Order id generator
+	private static final long ID_BLOCK = 50;
+
+	private BenchmarkOrders() {
+	}
+
+	/**
+	 * Builds detached Order entities with ids 1..count.
+	 */
+	public static List<Order> generate(int count) {
+		SplittableRandom random = new SplittableRandom(SEED);
+		List<Order> orders = new ArrayList<>(count);
+		for (int i = 1; i <= count; i++) {
+			orders.add(next(random, i));
+		}
+		return orders;
+	}
+
+	/**
+	 * Inserts count generated orders with JDBC batches (much faster than JPA for
+	 * 1M rows).
+	 *
+	 * The ids are reserved in id_generators first (count plus one block gap, see
+	 * Flyway V8), not taken from AUTO_INCREMENT, which would run into the block
+	 * the application is handing out.
+	 */
+	public static void insert(JdbcTemplate jdbcTemplate, int count) {
+		long reserved = count + ID_BLOCK;
+		jdbcTemplate.update("update id_generators set next_val = next_val + ? where name = 'orders'", reserved);
+		Long nextVal = jdbcTemplate.queryForObject("select next_val from id_generators where name = 'orders'",
+				Long.class);
+		long base = nextVal - reserved;
+
+		SplittableRandom random = new SplittableRandom(SEED);
+		int batchSize = 5_000;
+		List<Object[]> batch = new ArrayList<>(batchSize);
+
+		for (int i = 1; i <= count; i++) {
+			Order order = next(random, i);
+			batch.add(new Object[] { base + i, order.getCode(), order.getTotal(), order.getStatus().name(),
+					order.getCustomerName(), order.getDescription(), Timestamp.from(order.getCreatedAt()),
+					Timestamp.from(order.getUpdatedAt()) });
+			if (batch.size() == batchSize || i == count) {
+				jdbcTemplate.batchUpdate(
+						"insert into orders (id, code, total, status, customer_name, description, created_at, updated_at)"
+								+ " values (?, ?, ?, ?, ?, ?, ?, ?)",
+						batch);
+				batch.clear();
+			}
+		}
+	}
+
+	/**
+	 * A customer name that matches roughly 1/CUSTOMERS of the generated orders.
+	 */
+	public static String sampleCustomer() {
+		return customerName(7);
+	}
+
+	private static Order next(SplittableRandom random, long id) {
+		Instant createdAt = EPOCH.plusSeconds(random.nextLong(SPAN_SECONDS));
+		int customer = random.nextInt(CUSTOMERS + 10);
+
+		Order order = new Order();
+		order.setId(id);
+		order.setCode(String.format("BENCH-%07d", id));
+		order.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+		order.setTotal(BigDecimal.valueOf(100 + random.nextLong(500_000), 2));
+		order.setCustomerName(customer < CUSTOMERS ? customerName(customer) : null);
+		order.setDescription(id % 4 == 0 ? "Generated benchmark order #" + id : null);
+		order.setCreatedAt(createdAt);
+		order.setUpdatedAt(createdAt.plusSeconds(random.nextLong(86_400)));
+		return order;
+	}
+
+	private static String customerName(int customer) {
+		return "Customer " + customer + " AG";
+	}
+}
@@ -0,0 +1,65 @@
+package ch.devprojects.orderflow.mapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ch.devprojects.orderflow.bench.BenchmarkOrders;
+import ch.devprojects.orderflow.domain.Order;
+import ch.devprojects.orderflow.dto.OrderDto;
+
+/**
+ * {@link OrderMapper#toDto(Order)} over a whole result set.
+ *
+ * One operation maps all "orders" entities, so the score (and gc.alloc.rate.norm)
+ * grows linearly with the parameter; divide by it for the per-order cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class OrderMapperBenchmark {
+
+	@Param({ "1000", "100000", "1000000" })
+	private int orders;
+
+	private final OrderMapper mapper = new OrderMapper();
+	private List<Order> entities;
+
+	@Setup
+	public void setUp() {
+		entities = BenchmarkOrders.generate(orders);
+	}
+
+	@Benchmark
+	public List<OrderDto> toDtoList() {
+		List<OrderDto> result = new ArrayList<>(entities.size());
+		for (Order order : entities) {
+			result.add(mapper.toDto(order));
+		}
+		return result;
+	}
+
+	@Benchmark
+	public void toDtoEach(Blackhole blackhole) {
+		// Streaming shape: each DTO becomes garbage right away (like GET /api/orders?stream=ndjson).
+		for (Order order : entities) {
+			blackhole.consume(mapper.toDto(order));
+		}
+	}
+}
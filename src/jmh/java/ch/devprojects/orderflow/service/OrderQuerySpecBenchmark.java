@@ -0,0 +1,97 @@
+package ch.devprojects.orderflow.service;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.domain.Specification;
+
+import ch.devprojects.orderflow.bench.BenchmarkContext;
+import ch.devprojects.orderflow.domain.Order;
+import ch.devprojects.orderflow.domain.OrderStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * {@link OrderQueryServiceImpl#buildSpec} plus the Criteria predicate Hibernate
+ * builds from it, without executing SQL.
+ *
+ * Filter sets: - none: no filter (Specification.unrestricted()) - customer:
+ * customer LIKE only - all: customer, status, code range and total range
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderQuerySpecBenchmark {
+
+	@Param({ "none", "customer", "all" })
+	private String filters;
+
+	private ConfigurableApplicationContext context;
+	private EntityManager entityManager;
+
+	private String customer;
+	private OrderStatus status;
+	private String codeFrom;
+	private String codeTo;
+	private BigDecimal totalMin;
+	private BigDecimal totalMax;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = BenchmarkContext.start();
+		entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+
+		if (!"none".equals(filters)) {
+			customer = "Customer 7";
+		}
+		if ("all".equals(filters)) {
+			status = OrderStatus.PAID;
+			codeFrom = "BENCH-0000100";
+			codeTo = "BENCH-0009999";
+			totalMin = new BigDecimal("10.00");
+			totalMax = new BigDecimal("2500.00");
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		entityManager.close();
+		context.close();
+	}
+
+	@Benchmark
+	public Specification<Order> buildSpec() {
+		return OrderQueryServiceImpl.buildSpec(customer, status, codeFrom, codeTo, totalMin, totalMax);
+	}
+
+	@Benchmark
+	public Predicate buildSpecAndPredicate() {
+		Specification<Order> spec = OrderQueryServiceImpl.buildSpec(customer, status, codeFrom, codeTo, totalMin,
+				totalMax);
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Order> query = cb.createQuery(Order.class);
+		Root<Order> root = query.from(Order.class);
+		return spec.toPredicate(root, query, cb);
+	}
+}
@@ -0,0 +1,85 @@
+package ch.devprojects.orderflow.web;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import ch.devprojects.orderflow.bench.BenchmarkOrders;
+import ch.devprojects.orderflow.dto.OrderDto;
+import ch.devprojects.orderflow.dto.OrdersPageResponse;
+import ch.devprojects.orderflow.mapper.OrderMapper;
+
+/**
+ * JSON serialization of one page of orders, as returned by the list endpoints.
+ *
+ * Shapes: - OrdersPageResponse (GET /api/orders/query) - Page&lt;OrderDto&gt;
+ * (GET /api/orders/search, Spring Data's PageImpl JSON)
+ *
+ * The ObjectMapper is configured like Spring Boot's default one (java.time
+ * module, ISO dates).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderJsonBenchmark {
+
+	@Param({ "20", "100" })
+	private int pageSize;
+
+	private ObjectMapper objectMapper;
+	private OrdersPageResponse pageResponse;
+	private Page<OrderDto> springPage;
+
+	@Setup
+	public void setUp() {
+		objectMapper = Jackson2ObjectMapperBuilder.json()
+				.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+
+		OrderMapper mapper = new OrderMapper();
+		List<OrderDto> content = BenchmarkOrders.generate(pageSize).stream().map(mapper::toDto).toList();
+		long totalElements = 1_000_000L;
+
+		pageResponse = new OrdersPageResponse();
+		pageResponse.setContent(content);
+		pageResponse.setPage(0);
+		pageResponse.setSize(pageSize);
+		pageResponse.setTotalElements(totalElements);
+		pageResponse.setTotalPages((int) (totalElements / pageSize));
+
+		springPage = new PageImpl<>(content,
+				PageRequest.of(0, pageSize, Sort.by(Sort.Direction.DESC, "createdAt", "id")), totalElements);
+	}
+
+	@Benchmark
+	public byte[] ordersPageResponse() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(pageResponse);
+	}
+
+	@Benchmark
+	public byte[] springDataPage() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(springPage);
+	}
+}
@@ -0,0 +1,104 @@
+package ch.devprojects.orderflow.web;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import ch.devprojects.orderflow.dto.OrderDto;
+import ch.devprojects.orderflow.service.OrderNotFoundException;
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Cost of a 404 for an unknown order code through Spring MVC (MockMvc, with
+ * GlobalExceptionHandler as advice), by how the miss travels:
+ *
+ * - exception: new EntityNotFoundException (full stack trace) mapped by the
+ * advice, the behavior before OrderService#lookupByCode - stackless:
+ * OrderNotFoundException (no stack trace), still mapped by the advice - what
+ * update/delete do now - optional: empty Optional turned into the 404 body in
+ * the controller (OrderController#getByCode)
+ *
+ * The lookup itself is a constant empty Optional, so only the not-found
+ * handling is measured. Under Tomcat and the servlet filters the stack is
+ * deeper than in MockMvc, so the "exception" variant is more expensive in
+ * production than here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderNotFoundBenchmark {
+
+	@Param({ "exception", "stackless", "optional" })
+	private String mode;
+
+	private MockMvc mockMvc;
+	private RequestBuilder request;
+
+	@Setup
+	public void setUp() throws Exception {
+		mockMvc = MockMvcBuilders.standaloneSetup(new MissingOrderController())
+				.setControllerAdvice(new GlobalExceptionHandler()).build();
+		request = get("/orders/" + mode + "/{code}", "MISSING-1");
+
+		int status = mockMvc.perform(request).andReturn().getResponse().getStatus();
+		if (status != 404) {
+			throw new IllegalStateException(mode + " -> " + status);
+		}
+	}
+
+	@Benchmark
+	public String notFound() throws Exception {
+		return mockMvc.perform(request).andReturn().getResponse().getContentAsString();
+	}
+
+	@RestController
+	static class MissingOrderController {
+
+		private Optional<OrderDto> lookup(String code) {
+			return Optional.empty();
+		}
+
+		@GetMapping("/orders/exception/{code}")
+		public OrderDto exception(@PathVariable String code) {
+			return lookup(code).orElseThrow(() -> new EntityNotFoundException("Order not found, code=" + code));
+		}
+
+		@GetMapping("/orders/stackless/{code}")
+		public OrderDto stackless(@PathVariable String code) {
+			return lookup(code).orElseThrow(() -> OrderNotFoundException.code(code));
+		}
+
+		@GetMapping("/orders/optional/{code}")
+		public ResponseEntity<?> optional(@PathVariable String code, WebRequest request) {
+			Optional<OrderDto> order = lookup(code);
+			if (order.isEmpty()) {
+				return OrderController.notFound(OrderNotFoundException.messageForCode(code), request);
+			}
+			return ResponseEntity.ok(order.get());
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package ch.devprojects.orderflow.web;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import ch.devprojects.orderflow.bench.BenchmarkContext;
+import ch.devprojects.orderflow.bench.BenchmarkOrders;
+import ch.devprojects.orderflow.service.search.CustomerNameTrigramIndex;
+
+/**
+ * Load test of the HTTP read paths with platform vs virtual request threads
+ * (spring.threads.virtual.enabled, see application-vthreads.properties).
+ *
+ * Setup: - real application with Tomcat on a random port and a private H2
+ * database of "orders" generated orders - 128 client threads, each sending
+ * blocking HTTP/1.1 requests over a shared HttpClient - platform mode uses a
+ * deliberately small Tomcat pool ("tomcatMaxThreads") so queueing for request
+ * threads is visible on a laptop; virtual mode ignores that limit
+ *
+ * Read the results as: - Throughput: requests/ms over all client threads -
+ * SampleTime: latency distribution, look at p0.99
+ *
+ * Endpoints: - query: GET /api/orders/query?customer=...&status=PAID (filter +
+ * page + count) - lookup: GET /api/order-lookup/{random id} (lookup cache, ~10%
+ * hit rate with the default cache size)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(128)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class RequestThreadingBenchmark {
+
+	@Param({ "platform", "virtual" })
+	private String threads;
+
+	@Param({ "50" })
+	private int tomcatMaxThreads;
+
+	@Param({ "100000" })
+	private int orders;
+
+	private ConfigurableApplicationContext context;
+	private HttpClient client;
+	private HttpRequest queryRequest;
+	private String lookupBase;
+	private long minId;
+	private long maxId;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = BenchmarkContext.startWeb("spring.threads.virtual.enabled=" + "virtual".equals(threads),
+				"server.tomcat.threads.max=" + tomcatMaxThreads, "spring.datasource.hikari.maximum-pool-size=20");
+
+		JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+		jdbcTemplate.update("delete from orders");
+		BenchmarkOrders.insert(jdbcTemplate, orders);
+		minId = jdbcTemplate.queryForObject("select min(id) from orders", Long.class);
+		maxId = jdbcTemplate.queryForObject("select max(id) from orders", Long.class);
+		// rows were inserted with plain JDBC, behind the index's back
+		context.getBean(CustomerNameTrigramIndex.class).rebuild();
+
+		String base = "http://localhost:" + BenchmarkContext.port(context) + "/orderflow-api/api";
+		client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+		queryRequest = HttpRequest.newBuilder(URI.create(base + "/orders/query?status=PAID&size=20&customer="
+				+ URLEncoder.encode(BenchmarkOrders.sampleCustomer(), StandardCharsets.UTF_8))).build();
+		lookupBase = base + "/order-lookup/";
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		client.close();
+		context.close();
+	}
+
+	@Benchmark
+	public String query() throws IOException, InterruptedException {
+		return send(queryRequest);
+	}
+
+	@Benchmark
+	public String lookup() throws IOException, InterruptedException {
+		long id = ThreadLocalRandom.current().nextLong(minId, maxId + 1);
+		return send(HttpRequest.newBuilder(URI.create(lookupBase + id)).build());
+	}
+
+	private String send(HttpRequest request) throws IOException, InterruptedException {
+		HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+		if (response.statusCode() != 200) {
+			throw new IllegalStateException(request.uri() + " -> " + response.statusCode());
+		}
+		return response.body();
+	}
+}
@@ -2,13 +2,16 @@ package ch.devprojects.orderflow.analytics.dto;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * DTO for basic high-level analytics.
  *
  * Contains: - total number of orders - count of open / completed / cancelled
- * orders - summed revenue - average order value - generatedAt: timestamp of
- * when analytics were calculated
+ * orders - summed revenue - average order value - per-status breakdown (one
+ * entry per OrderStatus, in enum order) - generatedAt: timestamp of when
+ * analytics were calculated
  */
 public class AnalyticsOverviewDto {
 
@@ -20,6 +23,8 @@ public class AnalyticsOverviewDto {
 	private BigDecimal totalRevenue;
 	private BigDecimal averageOrderValue;
 
+	private List<StatusBreakdownDto> statusBreakdown = new ArrayList<>();
+
 	private Instant generatedAt; // NEW FIELD
 
 	public long getTotalOrders() {
@@ -70,6 +75,14 @@ public class AnalyticsOverviewDto {
 		this.averageOrderValue = averageOrderValue;
 	}
 
+	public List<StatusBreakdownDto> getStatusBreakdown() {
+		return statusBreakdown;
+	}
+
+	public void setStatusBreakdown(List<StatusBreakdownDto> statusBreakdown) {
+		this.statusBreakdown = statusBreakdown;
+	}
+
 	public Instant getGeneratedAt() {
 		return generatedAt;
 	}
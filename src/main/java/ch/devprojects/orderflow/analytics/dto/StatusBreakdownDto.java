@@ -0,0 +1,49 @@
+package ch.devprojects.orderflow.analytics.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Analytics figures for a single OrderStatus.
+ *
+ * Contains: - status: enum name as String (e.g. "PAID") - orders: number of
+ * orders in that status - revenue: summed totals of those orders
+ */
+public class StatusBreakdownDto {
+
+	private String status;
+	private long orders;
+	private BigDecimal revenue;
+
+	public StatusBreakdownDto() {
+	}
+
+	public StatusBreakdownDto(String status, long orders, BigDecimal revenue) {
+		this.status = status;
+		this.orders = orders;
+		this.revenue = revenue;
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	public void setStatus(String status) {
+		this.status = status;
+	}
+
+	public long getOrders() {
+		return orders;
+	}
+
+	public void setOrders(long orders) {
+		this.orders = orders;
+	}
+
+	public BigDecimal getRevenue() {
+		return revenue;
+	}
+
+	public void setRevenue(BigDecimal revenue) {
+		this.revenue = revenue;
+	}
+}
@@ -0,0 +1,51 @@
+package ch.devprojects.orderflow.analytics.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * One point of a revenue / order count time series.
+ *
+ * Contains: - bucketStart: UTC start of the bucket (hour, day or month) -
+ * orders: number of orders created in the bucket - revenue: summed totals of
+ * those orders
+ */
+public class TimeseriesPointDto {
+
+	private Instant bucketStart;
+	private long orders;
+	private BigDecimal revenue;
+
+	public TimeseriesPointDto() {
+	}
+
+	public TimeseriesPointDto(Instant bucketStart, long orders, BigDecimal revenue) {
+		this.bucketStart = bucketStart;
+		this.orders = orders;
+		this.revenue = revenue;
+	}
+
+	public Instant getBucketStart() {
+		return bucketStart;
+	}
+
+	public void setBucketStart(Instant bucketStart) {
+		this.bucketStart = bucketStart;
+	}
+
+	public long getOrders() {
+		return orders;
+	}
+
+	public void setOrders(long orders) {
+		this.orders = orders;
+	}
+
+	public BigDecimal getRevenue() {
+		return revenue;
+	}
+
+	public void setRevenue(BigDecimal revenue) {
+		this.revenue = revenue;
+	}
+}
@@ -0,0 +1,254 @@
+package ch.devprojects.orderflow.analytics.service;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import ch.devprojects.orderflow.analytics.dto.AnalyticsOverviewDto;
+import ch.devprojects.orderflow.service.cache.OrderDataVersion;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Stale-while-revalidate snapshots of SQL-computed analytics overviews, keyed by
+ * the normalized filters.
+ *
+ * Serving: - a snapshot is returned as is, however old or stale, unless the
+ * caller's maxStaleness is exceeded; only then (and on a miss) the caller
+ * recomputes synchronously - generatedAt of the DTO tells clients how old it is
+ *
+ * Stale = computed before the latest committed write ({@link OrderDataVersion})
+ * or older than max-age (which also catches writes that bypass the service
+ * layer).
+ *
+ * Refreshing (every refresh-check-interval-ms): - only stale snapshots read
+ * within refresh-read-window, most recently read first, at most
+ * refresh-max-per-tick per run; every recompute is a full aggregate scan, so
+ * steady writes must not turn into a scan of every cached filter - runs on a
+ * thread of its own: the default scheduler thread (rollup flush, live
+ * reconcile, index rebuild) only hands the run over - a failed refresh keeps
+ * the previous snapshot (logged)
+ *
+ * A stale snapshot that was not read within refresh-read-window is not
+ * refreshed by the timer; its next read still gets it right away and hands a
+ * refresh run over to the refresh thread (that read made it recently read).
+ *
+ * Bounded by max-size; filters nobody asked for within idle-expiry are dropped.
+ */
+@Component
+public class AnalyticsOverviewCache implements MeterBinder {
+
+	private static final Logger log = LoggerFactory.getLogger(AnalyticsOverviewCache.class);
+
+	static final String NAME = "analytics.overview";
+
+	private final OrderDataVersion dataVersion;
+	private final boolean enabled;
+	private final long maxAgeNanos;
+	private final long readWindowNanos;
+	private final int maxPerTick;
+	private final Executor refreshExecutor;
+	private final AtomicBoolean refreshing = new AtomicBoolean();
+	private final Ticker ticker;
+	private final Cache<String, Snapshot> snapshots;
+
+	@Autowired
+	public AnalyticsOverviewCache(OrderDataVersion dataVersion,
+			@Value("${orderflow.analytics.overview-cache.enabled:true}") boolean enabled,
+			@Value("${orderflow.analytics.overview-cache.max-size:256}") long maxSize,
+			@Value("${orderflow.analytics.overview-cache.max-age:5m}") Duration maxAge,
+			@Value("${orderflow.analytics.overview-cache.idle-expiry:30m}") Duration idleExpiry,
+			@Value("${orderflow.analytics.overview-cache.refresh-read-window:1m}") Duration readWindow,
+			@Value("${orderflow.analytics.overview-cache.refresh-max-per-tick:8}") int maxPerTick) {
+		this(dataVersion, enabled, maxSize, maxAge, idleExpiry, readWindow, maxPerTick,
+				Executors.newSingleThreadExecutor(
+						Thread.ofPlatform().name("analytics-overview-refresh").daemon().factory()),
+				Ticker.systemTicker());
+	}
+
+	/**
+	 * Visible for tests (fake ticker, direct executor).
+	 */
+	AnalyticsOverviewCache(OrderDataVersion dataVersion, boolean enabled, long maxSize, Duration maxAge,
+			Duration idleExpiry, Duration readWindow, int maxPerTick, Executor refreshExecutor, Ticker ticker) {
+		this.dataVersion = dataVersion;
+		this.enabled = enabled;
+		this.maxAgeNanos = maxAge.toNanos();
+		this.readWindowNanos = readWindow.toNanos();
+		this.maxPerTick = Math.max(1, maxPerTick);
+		this.refreshExecutor = refreshExecutor;
+		this.ticker = ticker;
+		this.snapshots = Caffeine.newBuilder().maximumSize(maxSize).expireAfterAccess(idleExpiry).ticker(ticker)
+				.recordStats().build();
+	}
+
+	/**
+	 * Cache switched off: every call runs the loader.
+	 */
+	public static AnalyticsOverviewCache disabled() {
+		return new AnalyticsOverviewCache(new OrderDataVersion(), false, 0, Duration.ZERO, Duration.ZERO,
+				Duration.ZERO, 1, Runnable::run, Ticker.systemTicker());
+	}
+
+	/**
+	 * @param key          normalized filters
+	 * @param maxStaleness oldest acceptable snapshot (null = any age)
+	 * @param loader       computes the overview, given the data version read
+	 *                     before it starts (the snapshot is tagged with it); kept
+	 *                     for the background refresh
+	 */
+	public AnalyticsOverviewDto get(String key, Duration maxStaleness, LongFunction<AnalyticsOverviewDto> loader) {
+		if (!enabled) {
+			return loader.apply(dataVersion.current());
+		}
+		long now = ticker.read();
+		Snapshot snapshot = snapshots.getIfPresent(key);
+		if (snapshot == null || (maxStaleness != null && now - snapshot.computedAt > maxStaleness.toNanos())) {
+			return load(key, loader, now);
+		}
+		long previousRead = snapshot.lastReadAt;
+		snapshot.lastReadAt = now;
+		if (now - previousRead > readWindowNanos && isStale(snapshot, dataVersion.current(), now)) {
+			// skipped by the timer so far; refreshed in the background, not by this caller
+			scheduleRefresh();
+		}
+		return snapshot.dto;
+	}
+
+	/**
+	 * Hands a refresh run over to the refresh thread, unless one is still
+	 * running (a snapshot it skipped is picked up by the next run).
+	 */
+	@Scheduled(initialDelayString = "${orderflow.analytics.overview-cache.refresh-check-interval-ms:5000}", fixedDelayString = "${orderflow.analytics.overview-cache.refresh-check-interval-ms:5000}")
+	public void scheduleRefresh() {
+		if (!enabled || !refreshing.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			refreshExecutor.execute(() -> {
+				try {
+					refreshStale();
+				} finally {
+					refreshing.set(false);
+				}
+			});
+		} catch (RejectedExecutionException ex) {
+			refreshing.set(false);
+		}
+	}
+
+	/**
+	 * Recomputes the recently read snapshots made stale by writes or age (at most
+	 * refresh-max-per-tick).
+	 *
+	 * @return number of snapshots refreshed
+	 */
+	public int refreshStale() {
+		if (!enabled) {
+			return 0;
+		}
+		long version = dataVersion.current();
+		long now = ticker.read();
+		// iterating asMap() does not count as access: idle filters still expire
+		List<Map.Entry<String, Snapshot>> due = snapshots.asMap().entrySet().stream()
+				.filter(e -> now - e.getValue().lastReadAt <= readWindowNanos && isStale(e.getValue(), version, now))
+				.sorted(Comparator.comparingLong((Map.Entry<String, Snapshot> e) -> e.getValue().lastReadAt).reversed())
+				.limit(maxPerTick).toList();
+
+		int refreshed = 0;
+		for (Map.Entry<String, Snapshot> entry : due) {
+			Snapshot snapshot = entry.getValue();
+			try {
+				load(entry.getKey(), snapshot.loader, snapshot.lastReadAt);
+				refreshed++;
+			} catch (RuntimeException ex) {
+				log.warn("Refreshing analytics overview [{}] failed, keeping the previous snapshot: {}", entry.getKey(),
+						ex.toString());
+			}
+		}
+		return refreshed;
+	}
+
+	@PreDestroy
+	public void close() {
+		if (refreshExecutor instanceof ExecutorService executorService) {
+			executorService.shutdownNow();
+		}
+	}
+
+	public void invalidateAll() {
+		snapshots.invalidateAll();
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, snapshots, NAME);
+	}
+
+	// ----------------- helpers -----------------
+
+	/**
+	 * Version and start time are taken before computing, and the loader gets that
+	 * version: it must not return a result computed before it (e.g. by joining an
+	 * older in-flight aggregate). A write committing meanwhile makes the new
+	 * snapshot stale right away. A slower, older computation never replaces a
+	 * newer snapshot; the latest read time is kept.
+	 */
+	private AnalyticsOverviewDto load(String key, LongFunction<AnalyticsOverviewDto> loader, long lastReadAt) {
+		long version = dataVersion.current();
+		long startedAt = ticker.read();
+		AnalyticsOverviewDto dto = loader.apply(version);
+		snapshots.asMap().merge(key, new Snapshot(dto, loader, version, startedAt, lastReadAt), (current, fresh) -> {
+			Snapshot winner = fresh.computedAt - current.computedAt >= 0 ? fresh : current;
+			winner.lastReadAt = Math.max(current.lastReadAt, fresh.lastReadAt);
+			return winner;
+		});
+		return dto;
+	}
+
+	private boolean isStale(Snapshot snapshot, long version, long now) {
+		return snapshot.dataVersion != version || now - snapshot.computedAt >= maxAgeNanos;
+	}
+
+	private static final class Snapshot {
+
+		final AnalyticsOverviewDto dto;
+		final LongFunction<AnalyticsOverviewDto> loader;
+		final long dataVersion;
+		final long computedAt;
+		volatile long lastReadAt;
+
+		Snapshot(AnalyticsOverviewDto dto, LongFunction<AnalyticsOverviewDto> loader, long dataVersion,
+				long computedAt, long lastReadAt) {
+			this.dto = dto;
+			this.loader = loader;
+			this.dataVersion = dataVersion;
+			this.computedAt = computedAt;
+			this.lastReadAt = lastReadAt;
+		}
+	}
+}
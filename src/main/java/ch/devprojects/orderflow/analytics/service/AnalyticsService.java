@@ -1,5 +1,8 @@
 package ch.devprojects.orderflow.analytics.service;
 
+import java.time.Duration;
+import java.time.Instant;
+
 import ch.devprojects.orderflow.analytics.dto.AnalyticsOverviewDto;
 
 /**
@@ -24,11 +27,29 @@ public interface AnalyticsService {
 	 * orders - groups them into conceptual buckets (open/completed/cancelled) -
 	 * calculates total revenue and average order value
 	 *
-	 * Later we can add overloaded methods with date filters, status filters,
-	 * customer filters, etc.
+	 * Equivalent to {@code getOverview(null, null, null)}.
 	 *
 	 * @return an {@link AnalyticsOverviewDto} populated with metrics derived from
 	 *         all orders in the database.
 	 */
 	AnalyticsOverviewDto getOverview();
+
+	/**
+	 * Compute an overview restricted by optional filters (null = no filter).
+	 *
+	 * @param createdFrom inclusive lower bound on createdAt
+	 * @param createdTo   exclusive upper bound on createdAt
+	 * @param customer    case-insensitive substring of the customer name
+	 * @return an {@link AnalyticsOverviewDto} for the matching orders
+	 */
+	AnalyticsOverviewDto getOverview(Instant createdFrom, Instant createdTo, String customer);
+
+	/**
+	 * Same, but a precomputed overview is only accepted up to the given age;
+	 * older ones are recomputed before returning. See generatedAt of the result.
+	 *
+	 * @param maxStaleness oldest acceptable overview (null = any age,
+	 *                     {@link Duration#ZERO} = always recompute)
+	 */
+	AnalyticsOverviewDto getOverview(Instant createdFrom, Instant createdTo, String customer, Duration maxStaleness);
 }
\ No newline at end of file
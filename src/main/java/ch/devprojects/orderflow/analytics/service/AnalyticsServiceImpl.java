@@ -2,28 +2,52 @@ package ch.devprojects.orderflow.analytics.service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import ch.devprojects.orderflow.analytics.dto.AnalyticsOverviewDto;
-import ch.devprojects.orderflow.domain.Order;
+import ch.devprojects.orderflow.analytics.dto.StatusBreakdownDto;
+import ch.devprojects.orderflow.diagnostics.jfr.AnalyticsEvent;
+import ch.devprojects.orderflow.domain.OrderStatus;
 import ch.devprojects.orderflow.repository.OrderRepository;
+import ch.devprojects.orderflow.repository.OrderStatusTotals;
+import ch.devprojects.orderflow.service.cache.SingleFlight;
+import ch.devprojects.orderflow.service.search.CustomerNameTrigramIndex;
 
 /**
  * Default implementation of {@link AnalyticsService}.
  *
- * Responsibilities: - Load all orders from the database (first simple version).
- * - Compute basic metrics: - total number of orders - how many are "open",
- * "completed", "cancelled" - total revenue (sum of all order totals) - average
- * order value
+ * Responsibilities: - Ask the database for COUNT/SUM grouped by status (one
+ * query, at most one row per OrderStatus). - Compute basic metrics from those
+ * few rows: - total number of orders - how many are "open", "completed",
+ * "cancelled" - total revenue (sum of all order totals) - average order value -
+ * per-status breakdown
  *
- * Implementation notes: - This first version does the aggregation in Java, not
- * in SQL. That is absolutely fine for small datasets and keeps the
- * implementation simple and easy to test. - Later, if needed, we can optimize
- * by adding dedicated repository methods with JPQL/SQL for aggregation.
+ * Implementation notes: - No Order entity is loaded; heap and CPU cost no
+ * longer grow with the table size. - Optional filters (createdAt range,
+ * customer) are pushed into the WHERE clause of the aggregate query. - The
+ * unfiltered overview is served from {@link LiveOrderAnalytics} (no DB access)
+ * once it has been seeded; it follows every committed write, so any
+ * maxStaleness except zero is met - maxStaleness zero ("always recompute")
+ * runs the SQL aggregate instead, which also sees writes that bypassed the
+ * service layer. - All other overviews are served stale-while-
+ * revalidate from {@link AnalyticsOverviewCache} (refreshed in the background
+ * after writes); maxStaleness forces a recomputation of older ones. -
+ * Concurrent identical SQL overviews (same range and customer) share one
+ * aggregate query ({@link SingleFlight}), but only while the data version has
+ * not moved since that query started (a caller after a write never gets the
+ * pre-write result); the service has no transaction of its own, so waiting
+ * callers hold no DB connection.
  *
  * Status buckets: - We group statuses by name to be robust against enum
  * changes. There is no direct dependency on a specific OrderStatus constant.
@@ -35,59 +59,92 @@ import ch.devprojects.orderflow.repository.OrderRepository;
  * OPEN bucket: - everything else (including null status)
  */
 @Service
-@Transactional(readOnly = true)
+@Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
 public class AnalyticsServiceImpl implements AnalyticsService {
 
+	static final String OVERVIEW = "analytics.overview";
+
 	private final OrderRepository orderRepository;
+	private final LiveOrderAnalytics liveOrderAnalytics;
+	private final AnalyticsOverviewCache overviewCache;
+	private final SingleFlight singleFlight;
 
 	/**
 	 * Constructor-based dependency injection. This is preferred over field
 	 * injection and works nicely with tests.
 	 */
-	public AnalyticsServiceImpl(OrderRepository orderRepository) {
+	public AnalyticsServiceImpl(OrderRepository orderRepository, LiveOrderAnalytics liveOrderAnalytics,
+			AnalyticsOverviewCache overviewCache, SingleFlight singleFlight) {
 		this.orderRepository = orderRepository;
+		this.liveOrderAnalytics = liveOrderAnalytics;
+		this.overviewCache = overviewCache;
+		this.singleFlight = singleFlight;
 	}
 
 	@Override
 	public AnalyticsOverviewDto getOverview() {
-		// 1) Load all orders – first simple version, no filters.
-		final List<Order> orders = orderRepository.findAll();
+		return getOverview(null, null, null);
+	}
+
+	@Override
+	public AnalyticsOverviewDto getOverview(Instant createdFrom, Instant createdTo, String customer) {
+		return getOverview(createdFrom, createdTo, customer, null);
+	}
 
-		final long totalOrders = orders.size();
+	@Override
+	public AnalyticsOverviewDto getOverview(Instant createdFrom, Instant createdTo, String customer,
+			Duration maxStaleness) {
+		AnalyticsEvent jfrEvent = new AnalyticsEvent();
+		jfrEvent.begin();
+		boolean unfiltered = createdFrom == null && createdTo == null && (customer == null || customer.isBlank());
+		boolean recompute = maxStaleness != null && !maxStaleness.isPositive();
+		if (unfiltered && !recompute && liveOrderAnalytics.isReady()) {
+			// In-memory counters: answers without touching the DB.
+			return commit(jfrEvent, "live", createdFrom, createdTo, customer, liveOrderAnalytics.snapshot());
+		}
 
+		String customerLike = (customer == null || customer.isBlank()) ? null
+				: "%" + OrderRepository.escapeLike(CustomerNameTrigramIndex.normalize(customer)) + "%";
+		String key = createdFrom + "|" + createdTo + "|" + customerLike;
+		AtomicBoolean computed = new AtomicBoolean();
+		AnalyticsOverviewDto dto = overviewCache.get(key, maxStaleness, dataVersion -> {
+			computed.set(true);
+			// The data version makes an aggregate started before the latest committed
+			// write a different flight.
+			return singleFlight.execute(OVERVIEW, key + "|version=" + dataVersion,
+					() -> aggregate(createdFrom, createdTo, customerLike));
+		});
+		return commit(jfrEvent, computed.get() ? "sql" : "snapshot", createdFrom, createdTo, customer, dto);
+	}
+
+	private AnalyticsOverviewDto aggregate(Instant createdFrom, Instant createdTo, String customerLike) {
+		// 1) One grouped aggregate query instead of loading every order.
+		List<OrderStatusTotals> rows = orderRepository.aggregateByStatus(createdFrom, createdTo, customerLike);
+
+		long totalOrders = 0L;
 		long openOrders = 0L;
 		long completedOrders = 0L;
 		long cancelledOrders = 0L;
 
 		BigDecimal totalRevenue = BigDecimal.ZERO;
+		Map<OrderStatus, OrderStatusTotals> byStatus = new EnumMap<>(OrderStatus.class);
 
-		// 2) Walk through all orders and compute metrics.
-		for (Order order : orders) {
-			if (order == null) {
-				continue;
-			}
+		// 2) Fold the (at most one per status) rows into the buckets.
+		for (OrderStatusTotals row : rows) {
+			long count = row.getOrderCount();
+			totalOrders += count;
 
-			// ---- Revenue aggregation ----
-			if (order.getTotal() != null) {
-				totalRevenue = totalRevenue.add(order.getTotal());
+			if (row.getTotalRevenue() != null) {
+				totalRevenue = totalRevenue.add(row.getTotalRevenue());
 			}
-
-			// ---- Status buckets ----
-			String statusName = null;
-			if (order.getStatus() != null) {
-				statusName = order.getStatus().name();
+			if (row.getStatus() != null) {
+				byStatus.put(row.getStatus(), row);
 			}
 
-			if (statusName == null) {
-				// No status -> treat as "open"
-				openOrders++;
-			} else if ("COMPLETED".equalsIgnoreCase(statusName) || "DONE".equalsIgnoreCase(statusName)) {
-				completedOrders++;
-			} else if ("CANCELLED".equalsIgnoreCase(statusName) || "CANCELED".equalsIgnoreCase(statusName)) {
-				cancelledOrders++;
-			} else {
-				// NEW, PAID, IN_PROGRESS, etc. => still considered "open"
-				openOrders++;
+			switch (bucketOf(row.getStatus())) {
+			case COMPLETED -> completedOrders += count;
+			case CANCELLED -> cancelledOrders += count;
+			default -> openOrders += count;
 			}
 		}
 
@@ -97,7 +154,16 @@ public class AnalyticsServiceImpl implements AnalyticsService {
 			averageOrderValue = totalRevenue.divide(BigDecimal.valueOf(totalOrders), 2, RoundingMode.HALF_UP);
 		}
 
-		// 4) Build DTO
+		// 4) Per-status breakdown: every status is listed, missing ones as zero.
+		List<StatusBreakdownDto> breakdown = new ArrayList<>();
+		for (OrderStatus status : OrderStatus.values()) {
+			OrderStatusTotals row = byStatus.get(status);
+			breakdown.add(row == null ? new StatusBreakdownDto(status.name(), 0L, BigDecimal.ZERO)
+					: new StatusBreakdownDto(status.name(), row.getOrderCount(),
+							row.getTotalRevenue() == null ? BigDecimal.ZERO : row.getTotalRevenue()));
+		}
+
+		// 5) Build DTO
 		AnalyticsOverviewDto dto = new AnalyticsOverviewDto();
 		dto.setTotalOrders(totalOrders);
 		dto.setOpenOrders(openOrders);
@@ -105,8 +171,49 @@ public class AnalyticsServiceImpl implements AnalyticsService {
 		dto.setCancelledOrders(cancelledOrders);
 		dto.setTotalRevenue(totalRevenue);
 		dto.setAverageOrderValue(averageOrderValue);
+		dto.setStatusBreakdown(breakdown);
 		dto.setGeneratedAt(Instant.now());
-
 		return dto;
 	}
-}
\ No newline at end of file
+
+	private static AnalyticsOverviewDto commit(AnalyticsEvent jfrEvent, String source, Instant createdFrom,
+			Instant createdTo, String customer, AnalyticsOverviewDto overview) {
+		if (jfrEvent.shouldCommit()) {
+			StringJoiner shape = new StringJoiner("+").setEmptyValue("none");
+			if (createdFrom != null || createdTo != null) {
+				shape.add("createdAt");
+			}
+			if (customer != null && !customer.isBlank()) {
+				shape.add("customer");
+			}
+			jfrEvent.source = source;
+			jfrEvent.filterShape = shape.toString();
+			jfrEvent.totalOrders = overview.getTotalOrders();
+			jfrEvent.commit();
+		}
+		return overview;
+	}
+
+	/**
+	 * Conceptual bucket used by the overview counters.
+	 */
+	enum Bucket {
+		OPEN, COMPLETED, CANCELLED
+	}
+
+	static Bucket bucketOf(OrderStatus status) {
+		if (status == null) {
+			// No status -> treat as "open"
+			return Bucket.OPEN;
+		}
+		String statusName = status.name();
+		if ("COMPLETED".equalsIgnoreCase(statusName) || "DONE".equalsIgnoreCase(statusName)) {
+			return Bucket.COMPLETED;
+		}
+		if ("CANCELLED".equalsIgnoreCase(statusName) || "CANCELED".equalsIgnoreCase(statusName)) {
+			return Bucket.CANCELLED;
+		}
+		// NEW, PAID, IN_PROGRESS, etc. => still considered "open"
+		return Bucket.OPEN;
+	}
+}
@@ -0,0 +1,332 @@
+package ch.devprojects.orderflow.analytics.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import ch.devprojects.orderflow.analytics.dto.AnalyticsOverviewDto;
+import ch.devprojects.orderflow.analytics.dto.StatusBreakdownDto;
+import ch.devprojects.orderflow.domain.OrderStatus;
+import ch.devprojects.orderflow.repository.OrderRepository;
+import ch.devprojects.orderflow.repository.OrderStatusTotals;
+import ch.devprojects.orderflow.service.event.OrderChangedEvent;
+import ch.devprojects.orderflow.service.event.OrderSnapshot;
+
+/**
+ * Incrementally maintained, in-memory analytics counters.
+ *
+ * Lifecycle: - seeded once from the DB (one GROUP BY query) when the
+ * application is ready - updated after every committed create/update/delete
+ * via {@link OrderChangedEvent} - periodically reconciled against the DB;
+ * drift seen by two consecutive reconciliations is logged and corrected by
+ * adding the difference (DB minus the counters as sampled around the query),
+ * so writes applied meanwhile are kept
+ *
+ * Representation: - one striped {@link LongAdder} per OrderStatus for counts -
+ * revenue kept as scaled longs (cents, scale 2 like orders.total
+ * decimal(14,2)) - average is derived when a snapshot is taken
+ *
+ * Consistency: - Counters are eventually consistent: a write racing with the
+ * seed may be counted twice or not at all until the next reconciliation. - A
+ * reconciliation during which writes were applied cannot tell which of them
+ * the query saw; it corrects nothing and the next one compares again. - A
+ * write that committed before the query but whose event is applied only after
+ * the second sample looks like drift once; its event then fixes the counters,
+ * so the same difference is not seen again and nothing is corrected. Real
+ * drift (manual SQL, lost events) persists and is corrected one interval
+ * later.
+ * Use {@link AnalyticsService#getOverview(Instant, Instant, String, java.time.Duration)}
+ * with filters and a zero maxStaleness when an exact DB answer is required.
+ */
+@Component
+public class LiveOrderAnalytics {
+
+	private static final Logger log = LoggerFactory.getLogger(LiveOrderAnalytics.class);
+
+	/**
+	 * Same scale as the orders.total column.
+	 */
+	static final int REVENUE_SCALE = 2;
+
+	private final OrderRepository orderRepository;
+	private final boolean enabled;
+
+	private final Map<OrderStatus, LongAdder> counts = new EnumMap<>(OrderStatus.class);
+	private final Map<OrderStatus, LongAdder> revenueCents = new EnumMap<>(OrderStatus.class);
+
+	private volatile boolean ready;
+	private volatile Instant lastReconciledAt;
+	private final LongAdder driftsDetected = new LongAdder();
+
+	/**
+	 * Serializes reconciliations. A lock rather than a monitor: it is held
+	 * across the JDBC aggregate, and a virtual thread (vthreads profile)
+	 * blocking inside synchronized would pin its carrier thread.
+	 */
+	private final ReentrantLock reconcileLock = new ReentrantLock();
+
+	/**
+	 * Drift seen by the previous reconciliation, not corrected yet (guarded by
+	 * reconcileLock).
+	 */
+	private Map<OrderStatus, long[]> unconfirmedDrift = Map.of();
+
+	public LiveOrderAnalytics(OrderRepository orderRepository,
+			@Value("${orderflow.analytics.live.enabled:true}") boolean enabled) {
+		this.orderRepository = orderRepository;
+		this.enabled = enabled;
+
+		// Maps are fully populated once and never structurally modified afterwards,
+		// so concurrent reads of the EnumMaps are safe.
+		for (OrderStatus status : OrderStatus.values()) {
+			counts.put(status, new LongAdder());
+			revenueCents.put(status, new LongAdder());
+		}
+	}
+
+	/**
+	 * Seeds the counters from the DB once Flyway and JPA are fully up.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void seed() {
+		if (!enabled) {
+			return;
+		}
+		resetTo(orderRepository.aggregateByStatus(null, null, null));
+		lastReconciledAt = Instant.now();
+		ready = true;
+	}
+
+	/**
+	 * @return true once seeded (and enabled); before that callers must fall back
+	 *         to the SQL aggregate
+	 */
+	public boolean isReady() {
+		return ready;
+	}
+
+	/**
+	 * Applies a committed write. Runs after commit so rolled back transactions are
+	 * never counted.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onOrderChanged(OrderChangedEvent event) {
+		if (!ready) {
+			return;
+		}
+		if (event.getBefore() != null) {
+			apply(event.getBefore(), -1);
+		}
+		if (event.getAfter() != null) {
+			apply(event.getAfter(), +1);
+		}
+	}
+
+	/**
+	 * Compares the counters with a fresh DB aggregate and reports (and fixes) any
+	 * drift.
+	 *
+	 * The counters are sampled before and after the query; if they moved, the
+	 * comparison is skipped. A write committed before the query but applied after
+	 * the second sample shows up as drift that its event removes again, so drift
+	 * is only corrected when the previous reconciliation saw exactly the same.
+	 * The correction is the drift itself, added to the counters, not an
+	 * overwrite: a write applied after the second sample stays counted.
+	 *
+	 * @return true if drift was confirmed and corrected
+	 */
+	@Scheduled(initialDelayString = "${orderflow.analytics.live.reconcile-interval-ms:300000}", fixedDelayString = "${orderflow.analytics.live.reconcile-interval-ms:300000}")
+	public boolean reconcile() {
+		if (!ready) {
+			return false;
+		}
+		reconcileLock.lock();
+		try {
+			return compareAndCorrect();
+		} finally {
+			reconcileLock.unlock();
+		}
+	}
+
+	private boolean compareAndCorrect() {
+		Map<OrderStatus, long[]> before = sample();
+		Map<OrderStatus, long[]> db = toScaled(orderRepository.aggregateByStatus(null, null, null));
+		Map<OrderStatus, long[]> live = sample();
+		if (!equal(before, live)) {
+			log.debug("Writes applied during the live analytics reconciliation, comparing next time");
+			return false;
+		}
+
+		List<String> drift = new ArrayList<>();
+		Map<OrderStatus, long[]> correction = new EnumMap<>(OrderStatus.class);
+		for (OrderStatus status : OrderStatus.values()) {
+			long[] expected = db.getOrDefault(status, new long[2]);
+			long[] actual = live.get(status);
+			if (expected[0] != actual[0] || expected[1] != actual[1]) {
+				drift.add(status + ": live=" + actual[0] + "/" + fromCents(actual[1]) + " db=" + expected[0] + "/"
+						+ fromCents(expected[1]));
+				correction.put(status, new long[] { expected[0] - actual[0], expected[1] - actual[1] });
+			}
+		}
+
+		lastReconciledAt = Instant.now();
+		boolean confirmed = !drift.isEmpty() && sameDrift(correction, unconfirmedDrift);
+		unconfirmedDrift = confirmed ? Map.of() : correction;
+		if (drift.isEmpty()) {
+			return false;
+		}
+		if (!confirmed) {
+			log.debug("Live analytics differ from the DB, correcting if the next reconciliation agrees: {}", drift);
+			return false;
+		}
+
+		driftsDetected.increment();
+		log.warn("Live analytics drift detected, correcting counters to DB values: {}", drift);
+		correction.forEach((status, delta) -> {
+			counts.get(status).add(delta[0]);
+			revenueCents.get(status).add(delta[1]);
+		});
+		return true;
+	}
+
+	/**
+	 * Builds the overview from the counters only (no DB access).
+	 */
+	public AnalyticsOverviewDto snapshot() {
+		long totalOrders = 0L;
+		long openOrders = 0L;
+		long completedOrders = 0L;
+		long cancelledOrders = 0L;
+		long totalCents = 0L;
+
+		List<StatusBreakdownDto> breakdown = new ArrayList<>();
+		for (OrderStatus status : OrderStatus.values()) {
+			long count = counts.get(status).sum();
+			long cents = revenueCents.get(status).sum();
+
+			totalOrders += count;
+			totalCents += cents;
+			switch (AnalyticsServiceImpl.bucketOf(status)) {
+			case COMPLETED -> completedOrders += count;
+			case CANCELLED -> cancelledOrders += count;
+			default -> openOrders += count;
+			}
+			breakdown.add(new StatusBreakdownDto(status.name(), count, fromCents(cents)));
+		}
+
+		BigDecimal totalRevenue = fromCents(totalCents);
+		BigDecimal averageOrderValue = BigDecimal.ZERO;
+		if (totalOrders > 0 && totalCents != 0) {
+			averageOrderValue = totalRevenue.divide(BigDecimal.valueOf(totalOrders), 2, RoundingMode.HALF_UP);
+		}
+
+		AnalyticsOverviewDto dto = new AnalyticsOverviewDto();
+		dto.setTotalOrders(totalOrders);
+		dto.setOpenOrders(openOrders);
+		dto.setCompletedOrders(completedOrders);
+		dto.setCancelledOrders(cancelledOrders);
+		dto.setTotalRevenue(totalRevenue);
+		dto.setAverageOrderValue(averageOrderValue);
+		dto.setStatusBreakdown(breakdown);
+		dto.setGeneratedAt(Instant.now());
+		return dto;
+	}
+
+	public Instant getLastReconciledAt() {
+		return lastReconciledAt;
+	}
+
+	public long getDriftsDetected() {
+		return driftsDetected.sum();
+	}
+
+	// ----------------- helpers -----------------
+
+	private void apply(OrderSnapshot order, int sign) {
+		if (order.getStatus() == null) {
+			return;
+		}
+		counts.get(order.getStatus()).add(sign);
+		revenueCents.get(order.getStatus()).add(sign * toCents(order.getTotal()));
+	}
+
+	private void resetTo(List<OrderStatusTotals> rows) {
+		Map<OrderStatus, long[]> db = toScaled(rows);
+		for (OrderStatus status : OrderStatus.values()) {
+			long[] values = db.getOrDefault(status, new long[2]);
+			LongAdder count = counts.get(status);
+			LongAdder cents = revenueCents.get(status);
+			count.add(values[0] - count.sum());
+			cents.add(values[1] - cents.sum());
+		}
+	}
+
+	/**
+	 * Current (count, cents) per status.
+	 */
+	private Map<OrderStatus, long[]> sample() {
+		Map<OrderStatus, long[]> result = new EnumMap<>(OrderStatus.class);
+		for (OrderStatus status : OrderStatus.values()) {
+			result.put(status, new long[] { counts.get(status).sum(), revenueCents.get(status).sum() });
+		}
+		return result;
+	}
+
+	private static boolean equal(Map<OrderStatus, long[]> a, Map<OrderStatus, long[]> b) {
+		for (OrderStatus status : OrderStatus.values()) {
+			if (!Arrays.equals(a.get(status), b.get(status))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean sameDrift(Map<OrderStatus, long[]> a, Map<OrderStatus, long[]> b) {
+		if (!a.keySet().equals(b.keySet())) {
+			return false;
+		}
+		for (Map.Entry<OrderStatus, long[]> entry : a.entrySet()) {
+			if (!Arrays.equals(entry.getValue(), b.get(entry.getKey()))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static Map<OrderStatus, long[]> toScaled(List<OrderStatusTotals> rows) {
+		Map<OrderStatus, long[]> result = new EnumMap<>(OrderStatus.class);
+		for (OrderStatusTotals row : rows) {
+			if (row.getStatus() != null) {
+				result.put(row.getStatus(), new long[] { row.getOrderCount(), toCents(row.getTotalRevenue()) });
+			}
+		}
+		return result;
+	}
+
+	static long toCents(BigDecimal amount) {
+		if (amount == null) {
+			return 0L;
+		}
+		return amount.setScale(REVENUE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+	}
+
+	static BigDecimal fromCents(long cents) {
+		return BigDecimal.valueOf(cents, REVENUE_SCALE);
+	}
+}
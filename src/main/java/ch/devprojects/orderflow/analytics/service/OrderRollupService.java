@@ -0,0 +1,44 @@
+package ch.devprojects.orderflow.analytics.service;
+
+import java.time.Instant;
+import java.util.List;
+
+import ch.devprojects.orderflow.analytics.dto.TimeseriesPointDto;
+import ch.devprojects.orderflow.domain.OrderStatus;
+import ch.devprojects.orderflow.domain.RollupGranularity;
+
+/**
+ * Time-bucketed order analytics backed by the pre-aggregated order_rollups
+ * table (Flyway V7).
+ *
+ * Responsibilities: - Keep HOUR / DAY / MONTH buckets up to date from the order
+ * write path - Rebuild recent buckets from the orders table (catch-up) - Serve
+ * time series for arbitrary ranges without scanning raw orders
+ */
+public interface OrderRollupService {
+
+	/**
+	 * Maximum number of points a single time series request may return.
+	 */
+	int MAX_POINTS = 5000;
+
+	/**
+	 * Time series for [from, to), one point per bucket of the given granularity
+	 * (empty buckets are returned as zero).
+	 *
+	 * Notes: - from/to are widened to full hours (the finest stored resolution) -
+	 * the first/last point may cover only part of its bucket if from/to are not
+	 * aligned to the granularity
+	 *
+	 * @param status optional status filter (null = all statuses)
+	 * @throws IllegalArgumentException if the range is invalid or would produce
+	 *                                  more than {@link #MAX_POINTS} points
+	 */
+	List<TimeseriesPointDto> getTimeseries(Instant from, Instant to, RollupGranularity granularity,
+			OrderStatus status);
+
+	/**
+	 * Recomputes all buckets from the given instant onwards from the orders table.
+	 */
+	void rebuildFrom(Instant from);
+}
@@ -0,0 +1,328 @@
+package ch.devprojects.orderflow.analytics.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ch.devprojects.orderflow.analytics.dto.TimeseriesPointDto;
+import ch.devprojects.orderflow.domain.OrderRollup;
+import ch.devprojects.orderflow.domain.OrderRollupId;
+import ch.devprojects.orderflow.domain.OrderStatus;
+import ch.devprojects.orderflow.domain.RollupGranularity;
+import ch.devprojects.orderflow.repository.OrderCreatedTotal;
+import ch.devprojects.orderflow.repository.OrderRepository;
+import ch.devprojects.orderflow.repository.OrderRollupRepository;
+import ch.devprojects.orderflow.service.event.OrderChangedEvent;
+import ch.devprojects.orderflow.service.event.OrderSnapshot;
+
+/**
+ * Default implementation of {@link OrderRollupService}.
+ *
+ * Write path (incremental): - every committed {@link OrderChangedEvent} adds
+ * +1/-1 deltas for the HOUR, DAY and MONTH bucket of the order's createdAt -
+ * deltas are buffered in memory and written by a scheduled flush, so the hot
+ * "current hour" rows are updated a few times per interval instead of once per
+ * order
+ *
+ * Catch-up: - a scheduled job recomputes the trailing window (default 48h) of
+ * HOUR buckets from the orders table and derives DAY and MONTH from them - on
+ * startup, an empty rollup table is backfilled from all orders
+ *
+ * Consistency: - Eventually consistent. A crash loses at most one flush
+ * interval of deltas, and a write racing with a catch-up may be counted twice
+ * until the next catch-up. Both heal automatically for the trailing window.
+ */
+@Service
+public class OrderRollupServiceImpl implements OrderRollupService {
+
+	private static final Logger log = LoggerFactory.getLogger(OrderRollupServiceImpl.class);
+
+	private final OrderRepository orderRepository;
+	private final OrderRollupRepository rollupRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final Duration catchUpWindow;
+
+	/**
+	 * Deltas from the write path not yet written to order_rollups.
+	 */
+	private final ConcurrentHashMap<OrderRollupId, Delta> pending = new ConcurrentHashMap<>();
+
+	/**
+	 * Serializes flush and rebuild (the only writers of order_rollups). A lock
+	 * rather than a monitor: it is held across JDBC calls, and a virtual thread
+	 * blocking inside synchronized would pin its carrier thread.
+	 */
+	private final ReentrantLock writeLock = new ReentrantLock();
+
+	public OrderRollupServiceImpl(OrderRepository orderRepository, OrderRollupRepository rollupRepository,
+			PlatformTransactionManager transactionManager,
+			@Value("${orderflow.analytics.rollup.catch-up-window-hours:48}") long catchUpWindowHours) {
+		this.orderRepository = orderRepository;
+		this.rollupRepository = rollupRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.catchUpWindow = Duration.ofHours(catchUpWindowHours);
+	}
+
+	// ----------------- write path -----------------
+
+	/**
+	 * First start after V7: build all buckets from the existing orders.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void backfillIfEmpty() {
+		if (rollupRepository.count() == 0 && orderRepository.count() > 0) {
+			log.info("order_rollups is empty, rebuilding from all orders");
+			rebuildFrom(Instant.EPOCH);
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onOrderChanged(OrderChangedEvent event) {
+		if (event.getBefore() != null) {
+			addDelta(event.getBefore(), -1);
+		}
+		if (event.getAfter() != null) {
+			addDelta(event.getAfter(), +1);
+		}
+	}
+
+	/**
+	 * Writes buffered deltas. On failure they are put back and retried on the next
+	 * run.
+	 */
+	@Scheduled(fixedDelayString = "${orderflow.analytics.rollup.flush-interval-ms:5000}")
+	public void flush() {
+		writeLock.lock();
+		try {
+			if (pending.isEmpty()) {
+				return;
+			}
+
+			// remove() is atomic per key: a concurrent writer simply starts a new entry.
+			Map<OrderRollupId, Delta> drained = new HashMap<>();
+			for (OrderRollupId key : pending.keySet()) {
+				Delta delta = pending.remove(key);
+				if (delta != null) {
+					drained.put(key, delta);
+				}
+			}
+
+			try {
+				transactionTemplate.executeWithoutResult(tx -> drained.forEach(this::applyDelta));
+			} catch (RuntimeException ex) {
+				log.warn("Flushing {} rollup deltas failed, will retry: {}", drained.size(), ex.toString());
+				drained.forEach((key, delta) -> pending.merge(key, delta, Delta::plus));
+			}
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	@Scheduled(initialDelayString = "${orderflow.analytics.rollup.catch-up-interval-ms:900000}", fixedDelayString = "${orderflow.analytics.rollup.catch-up-interval-ms:900000}")
+	public void catchUp() {
+		rebuildFrom(Instant.now().minus(catchUpWindow));
+	}
+
+	@Override
+	public void rebuildFrom(Instant from) {
+		writeLock.lock();
+		try {
+			flush();
+			transactionTemplate.executeWithoutResult(tx -> rebuild(from));
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	// ----------------- read path -----------------
+
+	@Override
+	public List<TimeseriesPointDto> getTimeseries(Instant from, Instant to, RollupGranularity granularity,
+			OrderStatus status) {
+		if (from == null || to == null || granularity == null) {
+			throw new IllegalArgumentException("from, to and granularity are required");
+		}
+		if (!from.isBefore(to)) {
+			throw new IllegalArgumentException("from must be before to");
+		}
+
+		// Widen to full hours: the finest stored resolution.
+		Instant start = RollupGranularity.HOUR.truncate(from);
+		Instant end = RollupGranularity.HOUR.truncate(to);
+		if (end.isBefore(to)) {
+			end = RollupGranularity.HOUR.next(end);
+		}
+
+		// Output buckets (zero-filled), capped to protect the server.
+		Map<Instant, Delta> points = new TreeMap<>();
+		for (Instant p = granularity.truncate(start); p.isBefore(end); p = granularity.next(p)) {
+			if (points.size() >= MAX_POINTS) {
+				throw new IllegalArgumentException("range too large: more than " + MAX_POINTS + " points");
+			}
+			points.put(p, Delta.ZERO);
+		}
+
+		// Read the coarsest stored buckets that fit, finer ones only at the edges.
+		Map<RollupGranularity, List<Instant[]>> plan = new EnumMap<>(RollupGranularity.class);
+		plan(granularity, start, end, plan);
+
+		plan.forEach((level, ranges) -> {
+			for (Instant[] range : ranges) {
+				for (OrderRollup row : rollupRepository.findRange(level, range[0], range[1])) {
+					if (status != null && row.getId().getStatus() != status) {
+						continue;
+					}
+					Delta value = new Delta(row.getOrderCount(), LiveOrderAnalytics.toCents(row.getRevenue()));
+					points.merge(granularity.truncate(row.getId().getBucketStart()), value, Delta::plus);
+				}
+			}
+		});
+
+		List<TimeseriesPointDto> result = new ArrayList<>(points.size());
+		points.forEach((bucket, value) -> result
+				.add(new TimeseriesPointDto(bucket, value.count, LiveOrderAnalytics.fromCents(value.cents))));
+		return result;
+	}
+
+	/**
+	 * Splits [start, end) into full buckets of the given level plus finer ranges
+	 * for the ragged edges, e.g. for MONTH: hours/days before the first full month,
+	 * the full months, days/hours after the last full month.
+	 */
+	static void plan(RollupGranularity level, Instant start, Instant end,
+			Map<RollupGranularity, List<Instant[]>> plan) {
+		if (!start.isBefore(end)) {
+			return;
+		}
+		if (level.finer() == null) {
+			plan.computeIfAbsent(level, k -> new ArrayList<>()).add(new Instant[] { start, end });
+			return;
+		}
+
+		Instant truncatedStart = level.truncate(start);
+		Instant firstFull = truncatedStart.equals(start) ? start : level.next(truncatedStart);
+		Instant lastFull = level.truncate(end);
+
+		if (!firstFull.isBefore(lastFull)) {
+			// No complete bucket of this level inside the range.
+			plan(level.finer(), start, end, plan);
+			return;
+		}
+
+		plan(level.finer(), start, firstFull, plan);
+		plan.computeIfAbsent(level, k -> new ArrayList<>()).add(new Instant[] { firstFull, lastFull });
+		plan(level.finer(), lastFull, end, plan);
+	}
+
+	// ----------------- helpers -----------------
+
+	private void addDelta(OrderSnapshot order, int sign) {
+		if (order.getCreatedAt() == null || order.getStatus() == null) {
+			return;
+		}
+		Delta delta = new Delta(sign, sign * LiveOrderAnalytics.toCents(order.getTotal()));
+		for (RollupGranularity granularity : RollupGranularity.values()) {
+			OrderRollupId key = new OrderRollupId(granularity, granularity.truncate(order.getCreatedAt()),
+					order.getStatus());
+			pending.merge(key, delta, Delta::plus);
+		}
+	}
+
+	private void applyDelta(OrderRollupId key, Delta delta) {
+		OrderRollup row = rollupRepository.findById(key).orElseGet(() -> new OrderRollup(key));
+		row.setOrderCount(row.getOrderCount() + delta.count);
+		row.setRevenue(row.getRevenue().add(LiveOrderAnalytics.fromCents(delta.cents)));
+
+		if (row.getOrderCount() > 0) {
+			rollupRepository.save(row);
+		} else if (!row.isNew()) {
+			rollupRepository.delete(row);
+		}
+	}
+
+	private void rebuild(Instant from) {
+		Instant hourFrom = RollupGranularity.HOUR.truncate(from);
+
+		// 1) HOUR buckets straight from the orders table (projection, streamed).
+		Map<OrderRollupId, Delta> hours = new HashMap<>();
+		try (Stream<OrderCreatedTotal> rows = orderRepository.streamCreatedTotalsSince(hourFrom)) {
+			rows.forEach(row -> {
+				if (row.getCreatedAt() == null || row.getStatus() == null) {
+					return;
+				}
+				OrderRollupId key = new OrderRollupId(RollupGranularity.HOUR,
+						RollupGranularity.HOUR.truncate(row.getCreatedAt()), row.getStatus());
+				hours.merge(key, new Delta(1, LiveOrderAnalytics.toCents(row.getTotal())), Delta::plus);
+			});
+		}
+		replace(RollupGranularity.HOUR, hourFrom, hours);
+
+		// 2) DAY from HOUR, MONTH from DAY (whole buckets containing hourFrom).
+		RollupGranularity finer = RollupGranularity.HOUR;
+		for (RollupGranularity level : List.of(RollupGranularity.DAY, RollupGranularity.MONTH)) {
+			Instant levelFrom = level.truncate(hourFrom);
+			Map<OrderRollupId, Delta> merged = new HashMap<>();
+			for (OrderRollup row : rollupRepository.findFrom(finer, levelFrom)) {
+				OrderRollupId key = new OrderRollupId(level, level.truncate(row.getId().getBucketStart()),
+						row.getId().getStatus());
+				merged.merge(key, new Delta(row.getOrderCount(), LiveOrderAnalytics.toCents(row.getRevenue())),
+						Delta::plus);
+			}
+			replace(level, levelFrom, merged);
+			finer = level;
+		}
+	}
+
+	private void replace(RollupGranularity granularity, Instant from, Map<OrderRollupId, Delta> values) {
+		rollupRepository.deleteFrom(granularity, from);
+
+		List<OrderRollup> rows = new ArrayList<>(values.size());
+		values.forEach((key, value) -> {
+			OrderRollup row = new OrderRollup(key);
+			row.setOrderCount(value.count);
+			row.setRevenue(LiveOrderAnalytics.fromCents(value.cents));
+			rows.add(row);
+		});
+		rollupRepository.saveAll(rows);
+	}
+
+	/**
+	 * Immutable (count, revenue in cents) pair; merged with
+	 * ConcurrentHashMap.merge so concurrent writers never lose updates.
+	 */
+	private static final class Delta {
+
+		static final Delta ZERO = new Delta(0, 0);
+
+		final long count;
+		final long cents;
+
+		Delta(long count, long cents) {
+			this.count = count;
+			this.cents = cents;
+		}
+
+		Delta plus(Delta other) {
+			return new Delta(count + other.count, cents + other.cents);
+		}
+	}
+}
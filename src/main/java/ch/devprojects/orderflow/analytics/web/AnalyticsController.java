@@ -1,10 +1,21 @@
 package ch.devprojects.orderflow.analytics.web;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
 import ch.devprojects.orderflow.analytics.dto.AnalyticsOverviewDto;
+import ch.devprojects.orderflow.analytics.dto.TimeseriesPointDto;
 import ch.devprojects.orderflow.analytics.service.AnalyticsService;
+import ch.devprojects.orderflow.analytics.service.OrderRollupService;
+import ch.devprojects.orderflow.domain.OrderStatus;
+import ch.devprojects.orderflow.domain.RollupGranularity;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -16,6 +27,9 @@ import org.springframework.web.bind.annotation.RestController;
  * as: - total number of orders - open / completed / cancelled counts - total
  * revenue - average order value - generatedAt timestamp
  *
+ * GET /api/analytics/timeseries -> order count and revenue per hour/day/month,
+ * served from the pre-aggregated rollup buckets
+ *
  * NOTE: - This controller is intentionally thin. All business logic is
  * implemented in {@link AnalyticsService}.
  */
@@ -24,24 +38,58 @@ import org.springframework.web.bind.annotation.RestController;
 public class AnalyticsController {
 
 	private final AnalyticsService analyticsService;
+	private final OrderRollupService orderRollupService;
 
 	/**
 	 * Constructor-based dependency injection.
 	 *
 	 * We avoid Lombok here to keep the code explicit and easy to understand.
 	 */
-	public AnalyticsController(AnalyticsService analyticsService) {
+	public AnalyticsController(AnalyticsService analyticsService, OrderRollupService orderRollupService) {
 		this.analyticsService = analyticsService;
+		this.orderRollupService = orderRollupService;
 	}
 
 	/**
-	 * GET /api/analytics/overview
+	 * GET /api/analytics/overview?from=...&to=...&customer=...&maxStaleness=30s
 	 *
-	 * Returns the current analytics overview as a JSON DTO.
+	 * Returns the current analytics overview as a JSON DTO. All filters are
+	 * optional: - from/to: ISO-8601 instants, createdAt in [from, to) - customer:
+	 * case-insensitive substring of the customer name
+	 *
+	 * Filtered overviews come from a snapshot refreshed in the background
+	 * (generatedAt shows its age); maxStaleness ("30s", "PT1M", "0s" = always
+	 * fresh) recomputes it first when it is older than that. The unfiltered
+	 * overview comes from live counters; only maxStaleness=0s recomputes it in
+	 * SQL.
 	 */
 	@GetMapping("/overview")
-	public ResponseEntity<AnalyticsOverviewDto> getOverview() {
-		AnalyticsOverviewDto overview = analyticsService.getOverview();
+	public ResponseEntity<AnalyticsOverviewDto> getOverview(
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+			@RequestParam(required = false) String customer,
+			@RequestParam(required = false) String maxStaleness) {
+		Duration staleness = (maxStaleness == null || maxStaleness.isBlank()) ? null
+				: DurationStyle.detectAndParse(maxStaleness.trim());
+		AnalyticsOverviewDto overview = analyticsService.getOverview(from, to, customer, staleness);
 		return ResponseEntity.ok(overview);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * GET
+	 * /api/analytics/timeseries?from=2025-01-01T00:00:00Z&to=2025-04-01T00:00:00Z&granularity=DAY&status=PAID
+	 *
+	 * Returns one point per bucket in [from, to). granularity is HOUR, DAY
+	 * (default) or MONTH; status is optional.
+	 */
+	@GetMapping("/timeseries")
+	public ResponseEntity<List<TimeseriesPointDto>> getTimeseries(
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+			@RequestParam(defaultValue = "DAY") String granularity,
+			@RequestParam(required = false) OrderStatus status) {
+		// Parse manually so "day" works too and bad values end up as 400
+		RollupGranularity parsed = RollupGranularity.valueOf(granularity.trim().toUpperCase());
+		return ResponseEntity.ok(orderRollupService.getTimeseries(from, to, parsed, status));
+	}
+}
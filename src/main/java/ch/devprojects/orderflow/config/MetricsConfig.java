@@ -0,0 +1,105 @@
+package ch.devprojects.orderflow.config;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.web.servlet.HandlerMapping;
+
+import ch.devprojects.orderflow.diagnostics.RequestTrace;
+import ch.devprojects.orderflow.mapper.OrderMapper;
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Application specific meters on top of what Spring Boot already records.
+ *
+ * Out of the box (actuator + micrometer-registry-prometheus): -
+ * http.server.requests per uri/method/status/outcome/exception -
+ * spring.data.repository.invocations per OrderRepository method - hikaricp.* pool
+ * gauges and timers - hibernate.* statistics (hibernate.generate_statistics)
+ *
+ * Added here: - a "handler" tag (e.g. OrderController#search) on
+ * http.server.requests, so RED metrics can be read per controller method -
+ * orderflow.mapper timer per OrderMapper method (also reported as the
+ * "mapping" phase of the request trace, see diagnostics.RequestTrace)
+ *
+ * Histogram buckets and the endpoint exposure are set in the properties
+ * files (management.metrics.distribution.*).
+ */
+@Configuration
+public class MetricsConfig {
+
+	static final String MAPPER_TIMER = "orderflow.mapper";
+
+	@Bean
+	public ServerRequestObservationConvention handlerTaggingObservationConvention() {
+		return new DefaultServerRequestObservationConvention() {
+			@Override
+			public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+				return super.getLowCardinalityKeyValues(context).and(handler(context));
+			}
+		};
+	}
+
+	/**
+	 * Wraps the OrderMapper bean in a class-based proxy timing every public
+	 * method. Static so it does not force early initialization of this
+	 * configuration.
+	 */
+	@Bean
+	public static BeanPostProcessor orderMapperTimingPostProcessor(ObjectProvider<MeterRegistry> registry) {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (!(bean instanceof OrderMapper)) {
+					return bean;
+				}
+				ProxyFactory proxyFactory = new ProxyFactory(bean);
+				proxyFactory.setProxyTargetClass(true);
+				proxyFactory.addAdvice(timing(registry));
+				return proxyFactory.getProxy();
+			}
+		};
+	}
+
+	// ----------------- helpers -----------------
+
+	static KeyValue handler(ServerRequestObservationContext context) {
+		return KeyValue.of("handler", RequestTrace
+				.endpointOf(context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE)));
+	}
+
+	private static MethodInterceptor timing(ObjectProvider<MeterRegistry> registry) {
+		Map<Method, Timer> timers = new ConcurrentHashMap<>();
+		return invocation -> {
+			MeterRegistry meterRegistry = registry.getIfAvailable();
+			if (meterRegistry == null || invocation.getMethod().getDeclaringClass() != OrderMapper.class) {
+				return invocation.proceed();
+			}
+			Timer timer = timers.computeIfAbsent(invocation.getMethod(),
+					method -> Timer.builder(MAPPER_TIMER).description("OrderMapper mapping time")
+							.tag("method", method.getName()).register(meterRegistry));
+			long start = System.nanoTime();
+			try {
+				return invocation.proceed();
+			} finally {
+				long elapsed = System.nanoTime() - start;
+				timer.record(elapsed, TimeUnit.NANOSECONDS);
+				RequestTrace.add(RequestTrace.Phase.MAPPING, elapsed);
+			}
+		};
+	}
+}
@@ -6,6 +6,10 @@ import org.springframework.context.annotation.Configuration;
 import ch.devprojects.orderflow.repository.OrderRepository;
 import ch.devprojects.orderflow.service.OrderQueryService;
 import ch.devprojects.orderflow.service.OrderQueryServiceImpl;
+import ch.devprojects.orderflow.service.cache.OrderCountCache;
+import ch.devprojects.orderflow.service.cache.OrderDataVersion;
+import ch.devprojects.orderflow.service.cache.SingleFlight;
+import ch.devprojects.orderflow.service.search.CustomerNameTrigramIndex;
 
 /**
  * Explicit bean registration for OrderQueryService.
@@ -19,7 +23,9 @@ import ch.devprojects.orderflow.service.OrderQueryServiceImpl;
 public class OrderQueryServiceConfig {
 
 	@Bean
-	public OrderQueryService orderQueryService(OrderRepository orderRepository) {
-		return new OrderQueryServiceImpl(orderRepository);
+	public OrderQueryService orderQueryService(OrderRepository orderRepository, OrderCountCache orderCountCache,
+			CustomerNameTrigramIndex customerNameIndex, SingleFlight singleFlight, OrderDataVersion orderDataVersion) {
+		return new OrderQueryServiceImpl(orderRepository, orderCountCache, customerNameIndex, singleFlight,
+				orderDataVersion);
 	}
 }
\ No newline at end of file
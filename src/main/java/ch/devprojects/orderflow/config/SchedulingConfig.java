@@ -0,0 +1,15 @@
+package ch.devprojects.orderflow.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (e.g. live analytics reconciliation).
+ *
+ * Kept in its own class so scheduling can later be switched off per profile
+ * without touching the main application class.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
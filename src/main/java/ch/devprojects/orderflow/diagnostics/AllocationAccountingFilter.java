@@ -0,0 +1,96 @@
+package ch.devprojects.orderflow.diagnostics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.sun.management.ThreadMXBean;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Heap bytes allocated by the request thread, per endpoint.
+ *
+ * Measurement: - ThreadMXBean.getCurrentThreadAllocatedBytes() before and
+ * after the filter chain (TLAB granularity, includes Jackson serialization) -
+ * only the request thread: async work (streaming export) and threads that do
+ * not support the counter (the JVM returns -1) are not recorded
+ *
+ * Output: - orderflow.request.allocation distribution summary (bytes, histogram
+ * buckets) tagged with handler, e.g. "OrderController#search" - a WARN line
+ * for requests above orderflow.diagnostics.allocation.budget
+ */
+@Component
+public class AllocationAccountingFilter extends OncePerRequestFilter {
+
+	private static final Logger log = LoggerFactory.getLogger(AllocationAccountingFilter.class);
+
+	static final String METRIC = "orderflow.request.allocation";
+
+	private final ThreadMXBean threads;
+	private final ObjectProvider<MeterRegistry> registry;
+	private final boolean enabled;
+	private final long budgetBytes;
+	private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+	public AllocationAccountingFilter(ObjectProvider<MeterRegistry> registry,
+			@Value("${orderflow.diagnostics.allocation.enabled:true}") boolean enabled,
+			@Value("${orderflow.diagnostics.allocation.budget:32MB}") DataSize budget) {
+		this.registry = registry;
+		this.enabled = enabled;
+		this.budgetBytes = budget.toBytes();
+		this.threads = ManagementFactory.getThreadMXBean() instanceof ThreadMXBean bean
+				&& bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled() ? bean : null;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !enabled || threads == null;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		long before = threads.getCurrentThreadAllocatedBytes();
+		try {
+			chain.doFilter(request, response);
+		} finally {
+			long after = threads.getCurrentThreadAllocatedBytes();
+			if (before >= 0 && after >= 0) {
+				record(request, after - before);
+			}
+		}
+	}
+
+	private void record(HttpServletRequest request, long bytes) {
+		String handler = RequestTrace.endpointOf(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE));
+		MeterRegistry meterRegistry = registry.getIfAvailable();
+		if (meterRegistry != null) {
+			summaries.computeIfAbsent(handler,
+					key -> DistributionSummary.builder(METRIC).description("Heap bytes allocated per request")
+							.baseUnit("bytes").tag("handler", key).publishPercentileHistogram()
+							.minimumExpectedValue(1024.0).maximumExpectedValue((double) DataSize.ofGigabytes(1).toBytes())
+							.register(meterRegistry))
+					.record(bytes);
+		}
+		if (bytes > budgetBytes) {
+			log.warn("{} {} ({}) allocated {} KB, budget {} KB", request.getMethod(), request.getRequestURI(), handler,
+					bytes / 1024, budgetBytes / 1024);
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package ch.devprojects.orderflow.diagnostics;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Runs a callback once, right before the wrapped response can be committed
+ * (first body write, flush, error or redirect), so the callback can still add
+ * headers. Filters call {@link #beforeCommit()} themselves for responses
+ * without a body.
+ */
+class BeforeCommitResponseWrapper extends HttpServletResponseWrapper {
+
+	private final Runnable callback;
+	private boolean done;
+
+	BeforeCommitResponseWrapper(HttpServletResponse response, Runnable callback) {
+		super(response);
+		this.callback = callback;
+	}
+
+	void beforeCommit() {
+		if (done) {
+			return;
+		}
+		done = true;
+		if (!getResponse().isCommitted()) {
+			callback.run();
+		}
+	}
+
+	@Override
+	public ServletOutputStream getOutputStream() throws IOException {
+		beforeCommit();
+		return super.getOutputStream();
+	}
+
+	@Override
+	public PrintWriter getWriter() throws IOException {
+		beforeCommit();
+		return super.getWriter();
+	}
+
+	@Override
+	public void flushBuffer() throws IOException {
+		beforeCommit();
+		super.flushBuffer();
+	}
+
+	@Override
+	public void sendError(int sc) throws IOException {
+		beforeCommit();
+		super.sendError(sc);
+	}
+
+	@Override
+	public void sendError(int sc, String msg) throws IOException {
+		beforeCommit();
+		super.sendError(sc, msg);
+	}
+
+	@Override
+	public void sendRedirect(String location) throws IOException {
+		beforeCommit();
+		super.sendRedirect(location);
+	}
+}
@@ -0,0 +1,136 @@
+package ch.devprojects.orderflow.diagnostics;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Counts and logs the exceptions mapped to error responses.
+ *
+ * Every error: - orderflow.errors counter tagged with exception (simple class
+ * name), handler ("OrderController#search") and status
+ *
+ * Server errors (5xx) are logged with sampling per exception type: the full
+ * stack trace for the 1st, (N+1)th, (2N+1)th... occurrence within a window
+ * (orderflow.diagnostics.errors.stack-every /
+ * orderflow.diagnostics.errors.window), one ERROR line without the stack trace
+ * for the others. The log line carries exception, handler, path, status and
+ * occurrence as SLF4J key-value pairs (fields for a JSON encoder) and in the
+ * message text. Client errors
+ * (4xx) are only counted. In production the console appender is asynchronous
+ * (logback-spring.xml).
+ *
+ * Created by the GlobalExceptionHandler, which reads the settings.
+ */
+public class ErrorReporter {
+
+	private static final Logger log = LoggerFactory.getLogger(ErrorReporter.class);
+
+	static final String METRIC = "orderflow.errors";
+
+	private final ObjectProvider<MeterRegistry> registry;
+	private final long windowNanos;
+	private final long stackEvery;
+	private final Ticker ticker;
+	private final Map<Class<?>, Window> windows = new ConcurrentHashMap<>();
+	private final Map<ErrorKey, Counter> counters = new ConcurrentHashMap<>();
+
+	public ErrorReporter(ObjectProvider<MeterRegistry> registry, Duration window, long stackEvery) {
+		this(registry, window, stackEvery, Ticker.systemTicker());
+	}
+
+	/**
+	 * Visible for tests (fake ticker).
+	 */
+	ErrorReporter(ObjectProvider<MeterRegistry> registry, Duration window, long stackEvery, Ticker ticker) {
+		this.registry = registry;
+		this.windowNanos = window.toNanos();
+		this.stackEvery = Math.max(1, stackEvery);
+		this.ticker = ticker;
+	}
+
+	/**
+	 * Reporter without metrics, default sampling (handlers built outside Spring).
+	 */
+	public static ErrorReporter withoutMetrics() {
+		return new ErrorReporter(new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class),
+				Duration.ofMinutes(1), 100, Ticker.systemTicker());
+	}
+
+	/**
+	 * @return true if the stack trace was logged
+	 */
+	public boolean report(Throwable ex, HttpServletRequest request, int status) {
+		String handler = RequestTrace.endpointOf(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE));
+		count(ex, handler, status);
+		if (status < 500) {
+			return false;
+		}
+
+		long occurrence = windows.computeIfAbsent(ex.getClass(), type -> new Window()).next(ticker.read(), windowNanos);
+		boolean withStack = (occurrence - 1) % stackEvery == 0;
+		LoggingEventBuilder event = log.atError().addKeyValue("exception", ex.getClass().getName())
+				.addKeyValue("handler", handler).addKeyValue("path", request.getRequestURI())
+				.addKeyValue("status", status).addKeyValue("occurrence", occurrence);
+		if (withStack) {
+			event.setCause(ex).log("{} in {} {} ({}), occurrence {} in window, stack logged every {}",
+					ex.getClass().getSimpleName(), request.getMethod(), request.getRequestURI(), handler, occurrence,
+					stackEvery);
+		} else {
+			event.log("{} in {} {} ({}), occurrence {} in window, stack omitted: {}", ex.getClass().getSimpleName(),
+					request.getMethod(), request.getRequestURI(), handler, occurrence, ex.toString());
+		}
+		return withStack;
+	}
+
+	private void count(Throwable ex, String handler, int status) {
+		MeterRegistry meterRegistry = registry.getIfAvailable();
+		if (meterRegistry == null) {
+			return;
+		}
+		ErrorKey key = new ErrorKey(ex.getClass().getSimpleName(), handler, status);
+		counters.computeIfAbsent(key,
+				k -> Counter.builder(METRIC).description("Exceptions mapped to error responses")
+						.tag("exception", k.exception()).tag("handler", k.handler())
+						.tag("status", String.valueOf(k.status())).register(meterRegistry))
+				.increment();
+	}
+
+	private record ErrorKey(String exception, String handler, int status) {
+	}
+
+	/**
+	 * Occurrences of one exception type in the current window.
+	 */
+	private static final class Window {
+
+		private final AtomicLong count = new AtomicLong();
+		private volatile long start = Long.MIN_VALUE;
+
+		long next(long now, long windowNanos) {
+			if (start == Long.MIN_VALUE || now - start >= windowNanos) {
+				synchronized (this) {
+					if (start == Long.MIN_VALUE || now - start >= windowNanos) {
+						count.set(0);
+						start = now;
+					}
+				}
+			}
+			return count.incrementAndGet();
+		}
+	}
+}
@@ -0,0 +1,37 @@
+package ch.devprojects.orderflow.diagnostics;
+
+import java.util.StringJoiner;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * "METHOD /path?a=*&b=*" description of a request for traces and log lines.
+ *
+ * Query parameters are named but their values are not: search terms are
+ * personal data, and both the kept traces (actuator) and the WARN lines (prod
+ * logs) would otherwise carry them.
+ */
+final class RequestTargets {
+
+	private RequestTargets() {
+	}
+
+	static String of(HttpServletRequest request) {
+		return request.getMethod() + " " + request.getRequestURI() + redactQuery(request.getQueryString());
+	}
+
+	/**
+	 * "?a=1&b=x&c" -> "?a=*&b=*&c"; "" for no query string.
+	 */
+	static String redactQuery(String queryString) {
+		if (queryString == null || queryString.isEmpty()) {
+			return "";
+		}
+		StringJoiner redacted = new StringJoiner("&", "?", "");
+		for (String param : queryString.split("&")) {
+			int eq = param.indexOf('=');
+			redacted.add(eq < 0 ? param : param.substring(0, eq) + "=*");
+		}
+		return redacted.toString();
+	}
+}
@@ -0,0 +1,164 @@
+package ch.devprojects.orderflow.diagnostics;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.web.method.HandlerMethod;
+
+/**
+ * Phase timings of the current HTTP request: controller, service, repository,
+ * mapping and JSON serialization.
+ *
+ * Lifecycle: - bound to the request thread by {@link RequestTraceFilter} -
+ * phases are added by interceptors around *ServiceImpl beans, a Spring Data
+ * invocation listener, the OrderMapper timing proxy and the Jackson converter
+ * (see {@link RequestTracingConfig}) - work outside a request is ignored
+ *
+ * Phases nest (service includes repository and mapping); nested calls of the
+ * same phase are counted once. Not thread-safe on purpose, like
+ * {@link SqlRequestStats}.
+ */
+public final class RequestTrace {
+
+	public enum Phase {
+		SERVICE("service"), REPOSITORY("repo"), MAPPING("mapping"), SERIALIZATION("serialize");
+
+		private final String metric;
+
+		Phase(String metric) {
+			this.metric = metric;
+		}
+
+		public String metric() {
+			return metric;
+		}
+	}
+
+	static final String NO_HANDLER = "none";
+
+	private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+	private final Instant startedAt = Instant.now();
+	private final long startNanos = System.nanoTime();
+	private final long[] nanos = new long[Phase.values().length];
+	private final int[] depth = new int[Phase.values().length];
+
+	private String endpoint = NO_HANDLER;
+	private long handlerStart;
+	private long handlerNanos = -1;
+
+	static RequestTrace start() {
+		RequestTrace trace = new RequestTrace();
+		CURRENT.set(trace);
+		return trace;
+	}
+
+	static void stop() {
+		CURRENT.remove();
+	}
+
+	/**
+	 * @return the trace of the request running on this thread, or null
+	 */
+	public static RequestTrace current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Adds an already measured duration to the current request, if any.
+	 */
+	public static void add(Phase phase, long durationNanos) {
+		RequestTrace trace = CURRENT.get();
+		if (trace != null && trace.depth[phase.ordinal()] == 0) {
+			trace.nanos[phase.ordinal()] += durationNanos;
+		}
+	}
+
+	/**
+	 * AOP advice timing the intercepted calls as the given phase.
+	 */
+	public static MethodInterceptor interceptor(Phase phase) {
+		int i = phase.ordinal();
+		return invocation -> {
+			RequestTrace trace = CURRENT.get();
+			if (trace == null || trace.depth[i] > 0) {
+				return invocation.proceed();
+			}
+			trace.depth[i]++;
+			long start = System.nanoTime();
+			try {
+				return invocation.proceed();
+			} finally {
+				trace.depth[i]--;
+				trace.nanos[i] += System.nanoTime() - start;
+			}
+		};
+	}
+
+	/**
+	 * Endpoint key of a handler, e.g. "OrderController#search".
+	 */
+	public static String endpointOf(Object handler) {
+		if (handler instanceof HandlerMethod method) {
+			return method.getBeanType().getSimpleName() + "#" + method.getMethod().getName();
+		}
+		return NO_HANDLER;
+	}
+
+	void handlerStarted(Object handler) {
+		endpoint = endpointOf(handler);
+		handlerStart = System.nanoTime();
+	}
+
+	/**
+	 * Ends the controller phase; the first call wins (body serialization start,
+	 * response commit or request completion).
+	 */
+	void handlerFinished() {
+		if (handlerStart != 0 && handlerNanos < 0) {
+			handlerNanos = System.nanoTime() - handlerStart;
+		}
+	}
+
+	String getEndpoint() {
+		return endpoint;
+	}
+
+	/**
+	 * Server-Timing header value with everything measured so far.
+	 */
+	String serverTiming() {
+		StringJoiner header = new StringJoiner(", ");
+		for (Map.Entry<String, Double> phase : phasesMs(System.nanoTime()).entrySet()) {
+			header.add(String.format(Locale.ROOT, "%s;dur=%.1f", phase.getKey(), phase.getValue()));
+		}
+		return header.toString();
+	}
+
+	RequestTraceRecord toRecord(String request, int status) {
+		long now = System.nanoTime();
+		return new RequestTraceRecord(endpoint, request, status, startedAt, Duration.ofNanos(now - startNanos),
+				phasesMs(now));
+	}
+
+	private Map<String, Double> phasesMs(long now) {
+		Map<String, Double> phases = new LinkedHashMap<>();
+		phases.put("total", toMs(now - startNanos));
+		if (handlerStart != 0) {
+			phases.put("handler", toMs(handlerNanos >= 0 ? handlerNanos : now - handlerStart));
+		}
+		for (Phase phase : Phase.values()) {
+			phases.put(phase.metric(), toMs(nanos[phase.ordinal()]));
+		}
+		return phases;
+	}
+
+	private static double toMs(long nanos) {
+		return Math.round(nanos / 100_000.0) / 10.0;
+	}
+}
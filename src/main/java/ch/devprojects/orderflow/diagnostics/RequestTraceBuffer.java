@@ -0,0 +1,87 @@
+package ch.devprojects.orderflow.diagnostics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The slowest N requests per endpoint, kept in memory.
+ *
+ * Structure: - one fixed ring of N slots (AtomicReferenceArray) per endpoint -
+ * a new trace takes a free slot or replaces the fastest one via
+ * compareAndSet, so request threads never block each other - under heavy
+ * contention a trace may be dropped after a few failed attempts (it lost the
+ * race against other slow traces)
+ */
+public class RequestTraceBuffer {
+
+	private static final int MAX_ATTEMPTS = 4;
+
+	private static final Comparator<RequestTraceRecord> SLOWEST_FIRST = Comparator
+			.comparing(RequestTraceRecord::duration).reversed();
+
+	private final int slowestPerEndpoint;
+	private final Map<String, AtomicReferenceArray<RequestTraceRecord>> byEndpoint = new ConcurrentHashMap<>();
+
+	public RequestTraceBuffer(int slowestPerEndpoint) {
+		this.slowestPerEndpoint = slowestPerEndpoint;
+	}
+
+	public void offer(RequestTraceRecord trace) {
+		if (slowestPerEndpoint <= 0) {
+			return;
+		}
+		AtomicReferenceArray<RequestTraceRecord> slots = byEndpoint.computeIfAbsent(trace.endpoint(),
+				key -> new AtomicReferenceArray<>(slowestPerEndpoint));
+
+		for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+			int fastestIndex = -1;
+			RequestTraceRecord fastest = null;
+			for (int i = 0; i < slots.length(); i++) {
+				RequestTraceRecord current = slots.get(i);
+				if (current == null) {
+					fastestIndex = i;
+					fastest = null;
+					break;
+				}
+				if (fastest == null || current.duration().compareTo(fastest.duration()) < 0) {
+					fastestIndex = i;
+					fastest = current;
+				}
+			}
+			if (fastest != null && trace.duration().compareTo(fastest.duration()) <= 0) {
+				return;
+			}
+			if (slots.compareAndSet(fastestIndex, fastest, trace)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @return per endpoint (sorted by name) the kept traces, slowest first
+	 */
+	public Map<String, List<RequestTraceRecord>> snapshot() {
+		Map<String, List<RequestTraceRecord>> snapshot = new TreeMap<>();
+		byEndpoint.forEach((endpoint, slots) -> {
+			List<RequestTraceRecord> traces = new ArrayList<>(slots.length());
+			for (int i = 0; i < slots.length(); i++) {
+				RequestTraceRecord trace = slots.get(i);
+				if (trace != null) {
+					traces.add(trace);
+				}
+			}
+			traces.sort(SLOWEST_FIRST);
+			snapshot.put(endpoint, traces);
+		});
+		return snapshot;
+	}
+
+	public void clear() {
+		byEndpoint.clear();
+	}
+}
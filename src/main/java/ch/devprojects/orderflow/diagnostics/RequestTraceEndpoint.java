@@ -0,0 +1,37 @@
+package ch.devprojects.orderflow.diagnostics;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * Actuator endpoint for the slowest request traces.
+ *
+ * Exposed as: - GET /actuator/requesttraces: per endpoint the slowest requests
+ * with their phase breakdown - DELETE /actuator/requesttraces: start over (e.g.
+ * after a deployment or a warm-up)
+ *
+ * Must be listed in management.endpoints.web.exposure.include to be reachable.
+ */
+@Endpoint(id = "requesttraces")
+public class RequestTraceEndpoint {
+
+	private final RequestTraceBuffer buffer;
+
+	public RequestTraceEndpoint(RequestTraceBuffer buffer) {
+		this.buffer = buffer;
+	}
+
+	@ReadOperation
+	public Map<String, List<RequestTraceRecord>> traces() {
+		return buffer.snapshot();
+	}
+
+	@DeleteOperation
+	public void clear() {
+		buffer.clear();
+	}
+}
@@ -0,0 +1,63 @@
+package ch.devprojects.orderflow.diagnostics;
+
+import java.io.IOException;
+
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Binds a {@link RequestTrace} to every request, adds its phases as a
+ * Server-Timing header before the response commits and hands the finished
+ * trace to the {@link RequestTraceBuffer}.
+ *
+ * Runs before the other application filters so "total" covers them.
+ *
+ * The kept trace names the query parameters but not their values
+ * ("customer=*"): search terms are personal data and the traces are served by
+ * an actuator endpoint.
+ */
+public class RequestTraceFilter extends OncePerRequestFilter implements Ordered {
+
+	static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+	private final RequestTraceBuffer buffer;
+	private final boolean enabled;
+
+	public RequestTraceFilter(RequestTraceBuffer buffer, boolean enabled) {
+		this.buffer = buffer;
+		this.enabled = enabled;
+	}
+
+	@Override
+	public int getOrder() {
+		return Ordered.HIGHEST_PRECEDENCE + 10;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !enabled;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		RequestTrace trace = RequestTrace.start();
+		BeforeCommitResponseWrapper wrapped = new BeforeCommitResponseWrapper(response, () -> {
+			trace.handlerFinished();
+			response.addHeader(SERVER_TIMING_HEADER, trace.serverTiming());
+		});
+		try {
+			chain.doFilter(request, wrapped);
+		} finally {
+			RequestTrace.stop();
+			wrapped.beforeCommit();
+			trace.handlerFinished();
+			buffer.offer(trace.toRecord(RequestTargets.of(request), response.getStatus()));
+		}
+	}
+}
@@ -0,0 +1,17 @@
+package ch.devprojects.orderflow.diagnostics;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * One finished request as kept by {@link RequestTraceBuffer}.
+ *
+ * @param endpoint   handler key, e.g. "OrderController#search"
+ * @param request    method, path and query parameter names (values redacted)
+ * @param phasesMs   total, handler and the {@link RequestTrace.Phase} timings in
+ *                   milliseconds
+ */
+public record RequestTraceRecord(String endpoint, String request, int status, Instant startedAt, Duration duration,
+		Map<String, Double> phasesMs) {
+}
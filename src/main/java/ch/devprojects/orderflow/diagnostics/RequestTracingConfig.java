@@ -0,0 +1,229 @@
+package ch.devprojects.orderflow.diagnostics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ch.devprojects.orderflow.diagnostics.RequestTrace.Phase;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Wires the request tracing layer (see {@link RequestTrace}).
+ *
+ * Phase sources: - handler: interceptor around the controller method, ended
+ * when serialization starts - service: advice on every *ServiceImpl bean of the
+ * application - repo: Spring Data repository invocation listener - mapping:
+ * OrderMapper timing proxy (config.MetricsConfig) - serialize: the Jackson
+ * converter renders into a buffer first, so its time is known before the
+ * Server-Timing header has to be sent; only up to
+ * orderflow.diagnostics.trace.serialize-buffer-limit: a larger body (e.g. the
+ * unpaged list) is streamed from there on, and its serialize time only shows
+ * in the trace record (/actuator/requesttraces), not in the header
+ *
+ * orderflow.diagnostics.trace.enabled=false switches the filter off; the
+ * remaining hooks then find no trace and do nothing.
+ */
+@Configuration
+public class RequestTracingConfig implements WebMvcConfigurer {
+
+	private static final String BASE_PACKAGE = "ch.devprojects.orderflow.";
+
+	private final int serializeBufferLimit;
+
+	public RequestTracingConfig(
+			@Value("${orderflow.diagnostics.trace.serialize-buffer-limit:64KB}") DataSize serializeBufferLimit) {
+		this.serializeBufferLimit = (int) Math.min(Integer.MAX_VALUE - 8, serializeBufferLimit.toBytes());
+	}
+
+	@Bean
+	public RequestTraceBuffer requestTraceBuffer(
+			@Value("${orderflow.diagnostics.trace.slowest-per-endpoint:10}") int slowestPerEndpoint) {
+		return new RequestTraceBuffer(slowestPerEndpoint);
+	}
+
+	@Bean
+	public RequestTraceFilter requestTraceFilter(RequestTraceBuffer requestTraceBuffer,
+			@Value("${orderflow.diagnostics.trace.enabled:true}") boolean enabled) {
+		return new RequestTraceFilter(requestTraceBuffer, enabled);
+	}
+
+	@Bean
+	public RequestTraceEndpoint requestTraceEndpoint(RequestTraceBuffer requestTraceBuffer) {
+		return new RequestTraceEndpoint(requestTraceBuffer);
+	}
+
+	@Bean
+	@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+	public static Advisor serviceTracingAdvisor() {
+		return new DefaultPointcutAdvisor(new ComposablePointcut(
+				type -> type.getName().startsWith(BASE_PACKAGE) && type.getSimpleName().endsWith("ServiceImpl")),
+				RequestTrace.interceptor(Phase.SERVICE));
+	}
+
+	@Bean
+	public static BeanPostProcessor repositoryTracingPostProcessor() {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessBeforeInitialization(Object bean, String beanName) {
+				if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+					factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addInvocationListener(
+							invocation -> RequestTrace.add(Phase.REPOSITORY, invocation.getDuration(TimeUnit.NANOSECONDS))));
+				}
+				return bean;
+			}
+		};
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(new HandlerInterceptor() {
+			@Override
+			public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+				RequestTrace trace = RequestTrace.current();
+				if (trace != null) {
+					trace.handlerStarted(handler);
+				}
+				return true;
+			}
+		});
+	}
+
+	@Override
+	public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+		for (int i = 0; i < converters.size(); i++) {
+			if (converters.get(i) instanceof MappingJackson2HttpMessageConverter jackson
+					&& !(jackson instanceof SerializationTimingConverter)) {
+				converters.set(i, new SerializationTimingConverter(jackson.getObjectMapper(), serializeBufferLimit));
+			}
+		}
+	}
+
+	/**
+	 * Jackson converter that, inside a traced request, renders into a buffer and
+	 * records the time as {@link Phase#SERIALIZATION} before writing the bytes.
+	 * At most bufferLimit bytes are held: beyond that the buffer goes out and the
+	 * rest is written through (peak memory stays bounded for large bodies).
+	 */
+	static class SerializationTimingConverter extends MappingJackson2HttpMessageConverter {
+
+		private final int bufferLimit;
+
+		SerializationTimingConverter(ObjectMapper objectMapper, int bufferLimit) {
+			super(objectMapper);
+			this.bufferLimit = bufferLimit;
+		}
+
+		@Override
+		protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+			RequestTrace trace = RequestTrace.current();
+			if (trace == null) {
+				super.writeInternal(object, type, outputMessage);
+				return;
+			}
+			trace.handlerFinished();
+			long start = System.nanoTime();
+			SpillingBuffer body = new SpillingBuffer(outputMessage, bufferLimit);
+			super.writeInternal(object, type, new HttpOutputMessage() {
+				@Override
+				public OutputStream getBody() {
+					return body;
+				}
+
+				@Override
+				public HttpHeaders getHeaders() {
+					return outputMessage.getHeaders();
+				}
+			});
+			RequestTrace.add(Phase.SERIALIZATION, System.nanoTime() - start);
+			body.finish();
+		}
+	}
+
+	/**
+	 * Holds up to limit bytes; the first write beyond that sends the buffered
+	 * bytes to the real body (committing the response) and writes through
+	 * afterwards.
+	 */
+	static final class SpillingBuffer extends OutputStream {
+
+		private final HttpOutputMessage target;
+		private final int limit;
+		private ByteArrayOutputStream buffer;
+		private OutputStream out;
+
+		SpillingBuffer(HttpOutputMessage target, int limit) {
+			this.target = target;
+			this.limit = limit;
+			this.buffer = new ByteArrayOutputStream(Math.min(8192, Math.max(32, limit)));
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (out == null && buffer.size() + len > limit) {
+				spill();
+			}
+			if (out != null) {
+				out.write(b, off, len);
+			} else {
+				buffer.write(b, off, len);
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			if (out != null) {
+				out.flush();
+			}
+		}
+
+		boolean spilled() {
+			return out != null;
+		}
+
+		/**
+		 * Writes what is still buffered.
+		 */
+		void finish() throws IOException {
+			if (out == null) {
+				buffer.writeTo(target.getBody());
+				buffer = null;
+			}
+		}
+
+		private void spill() throws IOException {
+			out = target.getBody();
+			buffer.writeTo(out);
+			buffer = null;
+		}
+	}
+}
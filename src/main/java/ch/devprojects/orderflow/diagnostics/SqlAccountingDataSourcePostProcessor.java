@@ -0,0 +1,85 @@
+package ch.devprojects.orderflow.diagnostics;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Wraps the application DataSource in a datasource-proxy that feeds
+ * {@link SqlRequestStats}: one statement (SQL text + wall time) per execute
+ * call, one row per successful ResultSet.next().
+ *
+ * Notes: - the proxy sits on top of the pool, so connection acquisition is not
+ * counted as DB time - a JDBC batch counts as one statement - switched off with
+ * orderflow.diagnostics.sql.enabled=false (the DataSource is then left as is)
+ */
+@Component
+public class SqlAccountingDataSourcePostProcessor implements BeanPostProcessor {
+
+	private static final String START_NANOS = "orderflow.startNanos";
+
+	private final boolean enabled;
+
+	public SqlAccountingDataSourcePostProcessor(@Value("${orderflow.diagnostics.sql.enabled:true}") boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (!enabled || !(bean instanceof DataSource dataSource)) {
+			return bean;
+		}
+		return ProxyDataSourceBuilder.create(dataSource).name(beanName).listener(new StatementListener())
+				.proxyResultSet().methodListener(new RowListener()).build();
+	}
+
+	private static final class StatementListener implements QueryExecutionListener {
+
+		@Override
+		public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+			if (SqlRequestStats.current() != null) {
+				execInfo.addCustomValue(START_NANOS, System.nanoTime());
+			}
+		}
+
+		@Override
+		public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+			SqlRequestStats stats = SqlRequestStats.current();
+			Long start = execInfo.getCustomValue(START_NANOS, Long.class);
+			if (stats == null || start == null || queryInfoList.isEmpty()) {
+				return;
+			}
+			stats.statement(queryInfoList.get(0).getQuery(), System.nanoTime() - start);
+		}
+	}
+
+	private static final class RowListener implements MethodExecutionListener {
+
+		@Override
+		public void beforeMethod(MethodExecutionContext executionContext) {
+		}
+
+		@Override
+		public void afterMethod(MethodExecutionContext executionContext) {
+			if (executionContext.getTarget() instanceof ResultSet && "next".equals(executionContext.getMethod().getName())
+					&& Boolean.TRUE.equals(executionContext.getResult())) {
+				SqlRequestStats stats = SqlRequestStats.current();
+				if (stats != null) {
+					stats.row();
+				}
+			}
+		}
+	}
+}
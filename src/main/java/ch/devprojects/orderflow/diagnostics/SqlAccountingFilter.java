@@ -0,0 +1,98 @@
+package ch.devprojects.orderflow.diagnostics;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Per-request SQL accounting: binds a {@link SqlRequestStats} to the request
+ * thread and reports it.
+ *
+ * Output: - X-Query-Count: number of statements - Server-Timing: db;dur=<ms>
+ * plus the fetched rows in desc - a WARN log line when a request exceeds
+ * orderflow.diagnostics.sql.max-statements or .max-db-time-ms; if one
+ * statement ran at least .repeat-threshold times it is named as a probable N+1
+ * (query parameters are logged by name only, see {@link RequestTargets})
+ *
+ * Headers are added right before the response is committed (first body write,
+ * flush or error), so they cover everything that ran before serialization.
+ * Async work (the streaming export GET /api/orders?stream=...) runs on another
+ * thread and is not recorded.
+ */
+@Component
+public class SqlAccountingFilter extends OncePerRequestFilter {
+
+	private static final Logger log = LoggerFactory.getLogger(SqlAccountingFilter.class);
+
+	static final String QUERY_COUNT_HEADER = "X-Query-Count";
+	static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+	private final boolean enabled;
+	private final int maxStatements;
+	private final long maxDbTimeMs;
+	private final int repeatThreshold;
+
+	public SqlAccountingFilter(@Value("${orderflow.diagnostics.sql.enabled:true}") boolean enabled,
+			@Value("${orderflow.diagnostics.sql.max-statements:20}") int maxStatements,
+			@Value("${orderflow.diagnostics.sql.max-db-time-ms:250}") long maxDbTimeMs,
+			@Value("${orderflow.diagnostics.sql.repeat-threshold:5}") int repeatThreshold) {
+		this.enabled = enabled;
+		this.maxStatements = maxStatements;
+		this.maxDbTimeMs = maxDbTimeMs;
+		this.repeatThreshold = repeatThreshold;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !enabled;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		SqlRequestStats stats = SqlRequestStats.start();
+		BeforeCommitResponseWrapper wrapped = new BeforeCommitResponseWrapper(response, () -> {
+			response.setHeader(QUERY_COUNT_HEADER, Integer.toString(stats.getStatements()));
+			response.addHeader(SERVER_TIMING_HEADER, serverTiming(stats));
+		});
+		try {
+			chain.doFilter(request, wrapped);
+		} finally {
+			SqlRequestStats.stop();
+			wrapped.beforeCommit();
+			report(request, stats);
+		}
+	}
+
+	private void report(HttpServletRequest request, SqlRequestStats stats) {
+		long dbMs = stats.getDbNanos() / 1_000_000;
+		Optional<Map.Entry<String, Integer>> repeated = stats.mostRepeated(repeatThreshold);
+		if (stats.getStatements() <= maxStatements && dbMs <= maxDbTimeMs && repeated.isEmpty()) {
+			return;
+		}
+		String target = RequestTargets.of(request);
+		if (repeated.isPresent()) {
+			log.warn("{}: {} statements, {} rows, {} ms in DB; probable N+1: {} x {}", target, stats.getStatements(),
+					stats.getRows(), dbMs, repeated.get().getValue(), repeated.get().getKey());
+		} else {
+			log.warn("{}: {} statements, {} rows, {} ms in DB", target, stats.getStatements(), stats.getRows(), dbMs);
+		}
+	}
+
+	static String serverTiming(SqlRequestStats stats) {
+		return String.format(Locale.ROOT, "db;dur=%.1f;desc=\"%d statements, %d rows\"", stats.getDbNanos() / 1e6,
+				stats.getStatements(), stats.getRows());
+	}
+}
@@ -0,0 +1,81 @@
+package ch.devprojects.orderflow.diagnostics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * SQL statements, fetched rows and DB time of the current HTTP request.
+ *
+ * Lifecycle: - bound to the request thread by {@link SqlAccountingFilter} -
+ * filled by the JDBC proxy ({@link SqlAccountingDataSourcePostProcessor}) -
+ * JDBC work outside a request (startup, @Scheduled, @Async) is not recorded
+ *
+ * Not thread-safe on purpose: one instance is only ever touched by the thread
+ * that handles the request.
+ */
+public final class SqlRequestStats {
+
+	/**
+	 * Upper bound of distinct statements tracked for repeat detection.
+	 */
+	static final int MAX_DISTINCT_STATEMENTS = 256;
+
+	private static final ThreadLocal<SqlRequestStats> CURRENT = new ThreadLocal<>();
+
+	private int statements;
+	private long rows;
+	private long dbNanos;
+	private final Map<String, Integer> executionsBySql = new HashMap<>();
+
+	static SqlRequestStats start() {
+		SqlRequestStats stats = new SqlRequestStats();
+		CURRENT.set(stats);
+		return stats;
+	}
+
+	static void stop() {
+		CURRENT.remove();
+	}
+
+	/**
+	 * @return the stats of the request running on this thread, or null
+	 */
+	public static SqlRequestStats current() {
+		return CURRENT.get();
+	}
+
+	void statement(String sql, long nanos) {
+		statements++;
+		dbNanos += nanos;
+		if (executionsBySql.size() < MAX_DISTINCT_STATEMENTS || executionsBySql.containsKey(sql)) {
+			executionsBySql.merge(sql, 1, Integer::sum);
+		}
+	}
+
+	void row() {
+		rows++;
+	}
+
+	public int getStatements() {
+		return statements;
+	}
+
+	public long getRows() {
+		return rows;
+	}
+
+	public long getDbNanos() {
+		return dbNanos;
+	}
+
+	/**
+	 * The statement executed most often in this request, if it ran at least
+	 * "minExecutions" times (same SQL text = same shape, parameters are bound as
+	 * "?").
+	 */
+	public Optional<Map.Entry<String, Integer>> mostRepeated(int minExecutions) {
+		return executionsBySql.entrySet().stream().filter(e -> e.getValue() >= minExecutions)
+				.max(Map.Entry.comparingByValue());
+	}
+}
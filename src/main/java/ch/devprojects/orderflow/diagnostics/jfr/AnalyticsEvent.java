@@ -0,0 +1,31 @@
+package ch.devprojects.orderflow.diagnostics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event around one analytics overview computation in AnalyticsServiceImpl.
+ */
+@Name(AnalyticsEvent.NAME)
+@Label("Analytics Overview")
+@Category({ "OrderFlow", "Analytics" })
+@Description("Analytics overview from the live counters, a cached snapshot or one SQL aggregate")
+@StackTrace(false)
+public class AnalyticsEvent extends Event {
+
+	public static final String NAME = "ch.devprojects.orderflow.Analytics";
+
+	@Label("Source")
+	@Description("live (in-memory counters), snapshot (AnalyticsOverviewCache) or sql")
+	public String source;
+
+	@Label("Filter Shape")
+	public String filterShape;
+
+	@Label("Total Orders")
+	public long totalOrders;
+}
@@ -0,0 +1,173 @@
+package ch.devprojects.orderflow.diagnostics.jfr;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * Actuator endpoint for on-demand Java Flight Recorder recordings.
+ *
+ * Exposed as: - GET /actuator/jfr: state of the current recording - POST
+ * /actuator/jfr {"durationSeconds": 120}: start one (optional duration, capped
+ * at orderflow.diagnostics.jfr.max-duration; 400 while one is running) -
+ * DELETE /actuator/jfr: stop it and download the .jfr file (open with JDK
+ * Mission Control or "jfr print")
+ *
+ * Settings: the JDK "profile" configuration plus the OrderFlow events (all
+ * instances, no threshold), virtual thread pinning and lock/IO thresholds
+ * lowered to 10-20 ms. Only one recording at a time; the temporary file of the
+ * previous download is removed when the next recording stops.
+ *
+ * Must be listed in management.endpoints.web.exposure.include to be reachable.
+ */
+@Component
+@WebEndpoint(id = "jfr")
+public class JfrRecordingEndpoint {
+
+	static final String RECORDING_NAME = "orderflow";
+
+	private static final long MAX_SIZE_BYTES = 256L * 1024 * 1024;
+
+	private static final List<String> ORDERFLOW_EVENTS = List.of(OrderWriteEvent.NAME, OrderQueryEvent.NAME,
+			AnalyticsEvent.NAME);
+
+	private final Duration maxDuration;
+	private final ReentrantLock lock = new ReentrantLock();
+
+	// guarded by lock
+	private Recording recording;
+	private Path lastDump;
+
+	public JfrRecordingEndpoint(@Value("${orderflow.diagnostics.jfr.max-duration:10m}") Duration maxDuration) {
+		this.maxDuration = maxDuration;
+	}
+
+	@ReadOperation
+	public Map<String, Object> status() {
+		lock.lock();
+		try {
+			return describe();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@WriteOperation
+	public WebEndpointResponse<Map<String, Object>> start(@Nullable Integer durationSeconds) {
+		lock.lock();
+		try {
+			if (recording != null && recording.getState() == RecordingState.RUNNING) {
+				return new WebEndpointResponse<>(describe(), WebEndpointResponse.STATUS_BAD_REQUEST);
+			}
+			closeRecording();
+
+			Duration duration = maxDuration;
+			if (durationSeconds != null && durationSeconds > 0
+					&& Duration.ofSeconds(durationSeconds).compareTo(maxDuration) < 0) {
+				duration = Duration.ofSeconds(durationSeconds);
+			}
+			recording = new Recording(settings());
+			recording.setName(RECORDING_NAME);
+			recording.setToDisk(true);
+			recording.setMaxSize(MAX_SIZE_BYTES);
+			recording.setDuration(duration);
+			recording.start();
+			return new WebEndpointResponse<>(describe());
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@DeleteOperation(produces = "application/octet-stream")
+	public WebEndpointResponse<Resource> stop() {
+		lock.lock();
+		try {
+			if (recording == null) {
+				return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+			}
+			if (recording.getState() == RecordingState.RUNNING) {
+				recording.stop();
+			}
+			deleteLastDump();
+			Path file = Files.createTempFile("orderflow-", ".jfr");
+			recording.dump(file);
+			closeRecording();
+			lastDump = file;
+			return new WebEndpointResponse<>(new FileSystemResource(file));
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * The JDK "profile" settings, tuned for the OrderFlow hot paths.
+	 */
+	static Map<String, String> settings() {
+		Map<String, String> settings;
+		try {
+			settings = new HashMap<>(Configuration.getConfiguration("profile").getSettings());
+		} catch (IOException | ParseException ex) {
+			throw new IllegalStateException("JFR profile configuration not available", ex);
+		}
+		for (String event : ORDERFLOW_EVENTS) {
+			settings.put(event + "#enabled", "true");
+			settings.put(event + "#threshold", "0 ms");
+		}
+		settings.put("jdk.VirtualThreadPinned#enabled", "true");
+		settings.put("jdk.VirtualThreadPinned#threshold", "20 ms");
+		settings.put("jdk.JavaMonitorEnter#threshold", "10 ms");
+		settings.put("jdk.SocketRead#threshold", "10 ms");
+		settings.put("jdk.SocketWrite#threshold", "10 ms");
+		return settings;
+	}
+
+	private Map<String, Object> describe() {
+		Map<String, Object> status = new LinkedHashMap<>();
+		status.put("state", recording == null ? "NONE" : recording.getState().name());
+		if (recording != null) {
+			status.put("startTime", recording.getStartTime());
+			status.put("duration", recording.getDuration());
+		}
+		status.put("maxDuration", maxDuration);
+		return status;
+	}
+
+	private void closeRecording() {
+		if (recording != null) {
+			recording.close();
+			recording = null;
+		}
+	}
+
+	private void deleteLastDump() throws IOException {
+		if (lastDump != null) {
+			Files.deleteIfExists(lastDump);
+			lastDump = null;
+		}
+	}
+}
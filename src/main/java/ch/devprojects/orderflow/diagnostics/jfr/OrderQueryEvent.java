@@ -0,0 +1,46 @@
+package ch.devprojects.orderflow.diagnostics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event around one paged order query in OrderQueryServiceImpl.
+ *
+ * The filter shape lists which filters were set (e.g. "customer+status"), not
+ * their values, so events can be grouped by query shape.
+ */
+@Name(OrderQueryEvent.NAME)
+@Label("Order Query")
+@Category({ "OrderFlow", "Orders" })
+@Description("Paged order query with filter shape and row count")
+@StackTrace(false)
+public class OrderQueryEvent extends Event {
+
+	public static final String NAME = "ch.devprojects.orderflow.OrderQuery";
+
+	@Label("Operation")
+	public String operation;
+
+	@Label("Filter Shape")
+	public String filterShape;
+
+	@Label("Count Mode")
+	public String countMode;
+
+	@Label("Page")
+	public int page;
+
+	@Label("Page Size")
+	public int pageSize;
+
+	@Label("Rows")
+	public int rows;
+
+	@Label("Total")
+	@Description("Total matching orders, -1 if not counted")
+	public long total;
+}
@@ -0,0 +1,36 @@
+package ch.devprojects.orderflow.diagnostics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event around one order create/update/delete in OrderServiceImpl.
+ *
+ * The duration covers the service method body; the transaction commit (and
+ * with it the SQL flush of updates) happens right after it.
+ */
+@Name(OrderWriteEvent.NAME)
+@Label("Order Write")
+@Category({ "OrderFlow", "Orders" })
+@Description("Order created, updated or deleted")
+@StackTrace(false)
+public class OrderWriteEvent extends Event {
+
+	public static final String NAME = "ch.devprojects.orderflow.OrderWrite";
+
+	@Label("Operation")
+	public String operation;
+
+	@Label("Order Id")
+	public long orderId;
+
+	@Label("Code")
+	public String code;
+
+	@Label("Status")
+	public String status;
+}
@@ -0,0 +1,79 @@
+package ch.devprojects.orderflow.domain;
+
+import java.math.BigDecimal;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+
+/**
+ * Pre-aggregated order count and revenue for one (granularity, bucket, status)
+ * combination (see Flyway V7).
+ *
+ * Important: - Orders are attributed to the bucket of their createdAt and to
+ * their CURRENT status. - Derived data only; it can always be rebuilt from the
+ * orders table. - Implements Persistable so saving a new row with its
+ * assigned key is a plain INSERT (no SELECT-before-merge).
+ */
+@Entity
+@Table(name = "order_rollups")
+public class OrderRollup implements Persistable<OrderRollupId> {
+
+	@EmbeddedId
+	private OrderRollupId id;
+
+	@Column(name = "order_count", nullable = false)
+	private long orderCount;
+
+	@Column(nullable = false)
+	private BigDecimal revenue = BigDecimal.ZERO;
+
+	@Transient
+	private boolean isNew = true;
+
+	public OrderRollup() {
+		// JPA needs a default constructor
+	}
+
+	public OrderRollup(OrderRollupId id) {
+		this.id = id;
+	}
+
+	@Override
+	public OrderRollupId getId() {
+		return id;
+	}
+
+	@Override
+	public boolean isNew() {
+		return isNew;
+	}
+
+	@PostLoad
+	@PrePersist
+	void markNotNew() {
+		this.isNew = false;
+	}
+
+	public long getOrderCount() {
+		return orderCount;
+	}
+
+	public BigDecimal getRevenue() {
+		return revenue;
+	}
+
+	public void setOrderCount(long orderCount) {
+		this.orderCount = orderCount;
+	}
+
+	public void setRevenue(BigDecimal revenue) {
+		this.revenue = revenue;
+	}
+}
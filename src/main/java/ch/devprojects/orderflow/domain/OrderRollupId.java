@@ -0,0 +1,69 @@
+package ch.devprojects.orderflow.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+
+/**
+ * Composite key of {@link OrderRollup}: (granularity, bucketStart, status).
+ */
+@Embeddable
+public class OrderRollupId implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false)
+	private RollupGranularity granularity;
+
+	@Column(name = "bucket_start", nullable = false)
+	private Instant bucketStart;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false)
+	private OrderStatus status;
+
+	public OrderRollupId() {
+		// JPA needs a default constructor
+	}
+
+	public OrderRollupId(RollupGranularity granularity, Instant bucketStart, OrderStatus status) {
+		this.granularity = granularity;
+		this.bucketStart = bucketStart;
+		this.status = status;
+	}
+
+	public RollupGranularity getGranularity() {
+		return granularity;
+	}
+
+	public Instant getBucketStart() {
+		return bucketStart;
+	}
+
+	public OrderStatus getStatus() {
+		return status;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof OrderRollupId other)) {
+			return false;
+		}
+		return granularity == other.granularity && Objects.equals(bucketStart, other.bucketStart)
+				&& status == other.status;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(granularity, bucketStart, status);
+	}
+}
@@ -0,0 +1,46 @@
+package ch.devprojects.orderflow.domain;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Time bucket sizes used by the order rollups (all buckets are UTC-aligned).
+ */
+public enum RollupGranularity {
+
+	HOUR, DAY, MONTH;
+
+	/**
+	 * Start of the bucket containing the given instant.
+	 */
+	public Instant truncate(Instant instant) {
+		return switch (this) {
+		case HOUR -> instant.truncatedTo(ChronoUnit.HOURS);
+		case DAY -> instant.truncatedTo(ChronoUnit.DAYS);
+		case MONTH -> instant.atZone(ZoneOffset.UTC).withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS).toInstant();
+		};
+	}
+
+	/**
+	 * Start of the bucket following the one that starts at bucketStart.
+	 */
+	public Instant next(Instant bucketStart) {
+		return switch (this) {
+		case HOUR -> bucketStart.plus(1, ChronoUnit.HOURS);
+		case DAY -> bucketStart.plus(1, ChronoUnit.DAYS);
+		case MONTH -> bucketStart.atZone(ZoneOffset.UTC).plusMonths(1).toInstant();
+		};
+	}
+
+	/**
+	 * Next finer granularity, or null for HOUR.
+	 */
+	public RollupGranularity finer() {
+		return switch (this) {
+		case HOUR -> null;
+		case DAY -> HOUR;
+		case MONTH -> DAY;
+		};
+	}
+}
@@ -0,0 +1,81 @@
+package ch.devprojects.orderflow.dto;
+
+/**
+ * Outcome of one element of "POST /api/orders/batch".
+ *
+ * Notes: - index is the 0-based position of the element in the request body -
+ * id is set for CREATED/UPDATED, error for FAILED
+ */
+public class OrderBatchItemResult {
+
+	public enum Outcome {
+		CREATED, UPDATED, FAILED
+	}
+
+	private int index;
+	private String code;
+	private Outcome outcome;
+	private Long id;
+	private String error;
+
+	public OrderBatchItemResult() {
+	}
+
+	public static OrderBatchItemResult success(int index, Outcome outcome, String code, Long id) {
+		OrderBatchItemResult result = new OrderBatchItemResult();
+		result.setIndex(index);
+		result.setOutcome(outcome);
+		result.setCode(code);
+		result.setId(id);
+		return result;
+	}
+
+	public static OrderBatchItemResult failed(int index, String code, String error) {
+		OrderBatchItemResult result = new OrderBatchItemResult();
+		result.setIndex(index);
+		result.setOutcome(Outcome.FAILED);
+		result.setCode(code);
+		result.setError(error);
+		return result;
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	public void setIndex(int index) {
+		this.index = index;
+	}
+
+	public String getCode() {
+		return code;
+	}
+
+	public void setCode(String code) {
+		this.code = code;
+	}
+
+	public Outcome getOutcome() {
+		return outcome;
+	}
+
+	public void setOutcome(Outcome outcome) {
+		this.outcome = outcome;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	public void setError(String error) {
+		this.error = error;
+	}
+}
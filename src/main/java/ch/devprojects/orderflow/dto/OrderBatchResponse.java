@@ -0,0 +1,60 @@
+package ch.devprojects.orderflow.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response of "POST /api/orders/batch": counters plus one result per element,
+ * in request order.
+ */
+public class OrderBatchResponse {
+
+	private int created;
+	private int updated;
+	private int failed;
+	private List<OrderBatchItemResult> items = new ArrayList<>();
+
+	public OrderBatchResponse() {
+	}
+
+	public void add(OrderBatchItemResult item) {
+		switch (item.getOutcome()) {
+		case CREATED -> created++;
+		case UPDATED -> updated++;
+		default -> failed++;
+		}
+		items.add(item);
+	}
+
+	public int getCreated() {
+		return created;
+	}
+
+	public void setCreated(int created) {
+		this.created = created;
+	}
+
+	public int getUpdated() {
+		return updated;
+	}
+
+	public void setUpdated(int updated) {
+		this.updated = updated;
+	}
+
+	public int getFailed() {
+		return failed;
+	}
+
+	public void setFailed(int failed) {
+		this.failed = failed;
+	}
+
+	public List<OrderBatchItemResult> getItems() {
+		return items;
+	}
+
+	public void setItems(List<OrderBatchItemResult> items) {
+		this.items = items;
+	}
+}
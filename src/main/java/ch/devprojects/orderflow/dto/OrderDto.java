@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 import java.time.Instant;
 
 import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 /**
  * DTO used for create/update and also for list/search responses.
@@ -36,6 +37,13 @@ public class OrderDto {
 	@JsonAlias("comment")
 	private String description;
 
+	/**
+	 * Row version of the order, only used for the ETag (not part of the JSON
+	 * contract).
+	 */
+	@JsonIgnore
+	private Long version;
+
 	public OrderDto() {
 	}
 
@@ -102,4 +110,12 @@ public class OrderDto {
 	public void setDescription(String description) {
 		this.description = description;
 	}
+
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,138 @@
+package ch.devprojects.orderflow.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Body of "POST /api/orders/status-transitions".
+ *
+ * Exactly one selector must be given: - ids: database ids - codes: business
+ * codes - filter: the same criteria as the search endpoints (at least one set)
+ *
+ * fromStatus is an optional guard applied to every selector, e.g. "only move
+ * PAID orders to SHIPPED".
+ */
+public class OrderStatusTransitionRequest {
+
+	private String targetStatus;
+	private String fromStatus;
+	private List<Long> ids;
+	private List<String> codes;
+	private Filter filter;
+
+	public OrderStatusTransitionRequest() {
+	}
+
+	public String getTargetStatus() {
+		return targetStatus;
+	}
+
+	public void setTargetStatus(String targetStatus) {
+		this.targetStatus = targetStatus;
+	}
+
+	public String getFromStatus() {
+		return fromStatus;
+	}
+
+	public void setFromStatus(String fromStatus) {
+		this.fromStatus = fromStatus;
+	}
+
+	public List<Long> getIds() {
+		return ids;
+	}
+
+	public void setIds(List<Long> ids) {
+		this.ids = ids;
+	}
+
+	public List<String> getCodes() {
+		return codes;
+	}
+
+	public void setCodes(List<String> codes) {
+		this.codes = codes;
+	}
+
+	public Filter getFilter() {
+		return filter;
+	}
+
+	public void setFilter(Filter filter) {
+		this.filter = filter;
+	}
+
+	/**
+	 * Same fields as the search filters (see OrderQueryServiceImpl#buildSpec).
+	 */
+	public static class Filter {
+
+		private String customer;
+		private String status;
+		private String codeFrom;
+		private String codeTo;
+		private BigDecimal totalMin;
+		private BigDecimal totalMax;
+
+		public Filter() {
+		}
+
+		public boolean isEmpty() {
+			return isBlank(customer) && isBlank(status) && isBlank(codeFrom) && isBlank(codeTo) && totalMin == null
+					&& totalMax == null;
+		}
+
+		private static boolean isBlank(String value) {
+			return value == null || value.isBlank();
+		}
+
+		public String getCustomer() {
+			return customer;
+		}
+
+		public void setCustomer(String customer) {
+			this.customer = customer;
+		}
+
+		public String getStatus() {
+			return status;
+		}
+
+		public void setStatus(String status) {
+			this.status = status;
+		}
+
+		public String getCodeFrom() {
+			return codeFrom;
+		}
+
+		public void setCodeFrom(String codeFrom) {
+			this.codeFrom = codeFrom;
+		}
+
+		public String getCodeTo() {
+			return codeTo;
+		}
+
+		public void setCodeTo(String codeTo) {
+			this.codeTo = codeTo;
+		}
+
+		public BigDecimal getTotalMin() {
+			return totalMin;
+		}
+
+		public void setTotalMin(BigDecimal totalMin) {
+			this.totalMin = totalMin;
+		}
+
+		public BigDecimal getTotalMax() {
+			return totalMax;
+		}
+
+		public void setTotalMax(BigDecimal totalMax) {
+			this.totalMax = totalMax;
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package ch.devprojects.orderflow.dto;
+
+/**
+ * Result of "POST /api/orders/status-transitions".
+ *
+ * Counts: - matched: orders selected by ids/codes/filter (and fromStatus) -
+ * updated: rows actually changed by the UPDATE statements - unchanged: matched
+ * orders already in the target status (or changed concurrently) - notMatched:
+ * requested ids/codes that do not exist or fail the fromStatus guard (0 for
+ * filters)
+ */
+public class OrderStatusTransitionResponse {
+
+	private String targetStatus;
+	private long matched;
+	private long updated;
+	private long unchanged;
+	private long notMatched;
+
+	public OrderStatusTransitionResponse() {
+	}
+
+	public String getTargetStatus() {
+		return targetStatus;
+	}
+
+	public void setTargetStatus(String targetStatus) {
+		this.targetStatus = targetStatus;
+	}
+
+	public long getMatched() {
+		return matched;
+	}
+
+	public void setMatched(long matched) {
+		this.matched = matched;
+	}
+
+	public long getUpdated() {
+		return updated;
+	}
+
+	public void setUpdated(long updated) {
+		this.updated = updated;
+	}
+
+	public long getUnchanged() {
+		return unchanged;
+	}
+
+	public void setUnchanged(long unchanged) {
+		this.unchanged = unchanged;
+	}
+
+	public long getNotMatched() {
+		return notMatched;
+	}
+
+	public void setNotMatched(long notMatched) {
+		this.notMatched = notMatched;
+	}
+}
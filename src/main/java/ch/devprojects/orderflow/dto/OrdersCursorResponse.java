@@ -0,0 +1,54 @@
+package ch.devprojects.orderflow.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keyset (cursor) paged response for "/api/orders/search?cursor=...".
+ *
+ * Contract: - nextCursor is an opaque token; pass it back as ?cursor= to get
+ * the next page - nextCursor is null (and hasNext false) on the last page - No
+ * totalElements on purpose: counting would defeat the point of keyset paging
+ */
+public class OrdersCursorResponse {
+
+	private List<OrderDto> content = new ArrayList<>();
+	private int size;
+	private boolean hasNext;
+	private String nextCursor;
+
+	public OrdersCursorResponse() {
+	}
+
+	public List<OrderDto> getContent() {
+		return content;
+	}
+
+	public void setContent(List<OrderDto> content) {
+		this.content = content;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public void setSize(int size) {
+		this.size = size;
+	}
+
+	public boolean isHasNext() {
+		return hasNext;
+	}
+
+	public void setHasNext(boolean hasNext) {
+		this.hasNext = hasNext;
+	}
+
+	public String getNextCursor() {
+		return nextCursor;
+	}
+
+	public void setNextCursor(String nextCursor) {
+		this.nextCursor = nextCursor;
+	}
+}
@@ -9,14 +9,18 @@ import java.util.List;
  * Why a custom wrapper instead of returning Page<OrderDto> directly? - Keeps
  * the REST contract stable (frontend doesn't depend on Spring's Page JSON
  * shape) - Allows you to add extra metadata later without breaking clients
+ *
+ * totalElements/totalPages are null when the query ran without a count
+ * (countMode=none); hasNext is always set.
  */
 public class OrdersPageResponse {
 
 	private List<OrderDto> content = new ArrayList<>();
 	private int page;
 	private int size;
-	private long totalElements;
-	private int totalPages;
+	private Long totalElements;
+	private Integer totalPages;
+	private boolean hasNext;
 
 	public OrdersPageResponse() {
 	}
@@ -45,19 +49,27 @@ public class OrdersPageResponse {
 		this.size = size;
 	}
 
-	public long getTotalElements() {
+	public Long getTotalElements() {
 		return totalElements;
 	}
 
-	public void setTotalElements(long totalElements) {
+	public void setTotalElements(Long totalElements) {
 		this.totalElements = totalElements;
 	}
 
-	public int getTotalPages() {
+	public Integer getTotalPages() {
 		return totalPages;
 	}
 
-	public void setTotalPages(int totalPages) {
+	public void setTotalPages(Integer totalPages) {
 		this.totalPages = totalPages;
 	}
+
+	public boolean isHasNext() {
+		return hasNext;
+	}
+
+	public void setHasNext(boolean hasNext) {
+		this.hasNext = hasNext;
+	}
 }
\ No newline at end of file
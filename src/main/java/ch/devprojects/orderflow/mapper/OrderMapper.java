@@ -44,6 +44,7 @@ public class OrderMapper {
 		dto.setTotal(order.getTotal());
 		dto.setCreatedAt(order.getCreatedAt());
 		dto.setUpdatedAt(order.getUpdatedAt());
+		dto.setVersion(order.getVersion());
 
 		// Entity enum -> DTO string (contract for frontend)
 		dto.setStatus(order.getStatus() == null ? null : order.getStatus().name());
@@ -0,0 +1,19 @@
+package ch.devprojects.orderflow.repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import ch.devprojects.orderflow.domain.OrderStatus;
+
+/**
+ * Minimal interface projection (createdAt, status, total) used to (re)build
+ * time-bucketed rollups without loading full Order entities.
+ */
+public interface OrderCreatedTotal {
+
+	Instant getCreatedAt();
+
+	OrderStatus getStatus();
+
+	BigDecimal getTotal();
+}
@@ -0,0 +1,12 @@
+package ch.devprojects.orderflow.repository;
+
+/**
+ * Interface projection of (id, customerName), used to build the customer name
+ * trigram index without loading entities.
+ */
+public interface OrderCustomerName {
+
+	Long getId();
+
+	String getCustomerName();
+}
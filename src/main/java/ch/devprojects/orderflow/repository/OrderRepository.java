@@ -1,14 +1,24 @@
 package ch.devprojects.orderflow.repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import ch.devprojects.orderflow.domain.Order;
 import ch.devprojects.orderflow.domain.OrderStatus;
+import jakarta.persistence.QueryHint;
 
 /**
  * Main JPA repository for Order.
@@ -18,11 +28,104 @@ import ch.devprojects.orderflow.domain.OrderStatus;
  */
 public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order> {
 
+	/**
+	 * Escape character of the customer LIKE patterns ('!' rather than a
+	 * backslash, which would itself need escaping in MariaDB string literals).
+	 */
+	char LIKE_ESCAPE = '!';
+
+	/**
+	 * Escapes the LIKE wildcards ('%', '_') and the escape character itself, so
+	 * the term matches literally.
+	 */
+	static String escapeLike(String term) {
+		StringBuilder escaped = new StringBuilder(term.length() + 4);
+		for (int i = 0; i < term.length(); i++) {
+			char c = term.charAt(i);
+			if (c == LIKE_ESCAPE || c == '%' || c == '_') {
+				escaped.append(LIKE_ESCAPE);
+			}
+			escaped.append(c);
+		}
+		return escaped.toString();
+	}
+
 	Optional<Order> findByCode(String code);
 
+	/**
+	 * One query for a whole chunk of codes (used by the batch import to find
+	 * existing orders to upsert).
+	 */
+	List<Order> findByCodeIn(Collection<String> codes);
+
 	Page<Order> findByCustomerNameContainingIgnoreCase(String customerName, Pageable pageable);
 
 	Page<Order> findByStatus(OrderStatus status, Pageable pageable);
 
 	Page<Order> findByCustomerNameContainingIgnoreCaseAndStatus(String customerName, OrderStatus status, Pageable pageable);
-}
\ No newline at end of file
+
+	/**
+	 * Streams all orders (ordered by id) instead of materializing a List.
+	 *
+	 * Notes: - Must be consumed inside a transaction and closed afterwards
+	 * (try-with-resources). - Fetch size lets the JDBC driver (MariaDB) stream rows
+	 * in chunks of 500 instead of buffering the whole result set. - Read-only hint skips
+	 * Hibernate's dirty-checking snapshots.
+	 */
+	@Query("select o from Order o order by o.id")
+	@QueryHints({ @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+			@QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true") })
+	Stream<Order> streamAll();
+
+	/**
+	 * Order count and revenue per status, computed in the database.
+	 *
+	 * All filters are optional (null = no filter): - createdFrom: inclusive lower
+	 * bound on createdAt - createdTo: exclusive upper bound on createdAt -
+	 * customerLike: already lower-cased LIKE pattern on customerName (e.g.
+	 * "%muster%"), wildcards in the term escaped with {@link #escapeLike}
+	 */
+	@Query("""
+			select o.status as status, count(o) as orderCount, coalesce(sum(o.total), 0) as totalRevenue
+			from Order o
+			where (:createdFrom is null or o.createdAt >= :createdFrom)
+			  and (:createdTo is null or o.createdAt < :createdTo)
+			  and (:customerLike is null or lower(o.customerName) like :customerLike escape '!')
+			group by o.status
+			""")
+	List<OrderStatusTotals> aggregateByStatus(@Param("createdFrom") Instant createdFrom,
+			@Param("createdTo") Instant createdTo, @Param("customerLike") String customerLike);
+
+	/**
+	 * Streams (createdAt, status, total) of all orders created at or after the
+	 * given instant. Same streaming rules as {@link #streamAll()}.
+	 */
+	@Query("""
+			select o.createdAt as createdAt, o.status as status, o.total as total
+			from Order o
+			where o.createdAt >= :from
+			""")
+	@QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+	Stream<OrderCreatedTotal> streamCreatedTotalsSince(@Param("from") Instant from);
+
+	/**
+	 * Streams (id, customerName) of all orders with a customer name, for the
+	 * in-memory trigram index. Same streaming rules as {@link #streamAll()}.
+	 */
+	@Query("select o.id as id, o.customerName as customerName from Order o where o.customerName is not null")
+	@QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+	Stream<OrderCustomerName> streamCustomerNames();
+
+	/**
+	 * Set-based status change for one chunk of ids (no entity is loaded).
+	 *
+	 * Notes: - rows already in the target status are not touched (and not counted)
+	 * - bypasses the persistence context; callers must not hold managed Orders of
+	 * these ids - increments the row version like an entity update (ETag,
+	 * optimistic locking)
+	 */
+	@Modifying
+	@Query("update Order o set o.status = :status, o.updatedAt = :updatedAt, o.version = o.version + 1 where o.id in :ids and o.status <> :status")
+	int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") OrderStatus status,
+			@Param("updatedAt") Instant updatedAt);
+}
@@ -0,0 +1,44 @@
+package ch.devprojects.orderflow.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import ch.devprojects.orderflow.domain.OrderRollup;
+import ch.devprojects.orderflow.domain.OrderRollupId;
+import ch.devprojects.orderflow.domain.RollupGranularity;
+
+/**
+ * JPA repository for the pre-aggregated {@link OrderRollup} buckets.
+ */
+public interface OrderRollupRepository extends JpaRepository<OrderRollup, OrderRollupId> {
+
+	/**
+	 * All buckets of one granularity with bucketStart in [from, to).
+	 */
+	@Query("""
+			select r from OrderRollup r
+			where r.id.granularity = :granularity
+			  and r.id.bucketStart >= :from and r.id.bucketStart < :to
+			""")
+	List<OrderRollup> findRange(@Param("granularity") RollupGranularity granularity, @Param("from") Instant from,
+			@Param("to") Instant to);
+
+	/**
+	 * All buckets of one granularity with bucketStart >= from.
+	 */
+	@Query("select r from OrderRollup r where r.id.granularity = :granularity and r.id.bucketStart >= :from")
+	List<OrderRollup> findFrom(@Param("granularity") RollupGranularity granularity, @Param("from") Instant from);
+
+	/**
+	 * Removes all buckets of one granularity with bucketStart >= from (used before
+	 * a rebuild).
+	 */
+	@Modifying
+	@Query("delete from OrderRollup r where r.id.granularity = :granularity and r.id.bucketStart >= :from")
+	int deleteFrom(@Param("granularity") RollupGranularity granularity, @Param("from") Instant from);
+}
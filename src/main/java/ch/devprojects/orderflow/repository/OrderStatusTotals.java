@@ -0,0 +1,20 @@
+package ch.devprojects.orderflow.repository;
+
+import java.math.BigDecimal;
+
+import ch.devprojects.orderflow.domain.OrderStatus;
+
+/**
+ * Interface projection for "GROUP BY status" aggregate queries.
+ *
+ * One instance per status present in the result (statuses without rows are
+ * simply missing).
+ */
+public interface OrderStatusTotals {
+
+	OrderStatus getStatus();
+
+	long getOrderCount();
+
+	BigDecimal getTotalRevenue();
+}
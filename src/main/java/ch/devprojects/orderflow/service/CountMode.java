@@ -0,0 +1,36 @@
+package ch.devprojects.orderflow.service;
+
+import java.util.Locale;
+
+/**
+ * How a paged order query obtains its total.
+ *
+ * Modes: - EXACT (default): separate SELECT COUNT(*) with the same predicates,
+ * as Spring Data does for a Page - NONE: no count at all; the result is a Slice
+ * and hasNext is derived by fetching size + 1 rows - CACHED: exact count,
+ * memoized per normalized filter and reused until the next order write (see
+ * OrderCountCache) - WINDOW: total computed in the page query itself with
+ * COUNT(*) OVER(); falls back to EXACT if the dialect has no window functions
+ */
+public enum CountMode {
+
+	EXACT, NONE, CACHED, WINDOW;
+
+	/**
+	 * Parses the "countMode" request parameter (case-insensitive).
+	 *
+	 * @return EXACT for null/blank
+	 * @throws IllegalArgumentException for unknown values (mapped to 400 by
+	 *                                  GlobalExceptionHandler)
+	 */
+	public static CountMode from(String value) {
+		if (value == null || value.isBlank()) {
+			return EXACT;
+		}
+		try {
+			return valueOf(value.trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException ex) {
+			throw new IllegalArgumentException("countMode must be one of exact, none, cached, window");
+		}
+	}
+}
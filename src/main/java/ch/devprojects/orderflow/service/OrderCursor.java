@@ -0,0 +1,81 @@
+package ch.devprojects.orderflow.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import ch.devprojects.orderflow.domain.Order;
+
+/**
+ * Opaque keyset cursor over (createdAt, id) for "createdAt DESC, id DESC"
+ * ordering.
+ *
+ * Wire format: - base64url("epochSecond:nano:id"), or base64url("-:id") when
+ * the last row had no createdAt (legacy rows). - Clients must treat the token
+ * as opaque; only this class knows the layout.
+ *
+ * Why keyset instead of OFFSET? - OFFSET n forces the DB to read and discard n
+ * rows, so deep pages get slower and slower. A keyset predicate seeks directly
+ * to the last seen row, so page 1000 costs the same as page 0.
+ */
+public final class OrderCursor {
+
+	private static final String NULL_MARKER = "-";
+
+	private final Instant createdAt;
+	private final long id;
+
+	public OrderCursor(Instant createdAt, long id) {
+		this.createdAt = createdAt;
+		this.id = id;
+	}
+
+	/**
+	 * Builds the cursor pointing right after the given (last returned) order.
+	 */
+	public static OrderCursor after(Order order) {
+		return new OrderCursor(order.getCreatedAt(), order.getId());
+	}
+
+	/**
+	 * Decodes a token produced by {@link #encode()}.
+	 *
+	 * @throws IllegalArgumentException if the token is malformed (mapped to 400 by
+	 *                                  GlobalExceptionHandler)
+	 */
+	public static OrderCursor decode(String token) {
+		if (token == null || token.isBlank()) {
+			throw new IllegalArgumentException("cursor must not be blank");
+		}
+
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+			String[] parts = raw.split(":");
+
+			if (parts.length == 2 && NULL_MARKER.equals(parts[0])) {
+				return new OrderCursor(null, Long.parseLong(parts[1]));
+			}
+			if (parts.length == 3) {
+				Instant ts = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+				return new OrderCursor(ts, Long.parseLong(parts[2]));
+			}
+		} catch (RuntimeException ex) {
+			// fall through to the uniform error below (bad base64, bad numbers, ...)
+		}
+		throw new IllegalArgumentException("invalid cursor");
+	}
+
+	public String encode() {
+		String raw = (createdAt == null) ? NULL_MARKER + ":" + id
+				: createdAt.getEpochSecond() + ":" + createdAt.getNano() + ":" + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public Instant getCreatedAt() {
+		return createdAt;
+	}
+
+	public long getId() {
+		return id;
+	}
+}
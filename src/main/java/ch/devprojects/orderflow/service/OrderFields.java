@@ -0,0 +1,61 @@
+package ch.devprojects.orderflow.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Parser for the "fields" (sparse fieldset) request parameter of the list
+ * endpoints.
+ *
+ * Notes: - names are the OrderDto JSON property names, which are also the Order
+ * entity attribute names, so they map 1:1 to columns - "summary" expands to the
+ * grid columns (everything but description) - order of first mention is kept,
+ * duplicates are dropped - unknown names are rejected instead of ignored, so a
+ * typo does not silently return fewer columns
+ */
+public final class OrderFields {
+
+	public static final List<String> ALL = List.of("id", "code", "customerName", "status", "total", "description",
+			"createdAt", "updatedAt");
+
+	public static final List<String> SUMMARY = List.of("id", "code", "customerName", "status", "total", "createdAt",
+			"updatedAt");
+
+	private OrderFields() {
+	}
+
+	/**
+	 * @param fields comma separated list, e.g. "code,status,total"
+	 * @return the selected fields, or null when the parameter is absent/blank
+	 *         (i.e. full DTOs)
+	 * @throws IllegalArgumentException for unknown names (mapped to 400 by
+	 *                                  GlobalExceptionHandler)
+	 */
+	public static List<String> parse(String fields) {
+		if (fields == null || fields.isBlank()) {
+			return null;
+		}
+
+		Set<String> selected = new LinkedHashSet<>();
+		for (String raw : fields.split(",")) {
+			String field = raw.trim();
+			if (field.isEmpty()) {
+				continue;
+			}
+			if ("summary".equals(field)) {
+				selected.addAll(SUMMARY);
+			} else if (ALL.contains(field)) {
+				selected.add(field);
+			} else {
+				throw new IllegalArgumentException("unknown field '" + field + "', allowed: " + ALL + " or summary");
+			}
+		}
+
+		if (selected.isEmpty()) {
+			throw new IllegalArgumentException("fields must name at least one field");
+		}
+		return new ArrayList<>(selected);
+	}
+}
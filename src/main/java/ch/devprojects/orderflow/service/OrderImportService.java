@@ -0,0 +1,32 @@
+package ch.devprojects.orderflow.service;
+
+import java.util.Iterator;
+
+import ch.devprojects.orderflow.dto.OrderBatchResponse;
+import ch.devprojects.orderflow.dto.OrderDto;
+
+/**
+ * Bulk create/upsert of orders (POST /api/orders/batch).
+ *
+ * Notes: - Elements are consumed lazily from the iterator, so the request body
+ * never has to be materialized as a List - Every element gets its own result;
+ * one invalid element does not fail the others
+ */
+public interface OrderImportService {
+
+	/**
+	 * Number of elements written per transaction (and per JDBC batch, see
+	 * hibernate.jdbc.batch_size).
+	 */
+	int CHUNK_SIZE = 50;
+
+	/**
+	 * Imports all elements.
+	 *
+	 * @param orders elements in request order; if next() throws, that element is
+	 *               reported as FAILED (e.g. a value of the wrong JSON type)
+	 * @param upsert true: an existing code is updated; false: it is reported as
+	 *               FAILED
+	 */
+	OrderBatchResponse importOrders(Iterator<OrderDto> orders, boolean upsert);
+}
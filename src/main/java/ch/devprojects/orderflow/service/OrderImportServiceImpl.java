@@ -0,0 +1,218 @@
+package ch.devprojects.orderflow.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ch.devprojects.orderflow.domain.Order;
+import ch.devprojects.orderflow.domain.OrderStatus;
+import ch.devprojects.orderflow.dto.OrderBatchItemResult;
+import ch.devprojects.orderflow.dto.OrderBatchItemResult.Outcome;
+import ch.devprojects.orderflow.dto.OrderBatchResponse;
+import ch.devprojects.orderflow.dto.OrderDto;
+import ch.devprojects.orderflow.mapper.OrderMapper;
+import ch.devprojects.orderflow.repository.OrderRepository;
+import ch.devprojects.orderflow.service.event.OrderChangedEvent;
+import ch.devprojects.orderflow.service.event.OrderSnapshot;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Default implementation of {@link OrderImportService}.
+ *
+ * Per chunk of {@link #CHUNK_SIZE} elements: - validate each element (same
+ * rules as a single create) - one SELECT ... WHERE code IN (...) for the
+ * existing orders - persist/update in one transaction; ids come from the pooled
+ * generator, so Hibernate sends the INSERTs/UPDATEs as JDBC batches on flush -
+ * the persistence context is cleared afterwards (constant memory)
+ *
+ * If a chunk fails on flush (e.g. a code inserted concurrently), it is retried
+ * element by element so only the offending elements are reported as FAILED.
+ *
+ * Every write publishes the same {@link OrderChangedEvent} as the single-order
+ * endpoints.
+ */
+@Service
+public class OrderImportServiceImpl implements OrderImportService {
+
+	private final OrderRepository orderRepository;
+	private final OrderMapper orderMapper;
+	private final ApplicationEventPublisher eventPublisher;
+	private final TransactionTemplate transactionTemplate;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	public OrderImportServiceImpl(OrderRepository orderRepository, OrderMapper orderMapper,
+			ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager) {
+		this.orderRepository = Objects.requireNonNull(orderRepository, "orderRepository must not be null");
+		this.orderMapper = Objects.requireNonNull(orderMapper, "orderMapper must not be null");
+		this.eventPublisher = Objects.requireNonNull(eventPublisher, "eventPublisher must not be null");
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	@Override
+	public OrderBatchResponse importOrders(Iterator<OrderDto> orders, boolean upsert) {
+		OrderBatchResponse response = new OrderBatchResponse();
+		List<Item> chunk = new ArrayList<>(CHUNK_SIZE);
+		int index = 0;
+
+		while (orders.hasNext()) {
+			Item item;
+			try {
+				item = new Item(index, orders.next(), null);
+			} catch (RuntimeException ex) {
+				item = new Item(index, null, ex.getMessage());
+			}
+			index++;
+
+			chunk.add(item);
+			if (chunk.size() == CHUNK_SIZE) {
+				process(chunk, upsert).forEach(response::add);
+				chunk.clear();
+			}
+		}
+		if (!chunk.isEmpty()) {
+			process(chunk, upsert).forEach(response::add);
+		}
+		return response;
+	}
+
+	// ----------------- helpers -----------------
+
+	private List<OrderBatchItemResult> process(List<Item> chunk, boolean upsert) {
+		OrderBatchItemResult[] results = new OrderBatchItemResult[chunk.size()];
+		List<Item> valid = new ArrayList<>(chunk.size());
+		List<Integer> positions = new ArrayList<>(chunk.size());
+
+		for (int i = 0; i < chunk.size(); i++) {
+			Item item = chunk.get(i);
+			String error = item.error != null ? item.error : validate(item.dto);
+			if (error != null) {
+				results[i] = OrderBatchItemResult.failed(item.index, item.dto == null ? null : item.dto.getCode(),
+						error);
+			} else {
+				valid.add(item);
+				positions.add(i);
+			}
+		}
+
+		if (!valid.isEmpty()) {
+			List<OrderBatchItemResult> written;
+			try {
+				written = transactionTemplate.execute(tx -> write(valid, upsert));
+			} catch (RuntimeException ex) {
+				// Isolate the failing element(s): one transaction per element.
+				written = new ArrayList<>(valid.size());
+				for (Item item : valid) {
+					written.add(writeAlone(item, upsert));
+				}
+			}
+			for (int i = 0; i < written.size(); i++) {
+				results[positions.get(i)] = written.get(i);
+			}
+		}
+		return List.of(results);
+	}
+
+	private OrderBatchItemResult writeAlone(Item item, boolean upsert) {
+		try {
+			return transactionTemplate.execute(tx -> write(List.of(item), upsert)).get(0);
+		} catch (DataIntegrityViolationException ex) {
+			return OrderBatchItemResult.failed(item.index, item.dto.getCode(),
+					"violates a database constraint (e.g. duplicate code or value too long)");
+		} catch (RuntimeException ex) {
+			return OrderBatchItemResult.failed(item.index, item.dto.getCode(), "could not be saved");
+		}
+	}
+
+	/**
+	 * Writes the (validated) items in the current transaction; results are in
+	 * item order.
+	 */
+	private List<OrderBatchItemResult> write(List<Item> items, boolean upsert) {
+		List<String> codes = items.stream().map(item -> item.dto.getCode()).distinct().toList();
+		Map<String, Order> byCode = new HashMap<>();
+		for (Order existing : orderRepository.findByCodeIn(codes)) {
+			byCode.put(existing.getCode(), existing);
+		}
+
+		List<OrderBatchItemResult> results = new ArrayList<>(items.size());
+		for (Item item : items) {
+			String code = item.dto.getCode();
+			Order entity = byCode.get(code);
+
+			if (entity == null) {
+				entity = orderRepository.save(orderMapper.toEntityForCreate(item.dto));
+				byCode.put(code, entity);
+				eventPublisher.publishEvent(OrderChangedEvent.created(OrderSnapshot.of(entity)));
+				results.add(OrderBatchItemResult.success(item.index, Outcome.CREATED, code, entity.getId()));
+			} else if (!upsert) {
+				results.add(OrderBatchItemResult.failed(item.index, code, "code already exists"));
+			} else {
+				OrderSnapshot before = OrderSnapshot.of(entity);
+				orderMapper.applyToExistingEntityForUpdate(item.dto, entity);
+				eventPublisher.publishEvent(OrderChangedEvent.updated(before, OrderSnapshot.of(entity)));
+				results.add(OrderBatchItemResult.success(item.index, Outcome.UPDATED, code, entity.getId()));
+			}
+		}
+
+		// Sends the batched INSERT/UPDATE statements (through the repository, so
+		// constraint violations become DataIntegrityViolationException), then drops
+		// the entities.
+		orderRepository.flush();
+		entityManager.clear();
+		return results;
+	}
+
+	/**
+	 * Same rules as a single create, plus a status check up front (the mapper
+	 * would otherwise fail half-way through an update). Normalizes the code.
+	 *
+	 * @return the error message, or null if valid
+	 */
+	private static String validate(OrderDto dto) {
+		try {
+			OrderServiceImpl.validateForCreate(dto);
+		} catch (IllegalArgumentException ex) {
+			return ex.getMessage();
+		}
+		dto.setCode(dto.getCode().trim());
+
+		String status = dto.getStatus();
+		if (status != null && !status.isBlank()) {
+			try {
+				OrderStatus.valueOf(status.trim().toUpperCase(Locale.ROOT));
+			} catch (IllegalArgumentException ex) {
+				return "invalid status: " + status;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * One element of the request: either a parsed DTO or the parse error.
+	 */
+	private static final class Item {
+
+		final int index;
+		final OrderDto dto;
+		final String error;
+
+		Item(int index, OrderDto dto, String error) {
+			this.index = index;
+			this.dto = dto;
+			this.error = error;
+		}
+	}
+}
@@ -3,30 +3,41 @@ package ch.devprojects.orderflow.service;
 import java.util.Optional;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import ch.devprojects.orderflow.domain.Order;
+import ch.devprojects.orderflow.dto.OrderDto;
 import ch.devprojects.orderflow.dto.OrderResponseDto;
+import ch.devprojects.orderflow.mapper.OrderMapper;
 import ch.devprojects.orderflow.repository.OrderRepository;
+import ch.devprojects.orderflow.service.cache.OrderLookupCache;
 
 /**
  * Default implementation of OrderLookupService.
  *
- * Read-only, no business logic.
+ * Read-only, no business logic. Shares the {@link OrderLookupCache} with
+ * OrderServiceImpl (no transaction of its own, so cache hits need no DB
+ * connection).
  */
 @Service
-@Transactional(readOnly = true)
+@Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
 public class OrderLookupServiceImpl implements OrderLookupService {
 
 	private final OrderRepository orderRepository;
+	private final OrderMapper orderMapper;
+	private final OrderLookupCache orderLookupCache;
 
-	public OrderLookupServiceImpl(OrderRepository orderRepository) {
+	public OrderLookupServiceImpl(OrderRepository orderRepository, OrderMapper orderMapper,
+			OrderLookupCache orderLookupCache) {
 		this.orderRepository = orderRepository;
+		this.orderMapper = orderMapper;
+		this.orderLookupCache = orderLookupCache;
 	}
 
 	@Override
 	public Optional<OrderResponseDto> findById(Long id) {
-		return orderRepository.findById(id).map(this::toResponseDto);
+		return orderLookupCache.getById(id, key -> orderRepository.findById(key).map(orderMapper::toDto))
+				.map(this::toResponseDto);
 	}
 
 	@Override
@@ -34,16 +45,17 @@ public class OrderLookupServiceImpl implements OrderLookupService {
 		if (code == null || code.isBlank()) {
 			return Optional.empty();
 		}
-		return orderRepository.findByCode(code.trim()).map(this::toResponseDto);
+		return orderLookupCache.getByCode(code.trim(), key -> orderRepository.findByCode(key).map(orderMapper::toDto))
+				.map(this::toResponseDto);
 	}
 
-	private OrderResponseDto toResponseDto(Order order) {
+	private OrderResponseDto toResponseDto(OrderDto order) {
 		OrderResponseDto dto = new OrderResponseDto();
 		dto.setId(order.getId());
 		dto.setCode(order.getCode());
 		dto.setCustomerName(order.getCustomerName());
 		dto.setTotal(order.getTotal());
-		dto.setStatus(order.getStatus() == null ? null : order.getStatus().name());
+		dto.setStatus(order.getStatus());
 		dto.setCreatedAt(order.getCreatedAt());
 		dto.setUpdatedAt(order.getUpdatedAt());
 		return dto;
@@ -0,0 +1,42 @@
+package ch.devprojects.orderflow.service;
+
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * "Order not found" without a stack trace.
+ *
+ * Notes: - Still an EntityNotFoundException, so existing handlers map it to 404
+ * unchanged - A miss is an expected outcome (clients probing ids and codes), the
+ * stack would only say "thrown by OrderServiceImpl" and costs far more than
+ * the lookup itself - The GET endpoints avoid the exception altogether (see
+ * OrderService#lookupById / #lookupByCode)
+ */
+public class OrderNotFoundException extends EntityNotFoundException {
+
+	private static final long serialVersionUID = 1L;
+
+	public OrderNotFoundException(String message) {
+		super(message);
+	}
+
+	public static OrderNotFoundException id(Long id) {
+		return new OrderNotFoundException(messageForId(id));
+	}
+
+	public static OrderNotFoundException code(String code) {
+		return new OrderNotFoundException(messageForCode(code));
+	}
+
+	public static String messageForId(Long id) {
+		return "Order not found, id=" + id;
+	}
+
+	public static String messageForCode(String code) {
+		return "Order not found, code=" + code;
+	}
+
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return this;
+	}
+}
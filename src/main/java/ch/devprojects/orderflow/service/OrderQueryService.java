@@ -1,12 +1,16 @@
 package ch.devprojects.orderflow.service;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import ch.devprojects.orderflow.domain.OrderStatus;
 import ch.devprojects.orderflow.dto.OrderDto;
+import ch.devprojects.orderflow.dto.OrdersCursorResponse;
 import ch.devprojects.orderflow.dto.OrdersPageResponse;
 
 /**
@@ -19,11 +23,59 @@ import ch.devprojects.orderflow.dto.OrdersPageResponse;
  */
 public interface OrderQueryService {
 
+	/**
+	 * Hard upper bound for any page size requested by a client. Larger values are
+	 * silently clamped to this value.
+	 */
+	int MAX_PAGE_SIZE = 100;
+
 	Page<OrderDto> search(String customer, OrderStatus status, String codeFrom, String codeTo, BigDecimal totalMin,
 			BigDecimal totalMax, Pageable pageable);
 
+	/**
+	 * Same filters as above, with a choice of how the total is obtained.
+	 *
+	 * @return a Page (with totals) for EXACT, CACHED and WINDOW; a plain Slice
+	 *         (hasNext only) for NONE
+	 */
+	Slice<OrderDto> search(String customer, OrderStatus status, String codeFrom, String codeTo, BigDecimal totalMin,
+			BigDecimal totalMax, Pageable pageable, CountMode countMode);
+
+	/**
+	 * Sparse fieldset variant: selects only the given columns in SQL and returns
+	 * one map per row (keys in the order of fields), so the description and other
+	 * unused columns are neither read nor serialized.
+	 *
+	 * @param fields validated field names, see {@link OrderFields#parse(String)}
+	 */
+	Slice<Map<String, Object>> searchFields(String customer, OrderStatus status, String codeFrom, String codeTo,
+			BigDecimal totalMin, BigDecimal totalMax, Pageable pageable, CountMode countMode, List<String> fields);
+
 	OrdersPageResponse findOrders(String customer, OrderStatus status, int page, int size, String sortBy,
 			String sortDir, BigDecimal totalMin, BigDecimal totalMax);
 
+	/**
+	 * Validator (unquoted ETag) of the orders matching the filters, from one
+	 * aggregate query; changes with every insert, delete or versioned update of a
+	 * matching row, whichever instance made it. Compute it before the page query.
+	 */
+	String etag(String customer, OrderStatus status, String codeFrom, String codeTo, BigDecimal totalMin,
+			BigDecimal totalMax);
+
+	/**
+	 * @param countMode NONE leaves totalElements/totalPages null; use hasNext
+	 */
+	OrdersPageResponse findOrders(String customer, OrderStatus status, int page, int size, String sortBy,
+			String sortDir, BigDecimal totalMin, BigDecimal totalMax, CountMode countMode);
+
 	OrdersPageResponse findOrders(String customer, OrderStatus status, int page, int size);
+
+	/**
+	 * Keyset paging over "createdAt DESC, id DESC".
+	 *
+	 * @param cursor opaque token from a previous response, or null/blank for the
+	 *               first page
+	 * @param size   page size (clamped to 1..{@link #MAX_PAGE_SIZE})
+	 */
+	OrdersCursorResponse findOrdersAfter(String cursor, int size);
 }
\ No newline at end of file
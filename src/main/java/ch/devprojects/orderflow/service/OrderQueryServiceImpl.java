@@ -1,57 +1,264 @@
 package ch.devprojects.orderflow.service;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.StringJoiner;
+import java.util.function.Supplier;
 
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaCriteriaQuery;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 
+import ch.devprojects.orderflow.diagnostics.jfr.OrderQueryEvent;
 import ch.devprojects.orderflow.domain.Order;
 import ch.devprojects.orderflow.domain.OrderStatus;
 import ch.devprojects.orderflow.dto.OrderDto;
+import ch.devprojects.orderflow.dto.OrdersCursorResponse;
 import ch.devprojects.orderflow.dto.OrdersPageResponse;
 import ch.devprojects.orderflow.repository.OrderRepository;
+import ch.devprojects.orderflow.service.cache.OrderCountCache;
+import ch.devprojects.orderflow.service.cache.OrderDataVersion;
+import ch.devprojects.orderflow.service.cache.SingleFlight;
+import ch.devprojects.orderflow.service.search.CustomerNameTrigramIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
 
 /**
  * Query service implementation based on JPA Specifications.
  *
  * Key detail for this task: - The returned DTO includes "description" (mapped
  * in toDto()).
+ *
+ * Totals: every paged query takes a {@link CountMode}; only EXACT runs the
+ * second COUNT(*) on each call (see CountMode for the alternatives).
+ *
+ * Customer filter: resolved through CustomerNameTrigramIndex when possible
+ * (see spec()), otherwise LIKE '%x%' in SQL.
+ *
+ * Coalescing: concurrent findOrders calls with the same normalized filters,
+ * page, sort and CountMode share one query ({@link SingleFlight}), but only
+ * while {@link OrderDataVersion} has not moved since that query started (a
+ * caller whose own write just committed never gets an older page). Every
+ * caller gets its own copy of the response.
+ *
+ * Sparse fieldsets: searchFields() selects only the requested columns as a
+ * criteria Tuple; no entities are loaded (and none end up in the persistence
+ * context).
  */
 @Service
 public class OrderQueryServiceImpl implements OrderQueryService {
 
+	static final String FIND_ORDERS = "orders.findOrders";
+
 	private final OrderRepository orderRepository;
+	private final OrderCountCache orderCountCache;
+	private final CustomerNameTrigramIndex customerNameIndex;
+	private final SingleFlight singleFlight;
+	private final OrderDataVersion orderDataVersion;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	/**
+	 * Resolved on first use of CountMode.WINDOW (needs the EntityManagerFactory).
+	 */
+	private volatile Boolean windowFunctions;
 
 	/**
 	 * Restrict sorting to known-safe fields to avoid invalid property access. Add
-	 * more fields here when needed.
+	 * more fields here when needed (each one needs an index, see Flyway V9 and
+	 * OrderQueryPlanTest).
 	 */
-	private static final Set<String> ALLOWED_SORT_FIELDS = Set.of("createdAt", "updatedAt", "code", "total", "status",
+	static final Set<String> ALLOWED_SORT_FIELDS = Set.of("createdAt", "updatedAt", "code", "total", "status",
 			"customerName");
 
-	public OrderQueryServiceImpl(OrderRepository orderRepository) {
+	/**
+	 * Stable ordering used by keyset paging. "id" is the tie-breaker for equal
+	 * createdAt values (e.g. rows seeded with the same CURRENT_TIMESTAMP).
+	 */
+	private static final Sort KEYSET_SORT = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
+	/**
+	 * Tuple alias of the "COUNT(id) OVER ()" column (not a field name).
+	 */
+	private static final String WINDOW_TOTAL = "_total";
+
+	public OrderQueryServiceImpl(OrderRepository orderRepository, OrderCountCache orderCountCache,
+			CustomerNameTrigramIndex customerNameIndex, SingleFlight singleFlight, OrderDataVersion orderDataVersion) {
 		this.orderRepository = orderRepository;
+		this.orderCountCache = orderCountCache;
+		this.customerNameIndex = customerNameIndex;
+		this.singleFlight = singleFlight;
+		this.orderDataVersion = orderDataVersion;
 	}
 
 	@Override
 	public Page<OrderDto> search(String customer, OrderStatus status, String codeFrom, String codeTo,
 			BigDecimal totalMin, BigDecimal totalMax, Pageable pageable) {
 
-		Specification<Order> spec = buildSpec(customer, status, codeFrom, codeTo, totalMin, totalMax);
-		return orderRepository.findAll(spec, pageable).map(this::toDto);
+		OrderQueryEvent jfrEvent = new OrderQueryEvent();
+		jfrEvent.begin();
+		Specification<Order> spec = spec(customer, status, codeFrom, codeTo, totalMin, totalMax);
+		Page<OrderDto> result = orderRepository.findAll(spec, capPageSize(pageable)).map(this::toDto);
+		commit(jfrEvent, "search", () -> filterShape(customer, status, codeFrom, codeTo, totalMin, totalMax),
+				CountMode.EXACT, result);
+		return result;
+	}
+
+	@Override
+	public Slice<OrderDto> search(String customer, OrderStatus status, String codeFrom, String codeTo,
+			BigDecimal totalMin, BigDecimal totalMax, Pageable pageable, CountMode countMode) {
+
+		OrderQueryEvent jfrEvent = new OrderQueryEvent();
+		jfrEvent.begin();
+		Specification<Order> spec = spec(customer, status, codeFrom, codeTo, totalMin, totalMax);
+		Slice<OrderDto> result = fetch(spec, capPageSize(pageable), countMode,
+				() -> countSignature(customer, status, codeFrom, codeTo, totalMin, totalMax)).map(this::toDto);
+		commit(jfrEvent, "search", () -> filterShape(customer, status, codeFrom, codeTo, totalMin, totalMax),
+				countMode, result);
+		return result;
+	}
+
+	@Override
+	public Slice<Map<String, Object>> searchFields(String customer, OrderStatus status, String codeFrom,
+			String codeTo, BigDecimal totalMin, BigDecimal totalMax, Pageable pageable, CountMode countMode,
+			List<String> fields) {
+
+		OrderQueryEvent jfrEvent = new OrderQueryEvent();
+		jfrEvent.begin();
+		Slice<Map<String, Object>> result = queryFields(customer, status, codeFrom, codeTo, totalMin, totalMax,
+				pageable, countMode, fields);
+		commit(jfrEvent, "searchFields", () -> filterShape(customer, status, codeFrom, codeTo, totalMin, totalMax),
+				countMode, result);
+		return result;
+	}
+
+	private Slice<Map<String, Object>> queryFields(String customer, OrderStatus status, String codeFrom,
+			String codeTo, BigDecimal totalMin, BigDecimal totalMax, Pageable pageable, CountMode countMode,
+			List<String> fields) {
+
+		Specification<Order> spec = spec(customer, status, codeFrom, codeTo, totalMin, totalMax);
+		Pageable capped = capPageSize(pageable);
+		CountMode mode = countMode == null ? CountMode.EXACT : countMode;
+		boolean windowTotal = mode == CountMode.WINDOW && supportsWindowFunctions();
+
+		HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+		JpaCriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<Order> root = query.from(Order.class);
+
+		List<Selection<?>> selections = new ArrayList<>();
+		for (String field : fields) {
+			selections.add(root.get(field).alias(field));
+		}
+		if (windowTotal) {
+			selections.add(cb.count(root.get("id"), cb.createWindow()).alias(WINDOW_TOTAL));
+		}
+		query.multiselect(selections);
+		Predicate where = spec.toPredicate(root, query, cb);
+		if (where != null) {
+			query.where(where);
+		}
+		query.orderBy(QueryUtils.toOrders(capped.getSort(), root, cb));
+
+		TypedQuery<Tuple> typed = entityManager.createQuery(query);
+		if (capped.isPaged()) {
+			// NONE: one extra row tells whether a next page exists
+			typed.setFirstResult((int) capped.getOffset())
+					.setMaxResults(mode == CountMode.NONE ? capped.getPageSize() + 1 : capped.getPageSize());
+		}
+		List<Tuple> rows = typed.getResultList();
+
+		List<Map<String, Object>> content = new ArrayList<>(rows.size());
+		for (Tuple row : rows) {
+			Map<String, Object> values = new LinkedHashMap<>();
+			for (String field : fields) {
+				values.put(field, row.get(field));
+			}
+			content.add(values);
+		}
+
+		if (capped.isUnpaged()) {
+			return new PageImpl<>(content);
+		}
+		if (mode == CountMode.NONE) {
+			boolean hasNext = content.size() > capped.getPageSize();
+			return new SliceImpl<>(hasNext ? content.subList(0, capped.getPageSize()) : content, capped, hasNext);
+		}
+		if (windowTotal && !rows.isEmpty()) {
+			return new PageImpl<>(content, capped, rows.get(0).get(WINDOW_TOTAL, Long.class));
+		}
+		if (mode == CountMode.CACHED) {
+			String key = countSignature(customer, status, codeFrom, codeTo, totalMin, totalMax);
+			return PageableExecutionUtils.getPage(content, capped,
+					() -> orderCountCache.count(key, () -> orderRepository.count(spec)));
+		}
+		return PageableExecutionUtils.getPage(content, capped, () -> orderRepository.count(spec));
+	}
+
+	/**
+	 * count(id), max(id), sum(version), max(updatedAt) over the same
+	 * specification as the page: an insert or delete changes the count, a delete
+	 * plus insert max(id) (ids only grow), every JPA or bulk update sum(version)
+	 * (also two updates within the same updatedAt second), and updatedAt catches
+	 * manual SQL that maintains it.
+	 */
+	@Override
+	public String etag(String customer, OrderStatus status, String codeFrom, String codeTo, BigDecimal totalMin,
+			BigDecimal totalMax) {
+		Specification<Order> spec = spec(customer, status, codeFrom, codeTo, totalMin, totalMax);
+
+		HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+		JpaCriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<Order> root = query.from(Order.class);
+		query.multiselect(cb.count(root.get("id")), cb.max(root.<Long>get("id")), cb.sum(root.<Long>get("version")),
+				cb.greatest(root.<Instant>get("updatedAt")));
+		Predicate where = spec.toPredicate(root, query, cb);
+		if (where != null) {
+			query.where(where);
+		}
+
+		Tuple row = entityManager.createQuery(query).getSingleResult();
+		Instant updatedAt = row.get(3, Instant.class);
+		return "q" + row.get(0) + "." + row.get(1) + "." + row.get(2) + "."
+				+ (updatedAt == null ? "" : updatedAt.getEpochSecond() + "_" + updatedAt.getNano());
 	}
 
 	@Override
 	public OrdersPageResponse findOrders(String customer, OrderStatus status, int page, int size, String sortBy,
 			String sortDir, BigDecimal totalMin, BigDecimal totalMax) {
+		return findOrders(customer, status, page, size, sortBy, sortDir, totalMin, totalMax, CountMode.EXACT);
+	}
+
+	@Override
+	public OrdersPageResponse findOrders(String customer, OrderStatus status, int page, int size, String sortBy,
+			String sortDir, BigDecimal totalMin, BigDecimal totalMax, CountMode countMode) {
 
+		OrderQueryEvent jfrEvent = new OrderQueryEvent();
+		jfrEvent.begin();
 		int safePage = Math.max(0, page);
-		int safeSize = Math.max(1, size);
+		int safeSize = clampSize(size);
 
 		String safeSortBy = (sortBy == null || sortBy.isBlank()) ? "createdAt" : sortBy.trim();
 		if (!ALLOWED_SORT_FIELDS.contains(safeSortBy)) {
@@ -62,15 +269,62 @@ public class OrderQueryServiceImpl implements OrderQueryService {
 		Sort.Direction direction = "asc".equalsIgnoreCase(sortDir) ? Sort.Direction.ASC : Sort.Direction.DESC;
 		PageRequest pageable = PageRequest.of(safePage, safeSize, Sort.by(direction, safeSortBy));
 
-		Specification<Order> spec = buildSpec(customer, status, null, null, totalMin, totalMax);
-		Page<Order> result = orderRepository.findAll(spec, pageable);
+		String signature = countSignature(customer, status, null, null, totalMin, totalMax);
+		// The data version makes a query started before the latest committed write
+		// a different flight.
+		String key = signature + "|page=" + safePage + "|size=" + safeSize + "|sort=" + safeSortBy + "," + direction
+				+ "|countMode=" + countMode + "|version=" + orderDataVersion.current();
+		OrdersPageResponse response = singleFlight.execute(FIND_ORDERS, key, () -> {
+			Specification<Order> spec = spec(customer, status, null, null, totalMin, totalMax);
+			return toResponse(fetch(spec, pageable, countMode, () -> signature));
+		});
+		if (jfrEvent.shouldCommit()) {
+			commit(jfrEvent, "findOrders", filterShape(customer, status, null, null, totalMin, totalMax), countMode,
+					response.getPage(), response.getSize(), response.getContent().size(),
+					response.getTotalElements() == null ? -1L : response.getTotalElements());
+		}
+		return copyOf(response);
+	}
+
+	/**
+	 * Per-caller copy of a (possibly shared) response, with an unmodifiable
+	 * content list of copied DTOs.
+	 */
+	private static OrdersPageResponse copyOf(OrdersPageResponse shared) {
+		OrdersPageResponse copy = new OrdersPageResponse();
+		copy.setContent(shared.getContent().stream().map(OrderQueryServiceImpl::copyOf).toList());
+		copy.setPage(shared.getPage());
+		copy.setSize(shared.getSize());
+		copy.setHasNext(shared.isHasNext());
+		copy.setTotalElements(shared.getTotalElements());
+		copy.setTotalPages(shared.getTotalPages());
+		return copy;
+	}
+
+	private static OrderDto copyOf(OrderDto dto) {
+		OrderDto copy = new OrderDto();
+		copy.setId(dto.getId());
+		copy.setCode(dto.getCode());
+		copy.setCustomerName(dto.getCustomerName());
+		copy.setTotal(dto.getTotal());
+		copy.setStatus(dto.getStatus());
+		copy.setDescription(dto.getDescription());
+		copy.setCreatedAt(dto.getCreatedAt());
+		copy.setUpdatedAt(dto.getUpdatedAt());
+		copy.setVersion(dto.getVersion());
+		return copy;
+	}
 
+	private OrdersPageResponse toResponse(Slice<Order> result) {
 		OrdersPageResponse response = new OrdersPageResponse();
 		response.setContent(result.getContent().stream().map(this::toDto).toList());
 		response.setPage(result.getNumber());
 		response.setSize(result.getSize());
-		response.setTotalElements(result.getTotalElements());
-		response.setTotalPages(result.getTotalPages());
+		response.setHasNext(result.hasNext());
+		if (result instanceof Page<Order> counted) {
+			response.setTotalElements(counted.getTotalElements());
+			response.setTotalPages(counted.getTotalPages());
+		}
 		return response;
 	}
 
@@ -80,14 +334,236 @@ public class OrderQueryServiceImpl implements OrderQueryService {
 		return findOrders(customer, status, page, size, "createdAt", "desc", null, null);
 	}
 
-	private Specification<Order> buildSpec(String customer, OrderStatus status, String codeFrom, String codeTo,
+	@Override
+	public OrdersCursorResponse findOrdersAfter(String cursor, int size) {
+		OrderQueryEvent jfrEvent = new OrderQueryEvent();
+		jfrEvent.begin();
+		int safeSize = clampSize(size);
+
+		Specification<Order> spec = Specification.unrestricted();
+		if (cursor != null && !cursor.isBlank()) {
+			spec = spec.and(after(OrderCursor.decode(cursor)));
+		}
+
+		// Fetch one extra row to know whether a next page exists (no COUNT query).
+		List<Order> rows = orderRepository.findBy(spec, q -> q.sortBy(KEYSET_SORT).limit(safeSize + 1).all());
+
+		boolean hasNext = rows.size() > safeSize;
+		List<Order> pageRows = hasNext ? rows.subList(0, safeSize) : rows;
+		if (jfrEvent.shouldCommit()) {
+			commit(jfrEvent, "findOrdersAfter", cursor == null || cursor.isBlank() ? "none" : "cursor",
+					CountMode.NONE, 0, safeSize, pageRows.size(), -1L);
+		}
+
+		OrdersCursorResponse response = new OrdersCursorResponse();
+		response.setContent(pageRows.stream().map(this::toDto).toList());
+		response.setSize(safeSize);
+		response.setHasNext(hasNext);
+		response.setNextCursor(hasNext ? OrderCursor.after(pageRows.get(pageRows.size() - 1)).encode() : null);
+		return response;
+	}
+
+	/**
+	 * Runs one paged query; how (and whether) the total is obtained depends on the
+	 * count mode. Returns a Page for every mode except NONE.
+	 */
+	private Slice<Order> fetch(Specification<Order> spec, Pageable pageable, CountMode countMode,
+			Supplier<String> signature) {
+
+		if (pageable.isUnpaged()) {
+			return orderRepository.findAll(spec, pageable);
+		}
+
+		return switch (countMode == null ? CountMode.EXACT : countMode) {
+		// Spring Data fetches size + 1 rows to compute hasNext
+		case NONE -> orderRepository.findBy(spec, q -> q.slice(pageable));
+		case CACHED -> {
+			List<Order> content = orderRepository.findBy(spec, q -> q.slice(pageable)).getContent();
+			String key = signature.get();
+			// Skips the count entirely when the page itself proves the total (first
+			// page not full, or a partial last page)
+			yield PageableExecutionUtils.getPage(content, pageable,
+					() -> orderCountCache.count(key, () -> orderRepository.count(spec)));
+		}
+		case WINDOW -> supportsWindowFunctions() ? windowPage(spec, pageable) : orderRepository.findAll(spec, pageable);
+		default -> orderRepository.findAll(spec, pageable);
+		};
+	}
+
+	/**
+	 * Page query with "COUNT(id) OVER ()" as an extra column: the DB returns the
+	 * total of the filtered rows (before OFFSET/LIMIT) on every row, so no second
+	 * statement is needed.
+	 *
+	 * A page past the end has no rows to carry the total; only then the regular
+	 * COUNT query runs.
+	 */
+	private Page<Order> windowPage(Specification<Order> spec, Pageable pageable) {
+		HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+		JpaCriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+		Root<Order> root = query.from(Order.class);
+
+		query.multiselect(root, cb.count(root.get("id"), cb.createWindow()));
+		Predicate where = spec.toPredicate(root, query, cb);
+		if (where != null) {
+			query.where(where);
+		}
+		query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+		List<Object[]> rows = entityManager.createQuery(query).setFirstResult((int) pageable.getOffset())
+				.setMaxResults(pageable.getPageSize()).getResultList();
+
+		if (rows.isEmpty()) {
+			long total = pageable.getOffset() == 0 ? 0L : orderRepository.count(spec);
+			return new PageImpl<>(List.of(), pageable, total);
+		}
+
+		List<Order> content = rows.stream().map(row -> (Order) row[0]).toList();
+		return new PageImpl<>(content, pageable, ((Number) rows.get(0)[1]).longValue());
+	}
+
+	private boolean supportsWindowFunctions() {
+		Boolean supported = windowFunctions;
+		if (supported == null) {
+			supported = entityManager != null && entityManager.getEntityManagerFactory()
+					.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect().supportsWindowFunctions();
+			windowFunctions = supported;
+		}
+		return supported;
+	}
+
+	/**
+	 * Normalized cache key of a filter combination: equivalent filters (case and
+	 * whitespace of the customer, 10 vs 10.00) map to the same key.
+	 */
+	static String countSignature(String customer, OrderStatus status, String codeFrom, String codeTo,
+			BigDecimal totalMin, BigDecimal totalMax) {
+		return "customer=" + (customer == null ? "" : customer.trim().toLowerCase()) + "|status="
+				+ (status == null ? "" : status.name()) + "|codeFrom=" + (codeFrom == null ? "" : codeFrom.trim())
+				+ "|codeTo=" + (codeTo == null ? "" : codeTo.trim()) + "|totalMin=" + normalize(totalMin)
+				+ "|totalMax=" + normalize(totalMax);
+	}
+
+	/**
+	 * Which filters are set, e.g. "customer+status" ("none" if none), for the JFR
+	 * query event.
+	 */
+	static String filterShape(String customer, OrderStatus status, String codeFrom, String codeTo,
+			BigDecimal totalMin, BigDecimal totalMax) {
+		StringJoiner shape = new StringJoiner("+").setEmptyValue("none");
+		if (customer != null && !customer.isBlank()) {
+			shape.add("customer");
+		}
+		if (status != null) {
+			shape.add("status");
+		}
+		if ((codeFrom != null && !codeFrom.isBlank()) || (codeTo != null && !codeTo.isBlank())) {
+			shape.add("code");
+		}
+		if (totalMin != null || totalMax != null) {
+			shape.add("total");
+		}
+		return shape.toString();
+	}
+
+	private static void commit(OrderQueryEvent jfrEvent, String operation, Supplier<String> filterShape,
+			CountMode countMode, Slice<?> result) {
+		if (jfrEvent.shouldCommit()) {
+			commit(jfrEvent, operation, filterShape.get(), countMode, result.getNumber(), result.getSize(),
+					result.getNumberOfElements(), result instanceof Page<?> page ? page.getTotalElements() : -1L);
+		}
+	}
+
+	private static void commit(OrderQueryEvent jfrEvent, String operation, String filterShape, CountMode countMode,
+			int page, int pageSize, int rows, long total) {
+		jfrEvent.operation = operation;
+		jfrEvent.filterShape = filterShape;
+		jfrEvent.countMode = (countMode == null ? CountMode.EXACT : countMode).name();
+		jfrEvent.page = page;
+		jfrEvent.pageSize = pageSize;
+		jfrEvent.rows = rows;
+		jfrEvent.total = total;
+		jfrEvent.commit();
+	}
+
+	private static String normalize(BigDecimal value) {
+		return value == null ? "" : value.stripTrailingZeros().toPlainString();
+	}
+
+	/**
+	 * Keyset predicate for rows strictly after the cursor in "createdAt DESC, id
+	 * DESC" order.
+	 *
+	 * Both H2 and MariaDB sort NULL as the lowest value, so rows without createdAt
+	 * come last in DESC order: - cursor with createdAt -> older rows, same
+	 * timestamp with lower id, or any NULL row - cursor without createdAt -> NULL
+	 * rows with lower id only
+	 */
+	private Specification<Order> after(OrderCursor cursor) {
+		Instant ts = cursor.getCreatedAt();
+		long id = cursor.getId();
+
+		if (ts == null) {
+			return (root, query, cb) -> cb.and(cb.isNull(root.get("createdAt")), cb.lessThan(root.get("id"), id));
+		}
+		return (root, query, cb) -> cb.or(cb.lessThan(root.get("createdAt"), ts),
+				cb.and(cb.equal(root.get("createdAt"), ts), cb.lessThan(root.get("id"), id)),
+				cb.isNull(root.get("createdAt")));
+	}
+
+	private int clampSize(int size) {
+		return Math.min(MAX_PAGE_SIZE, Math.max(1, size));
+	}
+
+	private Pageable capPageSize(Pageable pageable) {
+		if (pageable.isPaged() && pageable.getPageSize() > MAX_PAGE_SIZE) {
+			return PageRequest.of(pageable.getPageNumber(), MAX_PAGE_SIZE, pageable.getSort());
+		}
+		return pageable;
+	}
+
+	/**
+	 * Like {@link #buildSpec}, but a customer filter the trigram index can answer
+	 * becomes "id IN (matching ids)" instead of LIKE '%x%', so the remaining
+	 * predicates and the sort can use the B-tree indexes. Falls back to the LIKE
+	 * for short terms or too many matches.
+	 */
+	private Specification<Order> spec(String customer, OrderStatus status, String codeFrom, String codeTo,
+			BigDecimal totalMin, BigDecimal totalMax) {
+
+		if (customer != null && !customer.trim().isEmpty()) {
+			Optional<List<Long>> ids = customerNameIndex.resolve(customer);
+			if (ids.isPresent()) {
+				List<Long> matching = ids.get();
+				Specification<Order> byIds = matching.isEmpty() ? (root, query, cb) -> cb.disjunction()
+						: (root, query, cb) -> root.get("id").in(matching);
+				return buildSpec(null, status, codeFrom, codeTo, totalMin, totalMax).and(byIds);
+			}
+		}
+		return buildSpec(customer, status, codeFrom, codeTo, totalMin, totalMax);
+	}
+
+	/**
+	 * Package-private (and static) so the JMH benchmark in src/jmh can measure it
+	 * without a repository.
+	 *
+	 * Customer filter: "contains the term", the term normalized like the trigram
+	 * index does ({@link CustomerNameTrigramIndex#normalize}) and matched
+	 * literally ('%' and '_' in the term are escaped). Accents still follow the
+	 * column collation here (MariaDB _ci collations are accent-insensitive), while
+	 * the index compares characters exactly.
+	 */
+	static Specification<Order> buildSpec(String customer, OrderStatus status, String codeFrom, String codeTo,
 			BigDecimal totalMin, BigDecimal totalMax) {
 
-		Specification<Order> spec = Specification.where(null);
+		Specification<Order> spec = Specification.unrestricted();
 
 		if (customer != null && !customer.trim().isEmpty()) {
-			String customerLike = "%" + customer.trim().toLowerCase() + "%";
-			spec = spec.and((root, query, cb) -> cb.like(cb.lower(root.get("customerName")), customerLike));
+			String customerLike = "%" + OrderRepository.escapeLike(CustomerNameTrigramIndex.normalize(customer))
+					+ "%";
+			spec = spec.and(
+					(root, query, cb) -> cb.like(cb.lower(root.get("customerName")), customerLike,
+							OrderRepository.LIKE_ESCAPE));
 		}
 
 		if (status != null) {
@@ -125,6 +601,7 @@ public class OrderQueryServiceImpl implements OrderQueryService {
 		dto.setTotal(order.getTotal());
 		dto.setCreatedAt(order.getCreatedAt());
 		dto.setUpdatedAt(order.getUpdatedAt());
+		dto.setVersion(order.getVersion());
 
 		// Entity enum -> DTO String
 		dto.setStatus(order.getStatus() == null ? null : order.getStatus().name());
@@ -1,6 +1,8 @@
 package ch.devprojects.orderflow.service;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 import ch.devprojects.orderflow.domain.OrderStatus;
 import ch.devprojects.orderflow.dto.OrderDto;
@@ -20,14 +22,31 @@ public interface OrderService {
 
 	/**
 	 * Find a single order by database id.
+	 *
+	 * @throws OrderNotFoundException if there is none
 	 */
 	OrderDto findById(Long id);
 
+	/**
+	 * Like {@link #findById(Long)}, but a miss is an empty Optional instead of an
+	 * exception (404 path of the GET endpoints).
+	 */
+	Optional<OrderDto> lookupById(Long id);
+
 	/**
 	 * Get all orders (no paging). Useful for very small datasets / quick demos.
 	 */
 	List<OrderDto> findAll();
 
+	/**
+	 * Streams all orders one by one into the given consumer (ordered by id).
+	 *
+	 * Unlike {@link #findAll()}, no List is built: each row is mapped, detached
+	 * from the persistence context and handed over immediately, so memory usage is
+	 * constant regardless of the number of orders.
+	 */
+	void streamAll(Consumer<OrderDto> consumer);
+
 	/**
 	 * Update an existing order.
 	 */
@@ -50,6 +69,14 @@ public interface OrderService {
 
 	/**
 	 * Find one order by its business code.
+	 *
+	 * @throws OrderNotFoundException if there is none
 	 */
 	OrderDto findByCode(String code);
+
+	/**
+	 * Like {@link #findByCode(String)}, but a miss is an empty Optional instead of
+	 * an exception. A blank code is still an IllegalArgumentException.
+	 */
+	Optional<OrderDto> lookupByCode(String code);
 }
\ No newline at end of file
@@ -2,17 +2,27 @@ package ch.devprojects.orderflow.service;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import ch.devprojects.orderflow.diagnostics.jfr.OrderWriteEvent;
 import ch.devprojects.orderflow.domain.Order;
 import ch.devprojects.orderflow.domain.OrderStatus;
 import ch.devprojects.orderflow.dto.OrderDto;
 import ch.devprojects.orderflow.mapper.OrderMapper;
 import ch.devprojects.orderflow.repository.OrderRepository;
-import jakarta.persistence.EntityNotFoundException;
+import ch.devprojects.orderflow.service.cache.OrderLookupCache;
+import ch.devprojects.orderflow.service.event.OrderChangedEvent;
+import ch.devprojects.orderflow.service.event.OrderSnapshot;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 /**
  * Default implementation of OrderService.
@@ -22,7 +32,12 @@ import jakarta.persistence.EntityNotFoundException;
  *
  * Important: - OrderDto accepts legacy JSON field "comment" via @JsonAlias in
  * DTO, but we always persist into entity.description and DB column
- * orders.description.
+ * orders.description. - Every successful write publishes an
+ * {@link OrderChangedEvent} (consumed after commit by analytics, caches, ...). -
+ * findById/findByCode (and the Optional lookups behind them) are served from
+ * {@link OrderLookupCache}; they run without a transaction of their own, so a
+ * cache hit needs no DB connection. - Misses throw the stackless
+ * {@link OrderNotFoundException}.
  */
 @Service
 @Transactional
@@ -30,28 +45,48 @@ public class OrderServiceImpl implements OrderService {
 
 	private final OrderRepository orderRepository;
 	private final OrderMapper orderMapper;
-
-	public OrderServiceImpl(OrderRepository orderRepository, OrderMapper orderMapper) {
+	private final ApplicationEventPublisher eventPublisher;
+	private final OrderLookupCache orderLookupCache;
+
+	/**
+	 * Only needed to detach streamed rows (see streamAll). Field-injected so the
+	 * constructor used by unit tests stays unchanged.
+	 */
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	public OrderServiceImpl(OrderRepository orderRepository, OrderMapper orderMapper,
+			ApplicationEventPublisher eventPublisher, OrderLookupCache orderLookupCache) {
 		this.orderRepository = Objects.requireNonNull(orderRepository, "orderRepository must not be null");
 		this.orderMapper = Objects.requireNonNull(orderMapper, "orderMapper must not be null");
+		this.eventPublisher = Objects.requireNonNull(eventPublisher, "eventPublisher must not be null");
+		this.orderLookupCache = Objects.requireNonNull(orderLookupCache, "orderLookupCache must not be null");
 	}
 
 	@Override
 	public OrderDto create(OrderDto dto) {
+		OrderWriteEvent jfrEvent = new OrderWriteEvent();
+		jfrEvent.begin();
 		validateForCreate(dto);
 
 		// Uses mapper method (now defined) and persists description.
 		Order entity = orderMapper.toEntityForCreate(dto);
 		Order saved = orderRepository.save(entity);
+		eventPublisher.publishEvent(OrderChangedEvent.created(OrderSnapshot.of(saved)));
+		commit(jfrEvent, "create", saved);
 		return orderMapper.toDto(saved);
 	}
 
 	@Override
-	@Transactional(readOnly = true)
+	@Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
 	public OrderDto findById(Long id) {
-		Order entity = orderRepository.findById(id)
-				.orElseThrow(() -> new EntityNotFoundException("Order not found, id=" + id));
-		return orderMapper.toDto(entity);
+		return lookupById(id).orElseThrow(() -> OrderNotFoundException.id(id));
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+	public Optional<OrderDto> lookupById(Long id) {
+		return orderLookupCache.getById(id, key -> orderRepository.findById(key).map(orderMapper::toDto));
 	}
 
 	@Override
@@ -60,32 +95,58 @@ public class OrderServiceImpl implements OrderService {
 		return orderRepository.findAll().stream().map(orderMapper::toDto).toList();
 	}
 
+	@Override
+	@Transactional(readOnly = true)
+	public void streamAll(Consumer<OrderDto> consumer) {
+		try (Stream<Order> orders = orderRepository.streamAll()) {
+			orders.forEach(order -> {
+				OrderDto dto = orderMapper.toDto(order);
+				// Keep the persistence context empty: otherwise every row stays referenced
+				// until the transaction ends.
+				entityManager.detach(order);
+				consumer.accept(dto);
+			});
+		}
+	}
+
 	@Override
 	public OrderDto update(Long id, OrderDto dto) {
+		OrderWriteEvent jfrEvent = new OrderWriteEvent();
+		jfrEvent.begin();
 		validateForUpdate(dto);
 
 		Order existing = orderRepository.findById(id)
-				.orElseThrow(() -> new EntityNotFoundException("Order not found, id=" + id));
+				.orElseThrow(() -> OrderNotFoundException.id(id));
+
+		// Capture the old state before the mapper mutates the managed entity.
+		OrderSnapshot before = OrderSnapshot.of(existing);
 
 		// Uses mapper method (now defined) and persists description.
 		orderMapper.applyToExistingEntityForUpdate(dto, existing);
 
 		Order saved = orderRepository.save(existing);
+		eventPublisher.publishEvent(OrderChangedEvent.updated(before, OrderSnapshot.of(saved)));
+		commit(jfrEvent, "update", saved);
 		return orderMapper.toDto(saved);
 	}
 
 	@Override
 	public void delete(Long id) {
-		if (!orderRepository.existsById(id)) {
-			throw new EntityNotFoundException("Order not found, id=" + id);
-		}
-		orderRepository.deleteById(id);
+		OrderWriteEvent jfrEvent = new OrderWriteEvent();
+		jfrEvent.begin();
+		// Load (instead of existsById + deleteById) so listeners get the deleted
+		// state; deleteById would run the same SELECT internally anyway.
+		Order existing = orderRepository.findById(id)
+				.orElseThrow(() -> OrderNotFoundException.id(id));
+		orderRepository.delete(existing);
+		eventPublisher.publishEvent(OrderChangedEvent.deleted(OrderSnapshot.of(existing)));
+		commit(jfrEvent, "delete", existing);
 	}
 
 	@Override
 	@Transactional(readOnly = true)
 	public List<OrderDto> search(String code, OrderStatus status) {
-		Specification<Order> spec = Specification.where(null);
+		Specification<Order> spec = Specification.unrestricted();
 
 		if (code != null && !code.trim().isEmpty()) {
 			String codeLike = "%" + code.trim().toLowerCase() + "%";
@@ -100,19 +161,26 @@ public class OrderServiceImpl implements OrderService {
 	}
 
 	@Override
-	@Transactional(readOnly = true)
+	@Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
 	public OrderDto findByCode(String code) {
+		return lookupByCode(code).orElseThrow(() -> OrderNotFoundException.code(code.trim()));
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+	public Optional<OrderDto> lookupByCode(String code) {
 		if (code == null || code.trim().isEmpty()) {
 			throw new IllegalArgumentException("code must not be blank");
 		}
 
-		Order entity = orderRepository.findByCode(code.trim())
-				.orElseThrow(() -> new EntityNotFoundException("Order not found, code=" + code.trim()));
-
-		return orderMapper.toDto(entity);
+		return orderLookupCache.getByCode(code.trim(), key -> orderRepository.findByCode(key).map(orderMapper::toDto));
 	}
 
-	private void validateForCreate(OrderDto dto) {
+	/**
+	 * Package-private: the batch import applies exactly the same rules per
+	 * element.
+	 */
+	static void validateForCreate(OrderDto dto) {
 		if (dto == null) {
 			throw new IllegalArgumentException("OrderDto must not be null");
 		}
@@ -133,4 +201,14 @@ public class OrderServiceImpl implements OrderService {
 		// For now, same validation as create.
 		validateForCreate(dto);
 	}
-}
\ No newline at end of file
+
+	private static void commit(OrderWriteEvent jfrEvent, String operation, Order order) {
+		if (jfrEvent.shouldCommit()) {
+			jfrEvent.operation = operation;
+			jfrEvent.orderId = order.getId() == null ? -1L : order.getId();
+			jfrEvent.code = order.getCode();
+			jfrEvent.status = order.getStatus() == null ? null : order.getStatus().name();
+			jfrEvent.commit();
+		}
+	}
+}
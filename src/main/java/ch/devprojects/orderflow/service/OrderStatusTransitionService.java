@@ -0,0 +1,28 @@
+package ch.devprojects.orderflow.service;
+
+import ch.devprojects.orderflow.dto.OrderStatusTransitionRequest;
+import ch.devprojects.orderflow.dto.OrderStatusTransitionResponse;
+
+/**
+ * Bulk status changes (POST /api/orders/status-transitions), executed as
+ * set-based UPDATE statements instead of one load + save per order.
+ */
+public interface OrderStatusTransitionService {
+
+	/**
+	 * Orders changed per UPDATE statement (and per transaction).
+	 */
+	int CHUNK_SIZE = 500;
+
+	/**
+	 * Upper bound for the ids/codes lists of one request.
+	 */
+	int MAX_KEYS = 10_000;
+
+	/**
+	 * @throws IllegalArgumentException for an invalid request (unknown status, no
+	 *                                  or several selectors, empty filter, too
+	 *                                  many ids/codes)
+	 */
+	OrderStatusTransitionResponse transition(OrderStatusTransitionRequest request);
+}
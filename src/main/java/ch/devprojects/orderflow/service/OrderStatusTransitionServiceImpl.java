@@ -0,0 +1,231 @@
+package ch.devprojects.orderflow.service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ch.devprojects.orderflow.domain.Order;
+import ch.devprojects.orderflow.domain.OrderStatus;
+import ch.devprojects.orderflow.dto.OrderStatusTransitionRequest;
+import ch.devprojects.orderflow.dto.OrderStatusTransitionRequest.Filter;
+import ch.devprojects.orderflow.dto.OrderStatusTransitionResponse;
+import ch.devprojects.orderflow.repository.OrderRepository;
+import ch.devprojects.orderflow.service.event.OrderChangedEvent;
+import ch.devprojects.orderflow.service.event.OrderSnapshot;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Default implementation of {@link OrderStatusTransitionService}.
+ *
+ * Per chunk (one transaction each): - SELECT ... FOR UPDATE of the few columns
+ * needed for the change events (no entities, nothing in the persistence
+ * context) - one UPDATE
+ * ... SET status, updated_at WHERE id IN (...) AND status <> target - publish
+ * an {@link OrderChangedEvent} per changed order, so analytics and caches see
+ * the same events as for single updates
+ *
+ * Chunking: - ids/codes: the list itself is split into chunks - filter: keyset
+ * over id (id > last id of the previous chunk), so no OFFSET and no id list in
+ * memory
+ *
+ * Consistency: - the snapshot rows stay locked until the chunk commits, so
+ * nobody can change them between SELECT and UPDATE: the events carry the real
+ * "before" state and exactly the snapshot rows not yet in the target status
+ * are updated - concurrent writers of these rows wait for the chunk (at most
+ * CHUNK_SIZE rows, one short transaction)
+ */
+@Service
+public class OrderStatusTransitionServiceImpl implements OrderStatusTransitionService {
+
+	private final OrderRepository orderRepository;
+	private final ApplicationEventPublisher eventPublisher;
+	private final TransactionTemplate transactionTemplate;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	public OrderStatusTransitionServiceImpl(OrderRepository orderRepository, ApplicationEventPublisher eventPublisher,
+			PlatformTransactionManager transactionManager) {
+		this.orderRepository = Objects.requireNonNull(orderRepository, "orderRepository must not be null");
+		this.eventPublisher = Objects.requireNonNull(eventPublisher, "eventPublisher must not be null");
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	@Override
+	public OrderStatusTransitionResponse transition(OrderStatusTransitionRequest request) {
+		if (request == null) {
+			throw new IllegalArgumentException("request must not be null");
+		}
+		OrderStatus target = parseStatus(request.getTargetStatus(), "targetStatus");
+		if (target == null) {
+			throw new IllegalArgumentException("targetStatus must not be blank");
+		}
+		OrderStatus from = parseStatus(request.getFromStatus(), "fromStatus");
+
+		int selectors = (request.getIds() != null ? 1 : 0) + (request.getCodes() != null ? 1 : 0)
+				+ (request.getFilter() != null ? 1 : 0);
+		if (selectors != 1) {
+			throw new IllegalArgumentException("exactly one of ids, codes or filter is required");
+		}
+
+		Specification<Order> guard = (from == null) ? Specification.unrestricted()
+				: (root, query, cb) -> cb.equal(root.get("status"), from);
+		Instant now = Instant.now();
+		Totals totals = new Totals();
+
+		if (request.getFilter() != null) {
+			Specification<Order> spec = filterSpec(request.getFilter()).and(guard);
+			Long lastId = null;
+			Chunk chunk;
+			do {
+				Long after = lastId;
+				chunk = transactionTemplate.execute(tx -> transitionChunk(spec, after, target, now));
+				totals.add(chunk);
+				lastId = chunk.lastId;
+			} while (chunk.rows == CHUNK_SIZE);
+		} else {
+			boolean byId = request.getIds() != null;
+			List<?> keys = byId ? distinctIds(request.getIds()) : distinctCodes(request.getCodes());
+			for (int i = 0; i < keys.size(); i += CHUNK_SIZE) {
+				List<?> slice = keys.subList(i, Math.min(keys.size(), i + CHUNK_SIZE));
+				Specification<Order> spec = guard.and((root, query, cb) -> root.get(byId ? "id" : "code").in(slice));
+				totals.add(transactionTemplate.execute(tx -> transitionChunk(spec, null, target, now)));
+			}
+			totals.notMatched = keys.size() - totals.matched;
+		}
+
+		OrderStatusTransitionResponse response = new OrderStatusTransitionResponse();
+		response.setTargetStatus(target.name());
+		response.setMatched(totals.matched);
+		response.setUpdated(totals.updated);
+		response.setUnchanged(totals.matched - totals.updated);
+		response.setNotMatched(totals.notMatched);
+		return response;
+	}
+
+	// ----------------- helpers -----------------
+
+	private Chunk transitionChunk(Specification<Order> spec, Long afterId, OrderStatus target, Instant now) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+		Root<Order> root = query.from(Order.class);
+
+		List<Predicate> where = new ArrayList<>();
+		Predicate predicate = spec.toPredicate(root, query, cb);
+		if (predicate != null) {
+			where.add(predicate);
+		}
+		if (afterId != null) {
+			where.add(cb.greaterThan(root.get("id"), afterId));
+		}
+
+		query.multiselect(root.get("id"), root.get("code"), root.get("status"), root.get("total"),
+				root.get("customerName"), root.get("createdAt"), root.get("updatedAt"))
+				.where(where.toArray(Predicate[]::new)).orderBy(cb.asc(root.get("id")));
+
+		List<Object[]> rows = entityManager.createQuery(query).setLockMode(LockModeType.PESSIMISTIC_WRITE)
+				.setMaxResults(CHUNK_SIZE).getResultList();
+		if (rows.isEmpty()) {
+			return new Chunk(0, 0, afterId);
+		}
+
+		List<OrderSnapshot> changing = new ArrayList<>(rows.size());
+		for (Object[] row : rows) {
+			OrderSnapshot before = new OrderSnapshot((Long) row[0], (String) row[1], (OrderStatus) row[2],
+					(BigDecimal) row[3], (String) row[4], (Instant) row[5], (Instant) row[6]);
+			if (before.getStatus() != target) {
+				changing.add(before);
+			}
+		}
+
+		int updated = 0;
+		if (!changing.isEmpty()) {
+			updated = orderRepository.updateStatus(changing.stream().map(OrderSnapshot::getId).toList(), target, now);
+			for (OrderSnapshot before : changing) {
+				OrderSnapshot after = new OrderSnapshot(before.getId(), before.getCode(), target, before.getTotal(),
+						before.getCustomerName(), before.getCreatedAt(), now);
+				eventPublisher.publishEvent(OrderChangedEvent.updated(before, after));
+			}
+		}
+		return new Chunk(rows.size(), updated, (Long) rows.get(rows.size() - 1)[0]);
+	}
+
+	private static Specification<Order> filterSpec(Filter filter) {
+		if (filter.isEmpty()) {
+			// Refuse "update every order" by accident.
+			throw new IllegalArgumentException("filter must set at least one criterion");
+		}
+		return OrderQueryServiceImpl.buildSpec(filter.getCustomer(), parseStatus(filter.getStatus(), "filter.status"),
+				filter.getCodeFrom(), filter.getCodeTo(), filter.getTotalMin(), filter.getTotalMax());
+	}
+
+	private static List<Long> distinctIds(List<Long> ids) {
+		List<Long> result = ids.stream().filter(Objects::nonNull).distinct().toList();
+		checkKeyCount(result.size());
+		return result;
+	}
+
+	private static List<String> distinctCodes(List<String> codes) {
+		List<String> result = codes.stream().filter(c -> c != null && !c.isBlank()).map(String::trim).distinct()
+				.toList();
+		checkKeyCount(result.size());
+		return result;
+	}
+
+	private static void checkKeyCount(int count) {
+		if (count > MAX_KEYS) {
+			throw new IllegalArgumentException("at most " + MAX_KEYS + " ids/codes per request");
+		}
+	}
+
+	private static OrderStatus parseStatus(String value, String field) {
+		if (value == null || value.isBlank()) {
+			return null;
+		}
+		try {
+			return OrderStatus.valueOf(value.trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException ex) {
+			throw new IllegalArgumentException("invalid " + field + ": " + value);
+		}
+	}
+
+	private static final class Chunk {
+
+		final int rows;
+		final int updated;
+		final Long lastId;
+
+		Chunk(int rows, int updated, Long lastId) {
+			this.rows = rows;
+			this.updated = updated;
+			this.lastId = lastId;
+		}
+	}
+
+	private static final class Totals {
+
+		long matched;
+		long updated;
+		long notMatched;
+
+		void add(Chunk chunk) {
+			matched += chunk.rows;
+			updated += chunk.updated;
+		}
+	}
+}
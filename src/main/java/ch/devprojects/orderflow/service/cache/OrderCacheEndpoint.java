@@ -0,0 +1,43 @@
+package ch.devprojects.orderflow.service.cache;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint for the order lookup cache and the page count cache.
+ *
+ * Exposed as: - GET /actuator/ordercache: hit/miss/eviction statistics per key
+ * space - DELETE /actuator/ordercache: drop all entries of both caches (e.g.
+ * after manual SQL fixes in the DB)
+ *
+ * Must be listed in management.endpoints.web.exposure.include to be reachable.
+ */
+@Component
+@Endpoint(id = "ordercache")
+public class OrderCacheEndpoint {
+
+	private final OrderLookupCache orderLookupCache;
+	private final OrderCountCache orderCountCache;
+
+	public OrderCacheEndpoint(OrderLookupCache orderLookupCache, OrderCountCache orderCountCache) {
+		this.orderLookupCache = orderLookupCache;
+		this.orderCountCache = orderCountCache;
+	}
+
+	@ReadOperation
+	public Map<String, Object> stats() {
+		Map<String, Object> stats = orderLookupCache.stats();
+		stats.put(OrderCountCache.NAME, orderCountCache.stats());
+		return stats;
+	}
+
+	@DeleteOperation
+	public void invalidateAll() {
+		orderLookupCache.invalidateAll();
+		orderCountCache.invalidateAll();
+	}
+}
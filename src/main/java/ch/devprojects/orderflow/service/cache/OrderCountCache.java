@@ -0,0 +1,123 @@
+package ch.devprojects.orderflow.service.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Memoized COUNT(*) results of paged order queries, keyed by a normalized
+ * filter signature (see OrderQueryServiceImpl#countSignature).
+ *
+ * Invalidation: - each entry remembers the {@link OrderDataVersion} read before
+ * its count ran; any committed order write bumps that version, so the next
+ * lookup recounts - a write racing with a count leaves the entry with the old
+ * version, i.e. it is recounted instead of served stale - "ttl" (default 5 min)
+ * bounds staleness for writes the version cannot see (other instances, manual
+ * SQL)
+ *
+ * Only the total is cached, never page content.
+ */
+@Component
+public class OrderCountCache implements MeterBinder {
+
+	static final String NAME = "orders.counts";
+
+	private final OrderDataVersion dataVersion;
+	private final boolean enabled;
+	private final Cache<String, Entry> counts;
+
+	@Autowired
+	public OrderCountCache(OrderDataVersion dataVersion,
+			@Value("${orderflow.cache.counts.enabled:true}") boolean enabled,
+			@Value("${orderflow.cache.counts.max-size:1000}") long maxSize,
+			@Value("${orderflow.cache.counts.ttl:5m}") Duration ttl) {
+		this(dataVersion, enabled, maxSize, ttl, Ticker.systemTicker());
+	}
+
+	/**
+	 * Visible for tests (fake ticker).
+	 */
+	OrderCountCache(OrderDataVersion dataVersion, boolean enabled, long maxSize, Duration ttl, Ticker ticker) {
+		this.dataVersion = dataVersion;
+		this.enabled = enabled;
+		this.counts = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).ticker(ticker).recordStats()
+				.build();
+	}
+
+	/**
+	 * Cache with caching switched off: every call runs the counter.
+	 */
+	public static OrderCountCache disabled() {
+		return new OrderCountCache(new OrderDataVersion(), false, 0, Duration.ZERO);
+	}
+
+	/**
+	 * @param signature normalized filter signature (the cache key)
+	 * @param counter   runs the actual COUNT query on a miss
+	 */
+	public long count(String signature, LongSupplier counter) {
+		if (!enabled) {
+			return counter.getAsLong();
+		}
+
+		long version = dataVersion.current();
+		Entry cached = counts.getIfPresent(signature);
+		if (cached != null && cached.version == version) {
+			return cached.count;
+		}
+
+		// Version read before counting: a write committing meanwhile bumps it and
+		// makes this entry stale right away.
+		long count = counter.getAsLong();
+		counts.put(signature, new Entry(version, count));
+		return count;
+	}
+
+	public void invalidateAll() {
+		counts.invalidateAll();
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * size, hits, misses, hitRate, evictions. Version mismatches count as hits in
+	 * Caffeine's statistics; they are recounted all the same.
+	 */
+	public Map<String, Object> stats() {
+		CacheStats s = counts.stats();
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("enabled", enabled);
+		stats.put("size", counts.estimatedSize());
+		stats.put("hits", s.hitCount());
+		stats.put("misses", s.missCount());
+		stats.put("hitRate", s.hitRate());
+		stats.put("evictions", s.evictionCount());
+		return stats;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, counts, NAME);
+	}
+
+	// ----------------- helpers -----------------
+
+	private record Entry(long version, long count) {
+	}
+}
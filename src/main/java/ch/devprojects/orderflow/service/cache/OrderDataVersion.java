@@ -0,0 +1,94 @@
+package ch.devprojects.orderflow.service.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import ch.devprojects.orderflow.dto.OrderDto;
+import ch.devprojects.orderflow.service.event.OrderChangedEvent;
+
+/**
+ * Global write version of the order data, also usable as an in-memory
+ * validator (ETag) for list and page responses.
+ *
+ * List ETags ({@link #listEtag}): by default the validator the caller computes
+ * from the database (OrderQueryService#etag, one aggregate over the filtered
+ * rows), which sees writes of every instance and manual SQL. With
+ * orderflow.http.list-etag.in-memory=true (single-instance dev profile) this
+ * counter replaces it and no query runs.
+ *
+ * Notes on the counter: - incremented after every committed
+ * {@link OrderChangedEvent}, so any create/update/delete (also batch and bulk)
+ * changes every list ETag - the instance start time is part of the tag, so a
+ * restart never reuses old tags - per instance only: a write handled by
+ * another instance or by manual SQL does not move it, hence not the default
+ *
+ * Callers must read the tag BEFORE running the query: a write in between then
+ * only causes one extra 200, never a stale 304.
+ */
+@Component
+public class OrderDataVersion {
+
+	private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+	private final AtomicLong version = new AtomicLong();
+	private final boolean inMemoryEtag;
+
+	@Autowired
+	public OrderDataVersion(@Value("${orderflow.http.list-etag.in-memory:false}") boolean inMemoryEtag) {
+		this.inMemoryEtag = inMemoryEtag;
+	}
+
+	/**
+	 * In-memory list ETags (single instance, tests).
+	 */
+	public OrderDataVersion() {
+		this(true);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onOrderChanged(OrderChangedEvent event) {
+		version.incrementAndGet();
+	}
+
+	public long current() {
+		return version.get();
+	}
+
+	/**
+	 * ETag value (unquoted) of a list/page response: the in-memory one if
+	 * enabled, otherwise the given database validator.
+	 */
+	public String listEtag(Supplier<String> validator) {
+		String etag = etag();
+		return etag != null ? etag : validator.get();
+	}
+
+	/**
+	 * In-memory ETag value (unquoted) for list/page responses, or null if not
+	 * enabled (WebRequest#checkNotModified(null) never answers 304 and sets no
+	 * ETag header).
+	 */
+	public String etag() {
+		if (!inMemoryEtag) {
+			return null;
+		}
+		return "v" + epoch + "." + version.get();
+	}
+
+	/**
+	 * Strong ETag value (unquoted) of a single order: id plus row version, which
+	 * is incremented by every write of that order (Flyway V10). Not updatedAt: on
+	 * MariaDB it keeps whole seconds only, two updates within one second would
+	 * share a tag.
+	 */
+	public static String etagOf(OrderDto order) {
+		if (order.getVersion() == null) {
+			return "o" + order.getId();
+		}
+		return "o" + order.getId() + "." + order.getVersion();
+	}
+}
@@ -0,0 +1,282 @@
+package ch.devprojects.orderflow.service.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import ch.devprojects.orderflow.dto.OrderDto;
+import ch.devprojects.orderflow.service.event.OrderChangedEvent;
+import ch.devprojects.orderflow.service.event.OrderSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Read-through cache of mapped OrderDtos, keyed by id and by code.
+ *
+ * Entries: - hits are kept for "ttl" (default 10 min) - misses are kept as
+ * negative entries for "negative-ttl" (default 30 s), so repeated lookups of
+ * unknown ids/codes do not reach the DB - both key spaces are bounded by
+ * "max-size" (W-TinyLFU eviction)
+ *
+ * Invalidation: - every committed {@link OrderChangedEvent} evicts the id and
+ * the old and new code (also drops negative entries of a newly created order) -
+ * codes are keyed lower-cased (Locale.ROOT): MariaDB compares them with a
+ * case-insensitive collation, so "ord-1" may load ORD-1, and the events only
+ * name ORD-1. An entry answers only the spelling it was loaded for; another
+ * spelling of a cached code goes to the DB uncached, so the cache gives the
+ * DB's answer under any collation -
+ * an eviction also drops a running load of the same key: its result only goes
+ * to callers already waiting for it and is never cached
+ *
+ * Loads: - concurrent misses of the same key share one load (one in-flight
+ * future per key) - the loader runs outside the cache's internal locks, so a
+ * virtual thread blocked on JDBC during a miss does not pin its carrier (a
+ * ConcurrentHashMap#compute would hold a monitor for the whole query)
+ *
+ * Callers always get a copy; the cached DTO itself is never handed out.
+ *
+ * Statistics are published as Micrometer cache metrics (cache.gets,
+ * cache.evictions, ...) and by the "ordercache" actuator endpoint.
+ */
+@Component
+public class OrderLookupCache implements MeterBinder {
+
+	static final String BY_ID = "orders.byId";
+	static final String BY_CODE = "orders.byCode";
+
+	private final boolean enabled;
+	private final AsyncCache<Long, Entry> byId;
+	private final AsyncCache<String, Entry> byCode;
+
+	@Autowired
+	public OrderLookupCache(@Value("${orderflow.cache.orders.enabled:true}") boolean enabled,
+			@Value("${orderflow.cache.orders.max-size:10000}") long maxSize,
+			@Value("${orderflow.cache.orders.ttl:10m}") Duration ttl,
+			@Value("${orderflow.cache.orders.negative-ttl:30s}") Duration negativeTtl) {
+		this(enabled, maxSize, ttl, negativeTtl, Ticker.systemTicker());
+	}
+
+	/**
+	 * Visible for tests (fake ticker).
+	 */
+	OrderLookupCache(boolean enabled, long maxSize, Duration ttl, Duration negativeTtl, Ticker ticker) {
+		this.enabled = enabled;
+		this.byId = build(maxSize, ttl, negativeTtl, ticker);
+		this.byCode = build(maxSize, ttl, negativeTtl, ticker);
+	}
+
+	/**
+	 * Cache with caching switched off: every call goes to the loader.
+	 */
+	public static OrderLookupCache disabled() {
+		return new OrderLookupCache(false, 0, Duration.ZERO, Duration.ZERO);
+	}
+
+	public Optional<OrderDto> getById(Long id, Function<Long, Optional<OrderDto>> loader) {
+		if (!enabled || id == null) {
+			return loader.apply(id);
+		}
+		return load(byId, id, null, () -> loader.apply(id)).copy();
+	}
+
+	/**
+	 * @param code the already trimmed code; the loader gets it as is
+	 */
+	public Optional<OrderDto> getByCode(String code, Function<String, Optional<OrderDto>> loader) {
+		if (!enabled || code == null) {
+			return loader.apply(code);
+		}
+		Entry entry = load(byCode, keyOf(code), code, () -> loader.apply(code));
+		if (!code.equals(entry.code)) {
+			// cached for another spelling: its answer need not be ours
+			return loader.apply(code);
+		}
+		return entry.copy();
+	}
+
+	/**
+	 * Evicts everything the change could have made stale. Runs after commit, so
+	 * a reader can never re-cache the pre-commit state after this.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onOrderChanged(OrderChangedEvent event) {
+		evict(event.getBefore());
+		evict(event.getAfter());
+	}
+
+	public void invalidateAll() {
+		byId.synchronous().invalidateAll();
+		byCode.synchronous().invalidateAll();
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Per key space: size, hits, misses, hitRate, evictions, loads.
+	 */
+	public Map<String, Object> stats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("enabled", enabled);
+		stats.put(BY_ID, describe(byId.synchronous()));
+		stats.put(BY_CODE, describe(byCode.synchronous()));
+		return stats;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, byId, BY_ID);
+		CaffeineCacheMetrics.monitor(registry, byCode, BY_CODE);
+	}
+
+	// ----------------- helpers -----------------
+
+	private void evict(OrderSnapshot order) {
+		if (order == null) {
+			return;
+		}
+		if (order.getId() != null) {
+			byId.synchronous().invalidate(order.getId());
+		}
+		if (order.getCode() != null) {
+			byCode.synchronous().invalidate(keyOf(order.getCode()));
+		}
+	}
+
+	/**
+	 * Same key for every spelling of a code (see class comment).
+	 */
+	private static String keyOf(String code) {
+		return code.trim().toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * The mapping function only registers an incomplete future (cheap, inside the
+	 * cache's compute); the caller that registered it runs the loader afterwards
+	 * and completes it. Everyone else waits on the future, which parks instead of
+	 * blocking on a monitor. A failed future is removed by Caffeine; any
+	 * Throwable of the loader (also an Error) completes it, otherwise the
+	 * waiters would block forever on a future that stays in the cache.
+	 */
+	private static <K> Entry load(AsyncCache<K, Entry> cache, K key, String code,
+			Supplier<Optional<OrderDto>> loader) {
+		AtomicReference<CompletableFuture<Entry>> created = new AtomicReference<>();
+		CompletableFuture<Entry> future = cache.get(key, (k, executor) -> {
+			CompletableFuture<Entry> pending = new CompletableFuture<>();
+			created.set(pending);
+			return pending;
+		});
+
+		CompletableFuture<Entry> mine = created.get();
+		if (mine != null) {
+			try {
+				mine.complete(new Entry(loader.get().orElse(null), code));
+			} catch (Throwable ex) {
+				mine.completeExceptionally(ex);
+				throw ex;
+			}
+		}
+
+		try {
+			return future.join();
+		} catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			if (ex.getCause() instanceof Error error) {
+				throw error;
+			}
+			throw ex;
+		}
+	}
+
+	private static <K> AsyncCache<K, Entry> build(long maxSize, Duration ttl, Duration negativeTtl, Ticker ticker) {
+		long ttlNanos = ttl.toNanos();
+		long negativeTtlNanos = negativeTtl.toNanos();
+
+		// Runnable::run: completion bookkeeping (expiry, stats) happens on the
+		// completing thread, no pool threads involved
+		return Caffeine.newBuilder().maximumSize(maxSize).ticker(ticker).executor(Runnable::run).recordStats()
+				.expireAfter(new Expiry<K, Entry>() {
+					@Override
+					public long expireAfterCreate(K key, Entry value, long currentTime) {
+						return value.dto == null ? negativeTtlNanos : ttlNanos;
+					}
+
+					@Override
+					public long expireAfterUpdate(K key, Entry value, long currentTime, long currentDuration) {
+						return expireAfterCreate(key, value, currentTime);
+					}
+
+					@Override
+					public long expireAfterRead(K key, Entry value, long currentTime, long currentDuration) {
+						return currentDuration;
+					}
+				}).buildAsync();
+	}
+
+	private static Map<String, Object> describe(Cache<?, ?> cache) {
+		CacheStats stats = cache.stats();
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("size", cache.estimatedSize());
+		result.put("hits", stats.hitCount());
+		result.put("misses", stats.missCount());
+		result.put("hitRate", stats.hitRate());
+		result.put("evictions", stats.evictionCount());
+		result.put("loads", stats.loadCount());
+		return result;
+	}
+
+	/**
+	 * Cached value; dto == null is a negative entry ("no such order"). code is
+	 * the spelling a by-code entry was loaded for (null by id).
+	 */
+	private static final class Entry {
+
+		final OrderDto dto;
+		final String code;
+
+		Entry(OrderDto dto, String code) {
+			this.dto = dto;
+			this.code = code;
+		}
+
+		Optional<OrderDto> copy() {
+			if (dto == null) {
+				return Optional.empty();
+			}
+			OrderDto copy = new OrderDto();
+			copy.setId(dto.getId());
+			copy.setCode(dto.getCode());
+			copy.setCustomerName(dto.getCustomerName());
+			copy.setTotal(dto.getTotal());
+			copy.setStatus(dto.getStatus());
+			copy.setDescription(dto.getDescription());
+			copy.setCreatedAt(dto.getCreatedAt());
+			copy.setUpdatedAt(dto.getUpdatedAt());
+			copy.setVersion(dto.getVersion());
+			return Optional.of(copy);
+		}
+	}
+}
@@ -0,0 +1,143 @@
+package ch.devprojects.orderflow.service.cache;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Request coalescing: concurrent identical calls share one in-flight
+ * computation.
+ *
+ * Notes: - identical = same operation name + same normalized key (the caller
+ * builds the key from its normalized parameters) - the first caller runs the
+ * computation on its own thread; the others wait for its future (parking, no
+ * monitor held) and get the same result, or the same exception - nothing is
+ * cached: once the computation is done the next call runs a new one - the
+ * result object is shared between the callers, so it must be treated as
+ * read-only - callers should not hold a DB connection while waiting (no
+ * surrounding transaction)
+ *
+ * Metrics: orderflow.singleflight.calls, tagged with operation and outcome
+ * (executed / coalesced).
+ */
+@Component
+public class SingleFlight implements MeterBinder {
+
+	static final String METRIC = "orderflow.singleflight.calls";
+
+	private static final String DESCRIPTION = "Coalescable calls: executed, or coalesced into a running one";
+
+	private final boolean enabled;
+	private final Map<Flight, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+	private final Map<String, Counts> counts = new ConcurrentHashMap<>();
+	private volatile MeterRegistry registry;
+
+	@Autowired
+	public SingleFlight(@Value("${orderflow.singleflight.enabled:true}") boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Coalescing switched off: every call runs the computation.
+	 */
+	public static SingleFlight disabled() {
+		return new SingleFlight(false);
+	}
+
+	/**
+	 * @param operation name of the call, e.g. "analytics.overview" (metric tag)
+	 * @param key       normalized parameters of the call
+	 * @param call      the computation
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T execute(String operation, String key, Supplier<T> call) {
+		if (!enabled) {
+			return call.get();
+		}
+
+		Flight flight = new Flight(operation, key);
+		CompletableFuture<Object> mine = new CompletableFuture<>();
+		CompletableFuture<Object> running = inFlight.putIfAbsent(flight, mine);
+		if (running != null) {
+			counts(operation).coalesced.increment();
+			return (T) join(running);
+		}
+
+		counts(operation).executed.increment();
+		try {
+			T result = call.get();
+			mine.complete(result);
+			return result;
+		} catch (RuntimeException | Error ex) {
+			mine.completeExceptionally(ex);
+			throw ex;
+		} finally {
+			inFlight.remove(flight, mine);
+		}
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.registry = registry;
+		counts.forEach((operation, c) -> c.register(registry, operation));
+	}
+
+	// ----------------- helpers -----------------
+
+	private Counts counts(String operation) {
+		Counts c = counts.get(operation);
+		if (c == null) {
+			c = counts.computeIfAbsent(operation, op -> new Counts());
+			MeterRegistry meterRegistry = registry;
+			if (meterRegistry != null) {
+				c.register(meterRegistry, operation);
+			}
+		}
+		return c;
+	}
+
+	private static Object join(CompletableFuture<Object> future) {
+		try {
+			return future.join();
+		} catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			if (ex.getCause() instanceof Error error) {
+				throw error;
+			}
+			throw ex;
+		}
+	}
+
+	private record Flight(String operation, String key) {
+	}
+
+	private static final class Counts {
+
+		final LongAdder executed = new LongAdder();
+		final LongAdder coalesced = new LongAdder();
+
+		void register(MeterRegistry registry, String operation) {
+			FunctionCounter.builder(METRIC, executed, LongAdder::sum).tag("operation", operation)
+					.tag("outcome", "executed").description(DESCRIPTION).register(registry);
+			FunctionCounter.builder(METRIC, coalesced, LongAdder::sum).tag("operation", operation)
+					.tag("outcome", "coalesced").description(DESCRIPTION).register(registry);
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package ch.devprojects.orderflow.service.event;
+
+/**
+ * Application event published by the order write path (create / update /
+ * delete).
+ *
+ * Contract: - before is null for CREATED - after is null for DELETED - Consumers
+ * should use @TransactionalEventListener (AFTER_COMMIT) so rolled back writes
+ * are never observed.
+ */
+public final class OrderChangedEvent {
+
+	public enum Type {
+		CREATED, UPDATED, DELETED
+	}
+
+	private final Type type;
+	private final OrderSnapshot before;
+	private final OrderSnapshot after;
+
+	private OrderChangedEvent(Type type, OrderSnapshot before, OrderSnapshot after) {
+		this.type = type;
+		this.before = before;
+		this.after = after;
+	}
+
+	public static OrderChangedEvent created(OrderSnapshot after) {
+		return new OrderChangedEvent(Type.CREATED, null, after);
+	}
+
+	public static OrderChangedEvent updated(OrderSnapshot before, OrderSnapshot after) {
+		return new OrderChangedEvent(Type.UPDATED, before, after);
+	}
+
+	public static OrderChangedEvent deleted(OrderSnapshot before) {
+		return new OrderChangedEvent(Type.DELETED, before, null);
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	public OrderSnapshot getBefore() {
+		return before;
+	}
+
+	public OrderSnapshot getAfter() {
+		return after;
+	}
+
+	/**
+	 * Id of the affected order (present for every type).
+	 */
+	public Long getOrderId() {
+		return after != null ? after.getId() : before.getId();
+	}
+}
@@ -0,0 +1,70 @@
+package ch.devprojects.orderflow.service.event;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import ch.devprojects.orderflow.domain.Order;
+import ch.devprojects.orderflow.domain.OrderStatus;
+
+/**
+ * Immutable copy of the persisted state of an {@link Order} at one point in
+ * time.
+ *
+ * Why not pass the entity itself? - Listeners run after commit (possibly on
+ * another thread); a managed entity may already be changed, detached or
+ * lazy-unloadable by then.
+ */
+public final class OrderSnapshot {
+
+	private final Long id;
+	private final String code;
+	private final OrderStatus status;
+	private final BigDecimal total;
+	private final String customerName;
+	private final Instant createdAt;
+	private final Instant updatedAt;
+
+	public OrderSnapshot(Long id, String code, OrderStatus status, BigDecimal total, String customerName,
+			Instant createdAt, Instant updatedAt) {
+		this.id = id;
+		this.code = code;
+		this.status = status;
+		this.total = total;
+		this.customerName = customerName;
+		this.createdAt = createdAt;
+		this.updatedAt = updatedAt;
+	}
+
+	public static OrderSnapshot of(Order order) {
+		return new OrderSnapshot(order.getId(), order.getCode(), order.getStatus(), order.getTotal(),
+				order.getCustomerName(), order.getCreatedAt(), order.getUpdatedAt());
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getCode() {
+		return code;
+	}
+
+	public OrderStatus getStatus() {
+		return status;
+	}
+
+	public BigDecimal getTotal() {
+		return total;
+	}
+
+	public String getCustomerName() {
+		return customerName;
+	}
+
+	public Instant getCreatedAt() {
+		return createdAt;
+	}
+
+	public Instant getUpdatedAt() {
+		return updatedAt;
+	}
+}
@@ -0,0 +1,299 @@
+package ch.devprojects.orderflow.service.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.roaringbitmap.longlong.LongIterator;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ch.devprojects.orderflow.repository.OrderCustomerName;
+import ch.devprojects.orderflow.repository.OrderRepository;
+import ch.devprojects.orderflow.service.event.OrderChangedEvent;
+import ch.devprojects.orderflow.service.event.OrderSnapshot;
+
+/**
+ * In-memory trigram inverted index over orders.customer_name, so the
+ * "customer contains term" filter does not need a LIKE '%term%' table scan.
+ *
+ * Structure: - every lower-cased name is split into overlapping 3-character
+ * trigrams - per trigram a compressed bitmap (Roaring) of the order ids whose
+ * name contains it - the lower-cased name per id, to verify candidates
+ * (matching all trigrams of "abcd" does not imply containing "abcd")
+ *
+ * Lifecycle: - built from the DB (one streamed projection query) when the
+ * application is ready, and rebuilt periodically to pick up writes that bypass
+ * the service layer - updated after every committed {@link OrderChangedEvent};
+ * events arriving during a (re)build are replayed once it is swapped in
+ *
+ * {@link #resolve(String)} answers empty (= use SQL) for terms shorter than 3
+ * characters, before the first build, and when more than "max-ids" orders match
+ * (an IN list that long is no better than the scan).
+ *
+ * Matching is literal: '%' and '_' are plain characters, as in the (escaped)
+ * SQL fallback. Accents are compared exactly, whereas the fallback follows the
+ * column collation (accent-insensitive with MariaDB _ci collations), so "zurich"
+ * finds "Zürich AG" only when it is answered in SQL.
+ */
+@Component
+public class CustomerNameTrigramIndex {
+
+	private static final Logger log = LoggerFactory.getLogger(CustomerNameTrigramIndex.class);
+
+	static final int GRAM = 3;
+
+	private final OrderRepository orderRepository;
+	private final TransactionTemplate readOnlyTx;
+	private final boolean enabled;
+	private final int maxIds;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	// guarded by lock
+	private Map<Long, Roaring64Bitmap> postings = new HashMap<>();
+	private Map<Long, String> names = new HashMap<>();
+	private boolean ready;
+	private List<OrderChangedEvent> pending;
+
+	@Autowired
+	public CustomerNameTrigramIndex(OrderRepository orderRepository, PlatformTransactionManager transactionManager,
+			@Value("${orderflow.search.customer-index.enabled:true}") boolean enabled,
+			@Value("${orderflow.search.customer-index.max-ids:1000}") int maxIds) {
+		this.orderRepository = orderRepository;
+		this.enabled = enabled;
+		this.maxIds = maxIds;
+		this.readOnlyTx = transactionManager == null ? null : new TransactionTemplate(transactionManager);
+		if (readOnlyTx != null) {
+			readOnlyTx.setReadOnly(true);
+		}
+	}
+
+	/**
+	 * Index that never answers: every customer filter stays in SQL.
+	 */
+	public static CustomerNameTrigramIndex disabled() {
+		return new CustomerNameTrigramIndex(null, null, false, 0);
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void build() {
+		if (enabled) {
+			rebuild();
+		}
+	}
+
+	/**
+	 * Reloads all names from the DB into fresh structures and swaps them in.
+	 */
+	@Scheduled(initialDelayString = "${orderflow.search.customer-index.rebuild-interval-ms:3600000}", fixedDelayString = "${orderflow.search.customer-index.rebuild-interval-ms:3600000}")
+	public void rebuild() {
+		if (!enabled) {
+			return;
+		}
+
+		lock.writeLock().lock();
+		try {
+			pending = new ArrayList<>();
+		} finally {
+			lock.writeLock().unlock();
+		}
+
+		long start = System.nanoTime();
+		Map<Long, Roaring64Bitmap> newPostings = new HashMap<>();
+		Map<Long, String> newNames = new HashMap<>();
+		try {
+			readOnlyTx.executeWithoutResult(tx -> {
+				try (Stream<OrderCustomerName> rows = orderRepository.streamCustomerNames()) {
+					rows.forEach(row -> add(newPostings, newNames, row.getId(), row.getCustomerName()));
+				}
+			});
+		} catch (RuntimeException ex) {
+			lock.writeLock().lock();
+			try {
+				pending = null;
+			} finally {
+				lock.writeLock().unlock();
+			}
+			throw ex;
+		}
+
+		lock.writeLock().lock();
+		try {
+			postings = newPostings;
+			names = newNames;
+			for (OrderChangedEvent event : pending) {
+				apply(event);
+			}
+			pending = null;
+			ready = true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+
+		log.info("Customer name index built: {} orders, {} trigrams in {} ms", newNames.size(), newPostings.size(),
+				(System.nanoTime() - start) / 1_000_000);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onOrderChanged(OrderChangedEvent event) {
+		if (!enabled) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			if (pending != null) {
+				pending.add(event);
+			}
+			if (ready) {
+				apply(event);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Search term as matched against the names: trimmed, lower-cased with the root
+	 * locale (the SQL fallback uses the same normalization).
+	 */
+	public static String normalize(String term) {
+		return term.trim().toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Resolves a "customer contains term" filter (case-insensitive) to the exact
+	 * matching order ids.
+	 *
+	 * @return the ids (possibly none), or empty if the index cannot answer and the
+	 *         caller must filter in SQL
+	 */
+	public Optional<List<Long>> resolve(String term) {
+		if (!enabled || term == null) {
+			return Optional.empty();
+		}
+		String needle = normalize(term);
+		if (needle.length() < GRAM) {
+			return Optional.empty();
+		}
+
+		lock.readLock().lock();
+		try {
+			if (!ready) {
+				return Optional.empty();
+			}
+
+			List<Roaring64Bitmap> lists = new ArrayList<>();
+			for (long gram : trigrams(needle)) {
+				Roaring64Bitmap ids = postings.get(gram);
+				if (ids == null) {
+					return Optional.of(List.of());
+				}
+				lists.add(ids);
+			}
+
+			// Smallest posting list first keeps every intersection step cheap
+			lists.sort(Comparator.comparingLong(Roaring64Bitmap::getLongCardinality));
+			Roaring64Bitmap candidates = lists.get(0).clone();
+			for (int i = 1; i < lists.size() && !candidates.isEmpty(); i++) {
+				candidates.and(lists.get(i));
+			}
+
+			List<Long> matches = new ArrayList<>();
+			LongIterator it = candidates.getLongIterator();
+			while (it.hasNext()) {
+				long id = it.next();
+				if (names.get(id).contains(needle)) {
+					if (matches.size() == maxIds) {
+						return Optional.empty();
+					}
+					matches.add(id);
+				}
+			}
+			return Optional.of(matches);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public boolean isReady() {
+		lock.readLock().lock();
+		try {
+			return ready;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// ----------------- helpers -----------------
+
+	private void apply(OrderChangedEvent event) {
+		remove(event.getBefore());
+		remove(event.getAfter());
+		OrderSnapshot after = event.getAfter();
+		if (after != null && after.getId() != null) {
+			add(postings, names, after.getId(), after.getCustomerName());
+		}
+	}
+
+	private void remove(OrderSnapshot order) {
+		if (order == null || order.getId() == null) {
+			return;
+		}
+		String name = names.remove(order.getId());
+		if (name == null) {
+			return;
+		}
+		for (long gram : trigrams(name)) {
+			Roaring64Bitmap ids = postings.get(gram);
+			if (ids != null) {
+				ids.removeLong(order.getId());
+				if (ids.isEmpty()) {
+					postings.remove(gram);
+				}
+			}
+		}
+	}
+
+	private static void add(Map<Long, Roaring64Bitmap> postings, Map<Long, String> names, long id, String name) {
+		if (name == null) {
+			return;
+		}
+		String lower = name.toLowerCase(Locale.ROOT);
+		names.put(id, lower);
+		for (long gram : trigrams(lower)) {
+			postings.computeIfAbsent(gram, key -> new Roaring64Bitmap()).addLong(id);
+		}
+	}
+
+	/**
+	 * Distinct trigrams of an already lower-cased string, each packed into a long
+	 * (3 x 16-bit chars).
+	 */
+	static Set<Long> trigrams(String lower) {
+		Set<Long> grams = new LinkedHashSet<>();
+		for (int i = 0; i + GRAM <= lower.length(); i++) {
+			grams.add(((long) lower.charAt(i) << 32) | ((long) lower.charAt(i + 1) << 16) | lower.charAt(i + 2));
+		}
+		return grams;
+	}
+}
@@ -1,12 +1,17 @@
 package ch.devprojects.orderflow.web;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -16,6 +21,8 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import ch.devprojects.orderflow.diagnostics.ErrorReporter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
@@ -23,19 +30,45 @@ import jakarta.validation.ConstraintViolationException;
 /**
  * Centralized REST exception mapping. IMPORTANT: Only one generic handler for
  * Exception to avoid ambiguity.
+ *
+ * Every mapped exception goes through {@link ErrorReporter}: counted per type,
+ * handler and status; every 5xx is logged, its stack trace sampled per
+ * exception type instead of printed on every occurrence.
  */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+	// Bounds the cause walk (and guards against cyclic cause chains)
+	private static final int MAX_CAUSE_DEPTH = 8;
+
+	private final ErrorReporter errorReporter;
+
+	public GlobalExceptionHandler() {
+		this(ErrorReporter.withoutMetrics());
+	}
+
+	@Autowired
+	public GlobalExceptionHandler(ObjectProvider<MeterRegistry> meterRegistry,
+			@Value("${orderflow.diagnostics.errors.window:1m}") Duration window,
+			@Value("${orderflow.diagnostics.errors.stack-every:100}") long stackEvery) {
+		this(new ErrorReporter(meterRegistry, window, stackEvery));
+	}
+
+	GlobalExceptionHandler(ErrorReporter errorReporter) {
+		this.errorReporter = errorReporter;
+	}
+
 	// 404 – entity not found
 	@ExceptionHandler(EntityNotFoundException.class)
 	public ResponseEntity<ErrorResponse> handleEntityNotFound(EntityNotFoundException ex, HttpServletRequest req) {
+		errorReporter.report(ex, req, HttpStatus.NOT_FOUND.value());
 		return buildError(HttpStatus.NOT_FOUND, "Not Found", ex.getMessage(), req.getRequestURI());
 	}
 
 	// 400 – unreadable/malformed JSON, enum parse errors, etc.
 	@ExceptionHandler(HttpMessageNotReadableException.class)
 	public ResponseEntity<ErrorResponse> handleNotReadable(HttpMessageNotReadableException ex, HttpServletRequest req) {
+		errorReporter.report(ex, req, HttpStatus.BAD_REQUEST.value());
 		return buildError(HttpStatus.BAD_REQUEST, "Bad Request", rootMessage(ex), req.getRequestURI());
 	}
 
@@ -43,6 +76,7 @@ public class GlobalExceptionHandler {
 	@ExceptionHandler(MethodArgumentNotValidException.class)
 	public ResponseEntity<Object> handleMethodArgumentNotValid(MethodArgumentNotValidException ex,
 			HttpServletRequest req) {
+		errorReporter.report(ex, req, HttpStatus.BAD_REQUEST.value());
 		List<Map<String, String>> errors = ex.getBindingResult().getFieldErrors().stream().map(this::fieldErrorToMap)
 				.collect(Collectors.toList());
 
@@ -62,6 +96,7 @@ public class GlobalExceptionHandler {
 	@ExceptionHandler(ConstraintViolationException.class)
 	public ResponseEntity<ErrorResponse> handleConstraintViolation(ConstraintViolationException ex,
 			HttpServletRequest req) {
+		errorReporter.report(ex, req, HttpStatus.BAD_REQUEST.value());
 		return buildError(HttpStatus.BAD_REQUEST, "Validation Failed", ex.getMessage(), req.getRequestURI());
 	}
 
@@ -69,20 +104,30 @@ public class GlobalExceptionHandler {
 	@ExceptionHandler(DataIntegrityViolationException.class)
 	public ResponseEntity<ErrorResponse> handleDataIntegrity(DataIntegrityViolationException ex,
 			HttpServletRequest req) {
+		errorReporter.report(ex, req, HttpStatus.CONFLICT.value());
 		return buildError(HttpStatus.CONFLICT, "Data Integrity Violation", rootMessage(ex), req.getRequestURI());
 	}
 
+	// 409 – concurrent update of the same order (row version changed meanwhile)
+	@ExceptionHandler(OptimisticLockingFailureException.class)
+	public ResponseEntity<ErrorResponse> handleOptimisticLocking(OptimisticLockingFailureException ex,
+			HttpServletRequest req) {
+		errorReporter.report(ex, req, HttpStatus.CONFLICT.value());
+		return buildError(HttpStatus.CONFLICT, "Conflict", "The order was modified concurrently, reload and retry",
+				req.getRequestURI());
+	}
+
 	// 400 – illegal arguments from service layer
 	@ExceptionHandler(IllegalArgumentException.class)
 	public ResponseEntity<ErrorResponse> handleIllegalArgument(IllegalArgumentException ex, HttpServletRequest req) {
+		errorReporter.report(ex, req, HttpStatus.BAD_REQUEST.value());
 		return buildError(HttpStatus.BAD_REQUEST, "Bad Request", ex.getMessage(), req.getRequestURI());
 	}
 
 	// 500 – FINAL CATCH-ALL (single method -> no ambiguity)
 	@ExceptionHandler(Exception.class)
 	public ResponseEntity<ErrorResponse> handleGeneric(Exception ex, HttpServletRequest req) {
-		// During stabilization, keep this log; remove later if too noisy.
-		ex.printStackTrace();
+		errorReporter.report(ex, req, HttpStatus.INTERNAL_SERVER_ERROR.value());
 		return buildError(HttpStatus.INTERNAL_SERVER_ERROR, "Internal Server Error", "Unexpected error",
 				req.getRequestURI());
 	}
@@ -96,7 +141,7 @@ public class GlobalExceptionHandler {
 
 	private String rootMessage(Throwable ex) {
 		Throwable t = ex;
-		while (t.getCause() != null)
+		for (int depth = 0; depth < MAX_CAUSE_DEPTH && t.getCause() != null && t.getCause() != t; depth++)
 			t = t.getCause();
 		return t.getMessage() != null ? t.getMessage() : ex.getMessage();
 	}
@@ -0,0 +1,46 @@
+package ch.devprojects.orderflow.web;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ch.devprojects.orderflow.dto.OrderBatchResponse;
+import ch.devprojects.orderflow.service.OrderImportService;
+
+/**
+ * Bulk import endpoint for orders.
+ *
+ * Exposed endpoint: - POST /api/orders/batch (Content-Type application/json
+ * with a JSON array, or application/x-ndjson with one order per line) -
+ * ?upsert=true (default): an existing code is updated; false: reported as
+ * FAILED
+ *
+ * Notes: - The body is parsed as a stream, element by element; it is never
+ * bound to a List - Always 200 OK with one result per element (see
+ * OrderBatchResponse); elements written before a failing one stay written
+ */
+@RestController
+@RequestMapping("/api/orders/batch")
+public class OrderBatchController {
+
+	private final OrderImportService orderImportService;
+	private final ObjectMapper objectMapper;
+
+	public OrderBatchController(OrderImportService orderImportService, ObjectMapper objectMapper) {
+		this.orderImportService = orderImportService;
+		this.objectMapper = objectMapper;
+	}
+
+	@PostMapping(consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+	public OrderBatchResponse importOrders(InputStream body, @RequestParam(defaultValue = "true") boolean upsert)
+			throws IOException {
+		return orderImportService.importOrders(new OrderBatchReader(objectMapper, body), upsert);
+	}
+}
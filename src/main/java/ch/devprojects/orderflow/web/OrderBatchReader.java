@@ -0,0 +1,84 @@
+package ch.devprojects.orderflow.web;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ch.devprojects.orderflow.dto.OrderDto;
+
+/**
+ * Pull-parses the body of POST /api/orders/batch one element at a time.
+ *
+ * Accepted bodies: - a JSON array of orders ([{...}, {...}]) - NDJSON, i.e.
+ * whitespace/newline separated order objects
+ *
+ * Errors: - an element that is valid JSON but not an order object (e.g. 42,
+ * "x", null, [...]) or cannot be bound to OrderDto (e.g. "total": "abc") fails
+ * only that element - broken JSON fails the current element and ends the
+ * stream (the parser cannot resynchronize)
+ */
+class OrderBatchReader implements Iterator<OrderDto> {
+
+	private final ObjectMapper objectMapper;
+	private final JsonParser parser;
+	private final boolean array;
+
+	private JsonToken next;
+	private boolean broken;
+
+	OrderBatchReader(ObjectMapper objectMapper, InputStream body) throws IOException {
+		this.objectMapper = objectMapper;
+		this.parser = objectMapper.getFactory().createParser(body);
+
+		this.next = parser.nextToken();
+		this.array = next == JsonToken.START_ARRAY;
+		if (array) {
+			this.next = parser.nextToken();
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (broken || next == null) {
+			return false;
+		}
+		return !(array && next == JsonToken.END_ARRAY);
+	}
+
+	@Override
+	public OrderDto next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		JsonNode node;
+		try {
+			// any value is read whole, so the next element starts cleanly
+			node = parser.readValueAsTree();
+			next = parser.nextToken();
+		} catch (IOException ex) {
+			broken = true;
+			throw new IllegalArgumentException("malformed JSON: " + message(ex), ex);
+		}
+
+		if (node == null || !node.isObject()) {
+			throw new IllegalArgumentException("invalid order: element must be a JSON object");
+		}
+		try {
+			return objectMapper.treeToValue(node, OrderDto.class);
+		} catch (JsonProcessingException ex) {
+			throw new IllegalArgumentException("invalid order: " + message(ex), ex);
+		}
+	}
+
+	private static String message(Exception ex) {
+		return (ex instanceof JsonProcessingException jpe) ? jpe.getOriginalMessage() : ex.getMessage();
+	}
+}
@@ -1,17 +1,41 @@
 package ch.devprojects.orderflow.web;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.time.Instant;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
 import ch.devprojects.orderflow.dto.OrderDto;
+import ch.devprojects.orderflow.dto.OrdersCursorResponse;
+import ch.devprojects.orderflow.service.CountMode;
+import ch.devprojects.orderflow.service.OrderFields;
+import ch.devprojects.orderflow.service.OrderNotFoundException;
+import ch.devprojects.orderflow.service.OrderQueryService;
 import ch.devprojects.orderflow.service.OrderService;
+import ch.devprojects.orderflow.service.cache.OrderDataVersion;
 
 /**
  * REST controller for core Order CRUD endpoints.
@@ -22,61 +46,148 @@ import ch.devprojects.orderflow.service.OrderService;
  *   MethodArgumentTypeMismatchException (String "search" -> Long).
  * - To avoid that, we provide an explicit /search mapping AND we constrain {id}
  *   to digits only.
+ * - GET endpoints answer If-None-Match with 304 (see OrderDataVersion):
+ *   single orders (by id or code) carry a strong ETag from id + row version
+ *   (@Version, see OrderDataVersion#etagOf); lists and pages the validator of
+ *   all rows (OrderQueryService#etag, one aggregate query, or the in-memory
+ *   write version where enabled), checked before the query runs.
+ * - Unknown ids/codes on the GET endpoints answer 404 straight from the
+ *   service's Optional (no exception, no @ExceptionHandler dispatch); the body
+ *   is the same ErrorResponse GlobalExceptionHandler builds.
  */
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderQueryService orderQueryService;
+    private final ObjectMapper objectMapper;
+    private final OrderDataVersion orderDataVersion;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, OrderQueryService orderQueryService, ObjectMapper objectMapper,
+            OrderDataVersion orderDataVersion) {
         this.orderService = Objects.requireNonNull(orderService, "orderService must not be null");
+        this.orderQueryService = Objects.requireNonNull(orderQueryService, "orderQueryService must not be null");
+        this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper must not be null");
+        this.orderDataVersion = Objects.requireNonNull(orderDataVersion, "orderDataVersion must not be null");
     }
 
     /**
      * Get all orders (simple list).
+     *
+     * Returns 304 (only the validator query, no list query, no serialization)
+     * if nothing was written since the client's ETag.
      */
     @GetMapping
-    public List<OrderDto> getAll() {
+    public List<OrderDto> getAll(WebRequest request) {
+        if (request.checkNotModified(orderDataVersion.listEtag(this::allOrdersEtag))) {
+            return null;
+        }
         return orderService.findAll();
     }
 
+    /**
+     * Streaming variant of GET /api/orders, selected by the stream param:
+     * GET /api/orders?stream=json    -> JSON array, written row by row
+     * GET /api/orders?stream=ndjson  -> application/x-ndjson (one order per line)
+     *
+     * Notes:
+     * - Rows come from a DB cursor and are written straight to the response;
+     *   neither a List<Order> nor a List<OrderDto> is ever built.
+     * - The body is gzip-compressed if Accept-Encoding allows gzip with q > 0
+     *   (see acceptsGzip).
+     */
+    @GetMapping(params = "stream")
+    public ResponseEntity<StreamingResponseBody> streamAll(
+            @RequestParam String stream,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        String mode = stream.trim();
+        boolean ndjson = "ndjson".equalsIgnoreCase(mode);
+        if (!ndjson && !"json".equalsIgnoreCase(mode)) {
+            throw new IllegalArgumentException("stream must be 'json' or 'ndjson'");
+        }
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        StreamingResponseBody body = out -> writeOrders(gzip ? new GZIPOutputStream(out, 8192) : out, ndjson);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
     /**
      * Paged list endpoint used by the Angular frontend:
      * GET /api/orders/search?page=0&size=5
      *
      * Implementation note:
-     * - We keep it backend-safe and minimal for now by paging in memory using findAll().
-     * - Later we can replace this with a real repository/page query without changing the URL.
+     * - Paging happens in the database (LIMIT/OFFSET + COUNT), ordered by
+     *   createdAt DESC, id DESC.
+     * - size is clamped to 1..OrderQueryService.MAX_PAGE_SIZE.
+     * - The JSON shape is still Spring's Page (unchanged for the frontend).
+     * - countMode=exact|none|cached|window (default exact) picks how the total
+     *   is obtained; "none" skips the COUNT and returns a Slice without
+     *   totalElements/totalPages (see CountMode).
+     * - fields=code,status,total (or "summary") selects only those columns in
+     *   SQL; content items then carry only those properties (see OrderFields).
      */
     @GetMapping("/search")
-    public Page<OrderDto> search(
+    public Slice<?> search(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String countMode,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
 
-        if (page < 0) {
-            page = 0;
+        CountMode mode = CountMode.from(countMode);
+        List<String> selected = OrderFields.parse(fields);
+        if (request.checkNotModified(orderDataVersion.listEtag(this::allOrdersEtag))) {
+            return null;
         }
-        if (size < 1) {
-            size = 1;
-        }
-
-        List<OrderDto> all = orderService.findAll();
 
-        int fromIndex = Math.min(page * size, all.size());
-        int toIndex = Math.min(fromIndex + size, all.size());
+        int safeSize = Math.min(OrderQueryService.MAX_PAGE_SIZE, Math.max(1, size));
+        PageRequest pageable = PageRequest.of(Math.max(0, page), safeSize,
+                Sort.by(Sort.Direction.DESC, "createdAt", "id"));
 
-        List<OrderDto> content = all.subList(fromIndex, toIndex);
+        if (selected != null) {
+            return orderQueryService.searchFields(null, null, null, null, null, null, pageable, mode, selected);
+        }
+        return orderQueryService.search(null, null, null, null, null, null, pageable, mode);
+    }
 
-        return new PageImpl<>(content, PageRequest.of(page, size), all.size());
+    /**
+     * Keyset variant of /search, selected by the presence of the cursor param:
+     * GET /api/orders/search?cursor=&size=20            (first page)
+     * GET /api/orders/search?cursor=<nextCursor>&size=20 (following pages)
+     *
+     * Deep pages cost the same as the first one (no OFFSET, no COUNT).
+     */
+    @GetMapping(value = "/search", params = "cursor")
+    public OrdersCursorResponse searchByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return orderQueryService.findOrdersAfter(cursor, size);
     }
 
     /**
      * Lookup an order by its business code.
+     *
+     * Same representation (and ETag) as GET /api/orders/{id}.
      */
     @GetMapping("/code/{code}")
-    public OrderDto getByCode(@PathVariable String code) {
-        return orderService.findByCode(code);
+    public ResponseEntity<?> getByCode(@PathVariable String code, WebRequest request) {
+        Optional<OrderDto> order = orderService.lookupByCode(code);
+        if (order.isEmpty()) {
+            return notFound(OrderNotFoundException.messageForCode(code.trim()), request);
+        }
+        if (request.checkNotModified(OrderDataVersion.etagOf(order.get()))) {
+            return null;
+        }
+        return ResponseEntity.ok(order.get());
     }
 
     /**
@@ -84,10 +195,19 @@ public class OrderController {
      *
      * Important:
      * - Constrain {id} to digits only, so "/search" can never be treated as an id.
+     * - The order usually comes from OrderLookupCache, so a 304 costs neither a
+     *   query nor mapping nor serialization.
      */
     @GetMapping("/{id:\\d+}")
-    public OrderDto getOne(@PathVariable Long id) {
-        return orderService.findById(id);
+    public ResponseEntity<?> getOne(@PathVariable Long id, WebRequest request) {
+        Optional<OrderDto> order = orderService.lookupById(id);
+        if (order.isEmpty()) {
+            return notFound(OrderNotFoundException.messageForId(id), request);
+        }
+        if (request.checkNotModified(OrderDataVersion.etagOf(order.get()))) {
+            return null;
+        }
+        return ResponseEntity.ok(order.get());
     }
 
     /**
@@ -124,4 +244,98 @@ public class OrderController {
         orderService.delete(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    // ----------------- helpers -----------------
+
+    /**
+     * Validator of the unfiltered order list (getAll and every /search page).
+     */
+    private String allOrdersEtag() {
+        return orderQueryService.etag(null, null, null, null, null, null);
+    }
+
+    /**
+     * 404 with the body GlobalExceptionHandler would build for an
+     * EntityNotFoundException, without creating one.
+     */
+    static ResponseEntity<ErrorResponse> notFound(String message, WebRequest request) {
+        String path = request instanceof ServletWebRequest servlet ? servlet.getRequest().getRequestURI() : null;
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new ErrorResponse(Instant.now(), HttpStatus.NOT_FOUND.value(), "Not Found", message, path));
+    }
+
+    /**
+     * True if the Accept-Encoding header allows gzip (RFC 9110, 12.5.3).
+     *
+     * Notes:
+     * - "gzip" (or its alias "x-gzip") with its q-value decides; "gzip;q=0"
+     *   refuses gzip, even when "*" is also listed.
+     * - Without an explicit gzip entry, "*" with q > 0 allows it.
+     * - A malformed q-value counts as q=0.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return false;
+        }
+        double gzipQ = -1;
+        double wildcardQ = -1;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.length() > 1 && Character.toLowerCase(param.charAt(0)) == 'q' && param.charAt(1) == '=') {
+                    q = qValue(param.substring(2).trim());
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQ = Math.max(gzipQ, q);
+            } else if (coding.equals("*")) {
+                wildcardQ = Math.max(wildcardQ, q);
+            }
+        }
+        return gzipQ >= 0 ? gzipQ > 0 : wildcardQ > 0;
+    }
+
+    private static double qValue(String value) {
+        try {
+            double q = Double.parseDouble(value);
+            return q >= 0 && q <= 1 ? q : 0;
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
+    }
+
+    /**
+     * Writes every order as it is read from the DB. Closing the generator closes
+     * (and for gzip: finishes) the target stream.
+     */
+    private void writeOrders(OutputStream out, boolean ndjson) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(OrderDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            // NDJSON uses '\n' between root values instead of Jackson's default ' '
+            gen.setRootValueSeparator(null);
+            if (!ndjson) {
+                gen.writeStartArray();
+            }
+
+            orderService.streamAll(dto -> {
+                try {
+                    writer.writeValue(gen, dto);
+                    if (ndjson) {
+                        gen.writeRaw('\n');
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+
+            if (!ndjson) {
+                gen.writeEndArray();
+            }
+        }
+    }
+}
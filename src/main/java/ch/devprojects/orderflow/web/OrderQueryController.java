@@ -1,19 +1,23 @@
 package ch.devprojects.orderflow.web;
 
 import java.math.BigDecimal;
+import java.util.List;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import ch.devprojects.orderflow.domain.OrderStatus;
-import ch.devprojects.orderflow.dto.OrderDto;
+import ch.devprojects.orderflow.service.CountMode;
+import ch.devprojects.orderflow.service.OrderFields;
 import ch.devprojects.orderflow.service.OrderQueryService;
+import ch.devprojects.orderflow.service.cache.OrderDataVersion;
 
 /**
  * Advanced query endpoints.
@@ -27,25 +31,50 @@ import ch.devprojects.orderflow.service.OrderQueryService;
 public class OrderQueryController {
 
 	private final OrderQueryService orderQueryService;
+	private final OrderDataVersion orderDataVersion;
 
-	public OrderQueryController(OrderQueryService orderQueryService) {
+	public OrderQueryController(OrderQueryService orderQueryService, OrderDataVersion orderDataVersion) {
 		this.orderQueryService = orderQueryService;
+		this.orderDataVersion = orderDataVersion;
 	}
 
 	/**
 	 * Advanced search (paged + many optional filters).
 	 *
 	 * GET
-	 * /api/orders/query?customer=...&status=...&page=0&size=20&codeFrom=...&codeTo=...&totalMin=...&totalMax=...
+	 * /api/orders/query?customer=...&status=...&page=0&size=20&codeFrom=...&codeTo=...&totalMin=...&totalMax=...&countMode=...
+	 *
+	 * countMode: exact (default), none, cached or window; see CountMode.
+	 *
+	 * fields: optional sparse fieldset, e.g. fields=code,customerName,status,total
+	 * (or "summary"); only those columns are selected and serialized.
+	 *
+	 * Conditional: the ETag is the validator of the filtered rows
+	 * (OrderQueryService#etag, or the in-memory write version, see
+	 * OrderDataVersion); a matching If-None-Match returns 304 before the page
+	 * query and DTO mapping run.
 	 */
 	@GetMapping
-	public Page<OrderDto> search(@RequestParam(required = false) String customer,
+	public Slice<?> search(@RequestParam(required = false) String customer,
 			@RequestParam(required = false) OrderStatus status, @RequestParam(defaultValue = "0") int page,
 			@RequestParam(defaultValue = "20") int size, @RequestParam(required = false) String codeFrom,
 			@RequestParam(required = false) String codeTo, @RequestParam(required = false) BigDecimal totalMin,
-			@RequestParam(required = false) BigDecimal totalMax) {
+			@RequestParam(required = false) BigDecimal totalMax, @RequestParam(required = false) String countMode,
+			@RequestParam(required = false) String fields, WebRequest request) {
+
+		CountMode mode = CountMode.from(countMode);
+		List<String> selected = OrderFields.parse(fields);
+		if (request.checkNotModified(orderDataVersion.listEtag(
+				() -> orderQueryService.etag(customer, status, codeFrom, codeTo, totalMin, totalMax)))) {
+			return null;
+		}
 
-		Pageable pageable = PageRequest.of(Math.max(0, page), Math.max(1, size));
-		return orderQueryService.search(customer, status, codeFrom, codeTo, totalMin, totalMax, pageable);
+		Pageable pageable = PageRequest.of(Math.max(0, page),
+				Math.min(OrderQueryService.MAX_PAGE_SIZE, Math.max(1, size)));
+		if (selected != null) {
+			return orderQueryService.searchFields(customer, status, codeFrom, codeTo, totalMin, totalMax, pageable, mode,
+					selected);
+		}
+		return orderQueryService.search(customer, status, codeFrom, codeTo, totalMin, totalMax, pageable, mode);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package ch.devprojects.orderflow.web;
+
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import ch.devprojects.orderflow.dto.OrderStatusTransitionRequest;
+import ch.devprojects.orderflow.dto.OrderStatusTransitionResponse;
+import ch.devprojects.orderflow.service.OrderStatusTransitionService;
+
+/**
+ * Bulk status changes.
+ *
+ * Exposed endpoint: - POST /api/orders/status-transitions, e.g. {"targetStatus":
+ * "SHIPPED", "fromStatus": "PAID", "ids": [1, 2, 3]} or {"targetStatus":
+ * "CANCELLED", "filter": {"customer": "acme", "totalMax": 10}}
+ *
+ * Returns the affected counts (see OrderStatusTransitionResponse); invalid
+ * requests are rejected with 400 by GlobalExceptionHandler.
+ */
+@RestController
+@RequestMapping("/api/orders/status-transitions")
+public class OrderStatusTransitionController {
+
+	private final OrderStatusTransitionService orderStatusTransitionService;
+
+	public OrderStatusTransitionController(OrderStatusTransitionService orderStatusTransitionService) {
+		this.orderStatusTransitionService = orderStatusTransitionService;
+	}
+
+	@PostMapping
+	public OrderStatusTransitionResponse transition(@RequestBody OrderStatusTransitionRequest request) {
+		return orderStatusTransitionService.transition(request);
+	}
+}
@@ -0,0 +1,12 @@
+-- V10__add_order_version.sql
+-- Row version of an order (@Version on Order), incremented by every write that
+-- goes through JPA, including the bulk status UPDATE of OrderRepository.
+--
+-- Used for the strong ETag of GET /api/orders/{id} and /code/{code}
+-- ("o<id>.<version>", OrderDataVersion#etagOf): every committed write yields a
+-- new tag, however close together the writes are. Also gives optimistic
+-- locking on concurrent updates of one order (409).
+--
+-- Existing rows start at 0.
+
+ALTER TABLE orders ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
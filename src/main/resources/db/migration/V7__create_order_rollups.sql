@@ -0,0 +1,21 @@
+-- V7__create_order_rollups.sql
+-- Pre-aggregated order counts / revenue per time bucket and status.
+--
+-- granularity:  HOUR, DAY or MONTH (bucket_start is the UTC start of the bucket)
+-- Rows are maintained by the application (write path + scheduled catch-up);
+-- they can always be rebuilt from the orders table.
+--
+-- bucket_start is DATETIME(6), not TIMESTAMP: on MariaDB the first TIMESTAMP
+-- column of a table implicitly gets DEFAULT CURRENT_TIMESTAMP ON UPDATE
+-- CURRENT_TIMESTAMP (explicit_defaults_for_timestamp=OFF), which would move a
+-- row out of its bucket on every UPDATE of order_count/revenue. DATETIME is
+-- also not converted to the session time zone and has no 2038 limit.
+
+CREATE TABLE IF NOT EXISTS order_rollups (
+    granularity   VARCHAR(8)     NOT NULL,
+    bucket_start  DATETIME(6)    NOT NULL,
+    status        VARCHAR(16)    NOT NULL,
+    order_count   BIGINT         NOT NULL,
+    revenue       DECIMAL(18,2)  NOT NULL,
+    PRIMARY KEY (granularity, bucket_start, status)
+);
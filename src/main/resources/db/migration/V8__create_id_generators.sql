@@ -0,0 +1,31 @@
+-- V8__create_id_generators.sql
+-- Pooled id generator for orders.id (see @TableGenerator on Order).
+--
+-- Why: with AUTO_INCREMENT (GenerationType.IDENTITY) Hibernate must run every
+-- INSERT on its own to read the generated key, which disables JDBC batching.
+-- With a pooled table generator the application reserves 50 ids per round trip
+-- and can batch the INSERTs.
+--
+-- next_val is the upper end of the next block handed out (Hibernate "pooled"
+-- optimizer), so it is seeded one full block above the current max(id).
+--
+-- orders.id still has its AUTO_INCREMENT default (no portable way to drop it
+-- in H2 and MariaDB), but plain-SQL inserts must NOT rely on it: AUTO_INCREMENT
+-- continues right after the highest id the application inserted, i.e. inside
+-- the block the application is still handing out, and the next application
+-- insert fails with a duplicate key. Plain SQL reserves its ids here instead:
+--
+--   UPDATE id_generators SET next_val = next_val + <rows> + 50 WHERE name = 'orders';
+--   SET @base = (SELECT next_val - <rows> - 50 FROM id_generators WHERE name = 'orders');
+--   INSERT INTO orders (id, ...) VALUES (@base + 1, ...), (@base + 2, ...), ...
+--
+-- The ids @base+1 .. @base+<rows> lie above every block handed out so far and
+-- below the next one (see sql-scripts/dev/orderflow-dev-reset-and-seed.sql).
+
+CREATE TABLE IF NOT EXISTS id_generators (
+    name      VARCHAR(64)  NOT NULL PRIMARY KEY,
+    next_val  BIGINT       NOT NULL
+);
+
+INSERT INTO id_generators (name, next_val)
+SELECT 'orders', COALESCE(MAX(id), 0) + 51 FROM orders;
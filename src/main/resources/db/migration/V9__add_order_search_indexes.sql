@@ -0,0 +1,20 @@
+-- V9__add_order_search_indexes.sql
+-- Secondary indexes matched to the filter/sort shapes of OrderQueryServiceImpl
+-- (buildSpec + ALLOWED_SORT_FIELDS), the keyset pages and the analytics range
+-- queries. Guarded by OrderQueryPlanTest, which EXPLAINs every shape.
+--
+-- created_at, id       default page order "createdAt DESC, id DESC", keyset
+--                      cursor predicate, analytics/rollup createdAt ranges
+-- status, created_at   status filter (alone or with the default order)
+-- total                totalMin/totalMax range and sort by total
+-- customer_name        sort by customerName
+-- updated_at           sort by updatedAt
+--
+-- code already has the unique index from V1 (codeFrom/codeTo range, sort by
+-- code). The customer filter is a LIKE '%x%' that no B-tree index can serve.
+
+CREATE INDEX idx_orders_created_at ON orders (created_at, id);
+CREATE INDEX idx_orders_status_created_at ON orders (status, created_at, id);
+CREATE INDEX idx_orders_total ON orders (total);
+CREATE INDEX idx_orders_customer_name ON orders (customer_name);
+CREATE INDEX idx_orders_updated_at ON orders (updated_at);
@@ -0,0 +1,167 @@
+package ch.devprojects.orderflow.analytics.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ch.devprojects.orderflow.analytics.dto.AnalyticsOverviewDto;
+import ch.devprojects.orderflow.service.cache.OrderDataVersion;
+
+/**
+ * Unit tests for {@link AnalyticsOverviewCache} (fake ticker, no Spring
+ * context).
+ */
+class AnalyticsOverviewCacheTest {
+
+	private final AtomicLong nanos = new AtomicLong();
+	private final AtomicInteger loads = new AtomicInteger();
+	private final OrderDataVersion dataVersion = new OrderDataVersion();
+
+	private AnalyticsOverviewCache cache;
+
+	@BeforeEach
+	void setUp() {
+		cache = new AnalyticsOverviewCache(dataVersion, true, 100, Duration.ofMinutes(5), Duration.ofMinutes(30),
+				Duration.ofMinutes(1), 2, Runnable::run, nanos::get);
+	}
+
+	@Test
+	@DisplayName("get should serve the snapshot until maxStaleness is exceeded")
+	void get_shouldServeSnapshotWithinMaxStaleness() {
+		assertThat(cache.get("k", null, this::load).getTotalOrders()).isEqualTo(1);
+		advance(Duration.ofMinutes(4));
+
+		assertThat(cache.get("k", null, this::load).getTotalOrders()).isEqualTo(1);
+		assertThat(cache.get("k", Duration.ofMinutes(15), this::load).getTotalOrders()).isEqualTo(1);
+		assertThat(cache.get("k", Duration.ofMinutes(1), this::load).getTotalOrders()).isEqualTo(2);
+		assertThat(cache.get("k", Duration.ZERO, this::load).getTotalOrders()).isEqualTo(2);
+		assertThat(cache.get("other", null, this::load).getTotalOrders()).isEqualTo(3);
+	}
+
+	@Test
+	@DisplayName("refreshStale should recompute snapshots after writes or max-age, callers never wait")
+	void refreshStale_shouldRecomputeAfterWritesOrMaxAge() {
+		cache.get("k", null, this::load);
+		assertThat(cache.refreshStale()).isZero();
+
+		dataVersion.onOrderChanged(null);
+		assertThat(cache.refreshStale()).isEqualTo(1);
+		assertThat(cache.refreshStale()).isZero();
+		assertThat(cache.get("k", null, v -> {
+			throw new AssertionError("must not compute");
+		}).getTotalOrders()).isEqualTo(2);
+
+		advance(Duration.ofMinutes(4));
+		cache.get("k", null, this::load);
+		advance(Duration.ofMinutes(1));
+		assertThat(cache.refreshStale()).isEqualTo(1);
+		assertThat(loads).hasValue(3);
+	}
+
+	@Test
+	@DisplayName("refreshStale should only refresh recently read snapshots, most recent first, capped per run")
+	void refreshStale_shouldRefreshRecentlyReadOnly() {
+		cache.get("old", null, this::load);
+		advance(Duration.ofMinutes(2));
+		cache.get("a", null, this::load);
+		advance(Duration.ofSeconds(1));
+		cache.get("b", null, this::load);
+		advance(Duration.ofSeconds(1));
+		cache.get("c", null, this::load);
+		dataVersion.onOrderChanged(null);
+
+		// "old" was read 2 minutes ago (window 1m); cap 2: c and b
+		assertThat(cache.refreshStale()).isEqualTo(2);
+		assertThat(cache.get("c", null, this::load).getTotalOrders()).isGreaterThan(4);
+		assertThat(cache.get("b", null, this::load).getTotalOrders()).isGreaterThan(4);
+		assertThat(cache.refreshStale()).isEqualTo(1);
+		assertThat(cache.refreshStale()).isZero();
+		assertThat(loads).hasValue(7);
+	}
+
+	@Test
+	@DisplayName("a stale snapshot read after a quiet period should be served and refreshed in the background")
+	void get_staleAfterQuietPeriod_shouldServeAndScheduleRefresh() {
+		List<Runnable> submitted = new ArrayList<>();
+		AnalyticsOverviewCache queued = new AnalyticsOverviewCache(dataVersion, true, 100, Duration.ofMinutes(5),
+				Duration.ofMinutes(30), Duration.ofMinutes(1), 8, submitted::add, nanos::get);
+		queued.get("k", null, this::load);
+		advance(Duration.ofMinutes(2));
+		dataVersion.onOrderChanged(null);
+		assertThat(queued.refreshStale()).isZero();
+
+		assertThat(queued.get("k", null, v -> {
+			throw new AssertionError("must not compute");
+		}).getTotalOrders()).isEqualTo(1);
+		assertThat(submitted).hasSize(1);
+
+		submitted.get(0).run();
+		assertThat(queued.get("k", null, this::load).getTotalOrders()).isEqualTo(2);
+		assertThat(submitted).hasSize(1);
+	}
+
+	@Test
+	@DisplayName("scheduleRefresh should run the refresh on the refresh executor, one run at a time")
+	void scheduleRefresh_shouldUseOwnExecutor() {
+		List<Runnable> submitted = new ArrayList<>();
+		AnalyticsOverviewCache queued = new AnalyticsOverviewCache(dataVersion, true, 100, Duration.ofMinutes(5),
+				Duration.ofMinutes(30), Duration.ofMinutes(1), 8, submitted::add, nanos::get);
+		queued.get("k", null, this::load);
+		dataVersion.onOrderChanged(null);
+
+		queued.scheduleRefresh();
+		queued.scheduleRefresh();
+		assertThat(submitted).hasSize(1);
+		assertThat(loads).hasValue(1);
+
+		submitted.get(0).run();
+		assertThat(loads).hasValue(2);
+		queued.scheduleRefresh();
+		assertThat(submitted).hasSize(2);
+	}
+
+	@Test
+	@DisplayName("a failed refresh should keep the previous snapshot")
+	void refreshStale_shouldKeepSnapshotOnFailure() {
+		AtomicInteger calls = new AtomicInteger();
+		cache.get("k", null, v -> {
+			if (calls.incrementAndGet() > 1) {
+				throw new IllegalStateException("db down");
+			}
+			return load(v);
+		});
+		dataVersion.onOrderChanged(null);
+
+		assertThat(cache.refreshStale()).isZero();
+		assertThat(cache.get("k", null, this::load).getTotalOrders()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("disabled cache should always compute")
+	void disabled_shouldAlwaysCompute() {
+		AnalyticsOverviewCache disabled = AnalyticsOverviewCache.disabled();
+		disabled.get("k", null, this::load);
+		disabled.get("k", null, this::load);
+
+		assertThat(loads).hasValue(2);
+		assertThat(disabled.refreshStale()).isZero();
+	}
+
+	private AnalyticsOverviewDto load(long version) {
+		AnalyticsOverviewDto dto = new AnalyticsOverviewDto();
+		dto.setTotalOrders(loads.incrementAndGet());
+		return dto;
+	}
+
+	private void advance(Duration duration) {
+		nanos.addAndGet(duration.toNanos());
+	}
+}
@@ -2,30 +2,58 @@ package ch.devprojects.orderflow.analytics.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import ch.devprojects.orderflow.analytics.dto.AnalyticsOverviewDto;
+import ch.devprojects.orderflow.analytics.dto.StatusBreakdownDto;
 import ch.devprojects.orderflow.domain.Order;
 import ch.devprojects.orderflow.domain.OrderStatus;
 import ch.devprojects.orderflow.repository.OrderRepository;
+import ch.devprojects.orderflow.repository.OrderStatusTotals;
+import ch.devprojects.orderflow.service.cache.OrderDataVersion;
+import ch.devprojects.orderflow.service.cache.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 /**
  * Unit tests for {@link AnalyticsServiceImpl}.
  *
  * Goal: - Verify that the service correctly aggregates order data into
- * {@link AnalyticsOverviewDto} based on the list of orders returned by
- * {@link OrderRepository}.
+ * {@link AnalyticsOverviewDto} based on the per-status totals returned by
+ * {@link OrderRepository#aggregateByStatus}. - The repository stub groups a
+ * small in-memory list of orders the same way the SQL query does.
  *
  * NOTE: - We use pure unit tests with Mockito (no Spring context).
  */
@@ -35,6 +63,18 @@ class AnalyticsServiceImplTest {
 	@Mock
 	private OrderRepository orderRepository;
 
+	/**
+	 * Not ready (mock default false) -> the service uses the SQL aggregate.
+	 */
+	@Mock
+	private LiveOrderAnalytics liveOrderAnalytics;
+
+	@Spy
+	private AnalyticsOverviewCache overviewCache = AnalyticsOverviewCache.disabled();
+
+	@Spy
+	private SingleFlight singleFlight = SingleFlight.disabled();
+
 	@InjectMocks
 	private AnalyticsServiceImpl analyticsService;
 
@@ -64,8 +104,8 @@ class AnalyticsServiceImplTest {
 
 		List<Order> orders = Arrays.asList(o1, o2, o3);
 
-		// Repository returns our in-memory orders
-		when(orderRepository.findAll()).thenReturn(orders);
+		// Repository returns our in-memory orders, grouped by status like the SQL
+		when(orderRepository.aggregateByStatus(isNull(), isNull(), isNull())).thenReturn(groupByStatus(orders));
 
 		// ---------------------------------------------------------------------
 		// Act: call the service
@@ -114,8 +154,8 @@ class AnalyticsServiceImplTest {
 	@Test
 	@DisplayName("getOverview should handle empty order list gracefully")
 	void getOverview_shouldHandleEmptyList() {
-		// Arrange: repository returns an empty list
-		when(orderRepository.findAll()).thenReturn(List.of());
+		// Arrange: repository returns no groups at all
+		when(orderRepository.aggregateByStatus(isNull(), isNull(), isNull())).thenReturn(List.of());
 
 		// Act
 		AnalyticsOverviewDto overview = analyticsService.getOverview();
@@ -132,4 +172,182 @@ class AnalyticsServiceImplTest {
 
 		assertNotNull(overview.getGeneratedAt(), "generatedAt should not be null even for empty list");
 	}
-}
\ No newline at end of file
+
+	@Test
+	@DisplayName("getOverview should list every status in the breakdown")
+	void getOverview_shouldReturnBreakdownForEveryStatus() {
+		when(orderRepository.aggregateByStatus(isNull(), isNull(), isNull()))
+				.thenReturn(List.of(totals(OrderStatus.PAID, 2, "30.00"), totals(OrderStatus.SHIPPED, 1, "5.00")));
+
+		AnalyticsOverviewDto overview = analyticsService.getOverview();
+
+		List<StatusBreakdownDto> breakdown = overview.getStatusBreakdown();
+		assertEquals(OrderStatus.values().length, breakdown.size(), "one entry per status");
+
+		StatusBreakdownDto paid = breakdown.get(OrderStatus.PAID.ordinal());
+		assertEquals("PAID", paid.getStatus());
+		assertEquals(2L, paid.getOrders());
+		assertEquals(0, new BigDecimal("30.00").compareTo(paid.getRevenue()));
+
+		StatusBreakdownDto cancelled = breakdown.get(OrderStatus.CANCELLED.ordinal());
+		assertEquals(0L, cancelled.getOrders());
+		assertEquals(0, BigDecimal.ZERO.compareTo(cancelled.getRevenue()));
+
+		// PAID + SHIPPED are both "open"
+		assertEquals(3L, overview.getOpenOrders());
+	}
+
+	@Test
+	@DisplayName("getOverview filters should be pushed down to the repository query")
+	void getOverview_shouldPassFiltersToRepository() {
+		Instant from = Instant.parse("2025-01-01T00:00:00Z");
+		Instant to = Instant.parse("2025-02-01T00:00:00Z");
+		when(orderRepository.aggregateByStatus(from, to, "%muster%")).thenReturn(List.of());
+
+		analyticsService.getOverview(from, to, "  Muster ");
+
+		verify(orderRepository).aggregateByStatus(from, to, "%muster%");
+	}
+
+	@Test
+	@DisplayName("getOverview should escape LIKE wildcards and lower-case independently of the default locale")
+	void getOverview_shouldEscapeCustomerPattern() {
+		Locale defaultLocale = Locale.getDefault();
+		Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+		try {
+			when(orderRepository.aggregateByStatus(null, null, "%100!%!_sure inc%")).thenReturn(List.of());
+
+			analyticsService.getOverview(null, null, " 100%_SURE INC ");
+
+			verify(orderRepository).aggregateByStatus(null, null, "%100!%!_sure inc%");
+		} finally {
+			Locale.setDefault(defaultLocale);
+		}
+	}
+
+	@Test
+	@DisplayName("getOverview should use live counters (no DB access) once they are ready")
+	void getOverview_shouldUseLiveCountersWhenReady() {
+		AnalyticsOverviewDto live = new AnalyticsOverviewDto();
+		when(liveOrderAnalytics.isReady()).thenReturn(true);
+		when(liveOrderAnalytics.snapshot()).thenReturn(live);
+
+		AnalyticsOverviewDto overview = analyticsService.getOverview();
+
+		assertSame(live, overview);
+		verifyNoInteractions(orderRepository);
+	}
+
+	@Test
+	@DisplayName("maxStaleness zero should bypass the live counters and run the SQL aggregate")
+	void getOverview_shouldRecomputeInSqlForZeroMaxStaleness() {
+		AnalyticsOverviewDto live = new AnalyticsOverviewDto();
+		lenient().when(liveOrderAnalytics.isReady()).thenReturn(true);
+		lenient().when(liveOrderAnalytics.snapshot()).thenReturn(live);
+		when(orderRepository.aggregateByStatus(null, null, null)).thenReturn(List.of());
+
+		assertSame(live, analyticsService.getOverview(null, null, null, Duration.ofSeconds(30)));
+		AnalyticsOverviewDto fresh = analyticsService.getOverview(null, null, null, Duration.ZERO);
+
+		assertNotSame(live, fresh);
+		verify(orderRepository).aggregateByStatus(null, null, null);
+	}
+
+	@Test
+	@DisplayName("a write committing while an aggregate is in flight should start a new one, and make the older result stale")
+	void getOverview_writeDuringAggregate_shouldNotJoinOrTagTheOlderResult() throws Exception {
+		OrderRepository repo = mock(OrderRepository.class);
+		OrderDataVersion dataVersion = new OrderDataVersion();
+		// every ticker read moves on by a nanosecond: the later start wins
+		AtomicLong nanos = new AtomicLong();
+		AnalyticsOverviewCache cache = new AnalyticsOverviewCache(dataVersion, true, 100, Duration.ofMinutes(5),
+				Duration.ofMinutes(30), Duration.ofMinutes(1), 8, Runnable::run, nanos::incrementAndGet);
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		SingleFlight flights = new SingleFlight(true);
+		flights.bindTo(meterRegistry);
+		AnalyticsServiceImpl service = new AnalyticsServiceImpl(repo, liveOrderAnalytics, cache, flights);
+
+		AtomicInteger queries = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		doAnswer(inv -> {
+			int query = queries.incrementAndGet();
+			if (query == 1) {
+				started.countDown();
+				release.await(5, TimeUnit.SECONDS);
+			}
+			// the first aggregate predates the write: one order, later ones see two
+			return List.of(totals(OrderStatus.NEW, query == 1 ? 1 : 2, "10.00"));
+		}).when(repo).aggregateByStatus(null, null, "%muster%");
+
+		try (ExecutorService pool = Executors.newSingleThreadExecutor()) {
+			Future<AnalyticsOverviewDto> before = pool.submit(() -> service.getOverview(null, null, "Muster"));
+			assertTrue(started.await(5, TimeUnit.SECONDS));
+
+			// the write commits while the first aggregate runs
+			dataVersion.onOrderChanged(null);
+			AnalyticsOverviewDto after = service.getOverview(null, null, "Muster", Duration.ZERO);
+			assertEquals(2, queries.get(), "must not join the aggregate started before the write");
+			assertEquals(2L, after.getTotalOrders());
+			assertEquals(0.0, meterRegistry.find("orderflow.singleflight.calls").tag("outcome", "coalesced")
+					.functionCounter().count());
+
+			release.countDown();
+			assertEquals(1L, before.get(5, TimeUnit.SECONDS).getTotalOrders());
+		}
+
+		// the newer snapshot is kept; it carries the post-write version, so nothing is stale
+		assertEquals(2L, service.getOverview(null, null, "Muster").getTotalOrders());
+		assertEquals(0, cache.refreshStale());
+
+		// an aggregate that finishes after a later write is tagged with the version
+		// it started at, so the next refresh recomputes it
+		cache.invalidateAll();
+		CountDownLatch blocked = new CountDownLatch(1);
+		CountDownLatch unblock = new CountDownLatch(1);
+		doAnswer(inv -> {
+			blocked.countDown();
+			unblock.await(5, TimeUnit.SECONDS);
+			return List.of(totals(OrderStatus.NEW, 2, "10.00"));
+		}).when(repo).aggregateByStatus(null, null, "%muster%");
+		try (ExecutorService pool = Executors.newSingleThreadExecutor()) {
+			Future<AnalyticsOverviewDto> running = pool.submit(() -> service.getOverview(null, null, "Muster"));
+			assertTrue(blocked.await(5, TimeUnit.SECONDS));
+			dataVersion.onOrderChanged(null);
+			unblock.countDown();
+			running.get(5, TimeUnit.SECONDS);
+		}
+		doReturn(List.of(totals(OrderStatus.NEW, 3, "10.00"))).when(repo).aggregateByStatus(null, null, "%muster%");
+		assertEquals(1, cache.refreshStale());
+		assertEquals(3L, service.getOverview(null, null, "Muster").getTotalOrders());
+	}
+
+	// ----------------- helpers -----------------
+
+	private static List<OrderStatusTotals> groupByStatus(List<Order> orders) {
+		return orders.stream().collect(Collectors.groupingBy(Order::getStatus)).entrySet().stream()
+				.map(e -> totals(e.getKey(), e.getValue().size(),
+						e.getValue().stream().map(Order::getTotal).reduce(BigDecimal.ZERO, BigDecimal::add)
+								.toPlainString()))
+				.toList();
+	}
+
+	private static OrderStatusTotals totals(OrderStatus status, long count, String revenue) {
+		return new OrderStatusTotals() {
+			@Override
+			public OrderStatus getStatus() {
+				return status;
+			}
+
+			@Override
+			public long getOrderCount() {
+				return count;
+			}
+
+			@Override
+			public BigDecimal getTotalRevenue() {
+				return new BigDecimal(revenue);
+			}
+		};
+	}
+}
@@ -0,0 +1,189 @@
+package ch.devprojects.orderflow.analytics.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import ch.devprojects.orderflow.analytics.dto.AnalyticsOverviewDto;
+import ch.devprojects.orderflow.domain.OrderStatus;
+import ch.devprojects.orderflow.repository.OrderRepository;
+import ch.devprojects.orderflow.repository.OrderStatusTotals;
+import ch.devprojects.orderflow.service.event.OrderChangedEvent;
+import ch.devprojects.orderflow.service.event.OrderSnapshot;
+
+/**
+ * Unit tests for {@link LiveOrderAnalytics}.
+ *
+ * Flow under test: seed from a (mocked) DB aggregate -> apply write events ->
+ * snapshot / reconcile.
+ */
+@ExtendWith(MockitoExtension.class)
+class LiveOrderAnalyticsTest {
+
+	@Mock
+	private OrderRepository orderRepository;
+
+	private LiveOrderAnalytics live;
+
+	@BeforeEach
+	void seed() {
+		when(orderRepository.aggregateByStatus(null, null, null))
+				.thenReturn(List.of(totals(OrderStatus.NEW, 2, "30.00"), totals(OrderStatus.CANCELLED, 1, "5.00")));
+
+		live = new LiveOrderAnalytics(orderRepository, true);
+		live.seed();
+	}
+
+	@Test
+	@DisplayName("snapshot should reflect the seeded DB values")
+	void snapshot_afterSeed() {
+		AnalyticsOverviewDto overview = live.snapshot();
+
+		assertThat(live.isReady()).isTrue();
+		assertThat(overview.getTotalOrders()).isEqualTo(3L);
+		assertThat(overview.getOpenOrders()).isEqualTo(2L);
+		assertThat(overview.getCancelledOrders()).isEqualTo(1L);
+		assertThat(overview.getTotalRevenue()).isEqualByComparingTo("35.00");
+		assertThat(overview.getAverageOrderValue()).isEqualByComparingTo("11.67");
+	}
+
+	@Test
+	@DisplayName("create/update/delete events should move counts and revenue between statuses")
+	void onOrderChanged_shouldApplyDeltas() {
+		OrderSnapshot created = snapshot(10L, OrderStatus.NEW, "10.005");
+		OrderSnapshot paid = snapshot(10L, OrderStatus.PAID, "12.00");
+
+		live.onOrderChanged(OrderChangedEvent.created(created));
+		live.onOrderChanged(OrderChangedEvent.updated(created, paid));
+
+		AnalyticsOverviewDto afterUpdate = live.snapshot();
+		assertThat(afterUpdate.getTotalOrders()).isEqualTo(4L);
+		assertThat(afterUpdate.getStatusBreakdown().get(OrderStatus.NEW.ordinal()).getOrders()).isEqualTo(2L);
+		assertThat(afterUpdate.getStatusBreakdown().get(OrderStatus.PAID.ordinal()).getRevenue())
+				.isEqualByComparingTo("12.00");
+		assertThat(afterUpdate.getTotalRevenue()).isEqualByComparingTo("47.00");
+
+		live.onOrderChanged(OrderChangedEvent.deleted(paid));
+
+		assertThat(live.snapshot().getTotalOrders()).isEqualTo(3L);
+		assertThat(live.snapshot().getTotalRevenue()).isEqualByComparingTo("35.00");
+	}
+
+	@Test
+	@DisplayName("reconcile should correct drift seen twice in a row to the DB values")
+	void reconcile_shouldDetectAndFixDrift() {
+		assertThat(live.reconcile()).isFalse();
+
+		// A write the live state never saw (e.g. a manual SQL fix)
+		when(orderRepository.aggregateByStatus(null, null, null))
+				.thenReturn(List.of(totals(OrderStatus.NEW, 3, "40.00"), totals(OrderStatus.CANCELLED, 1, "5.00")));
+
+		assertThat(live.reconcile()).isFalse();
+		assertThat(live.getDriftsDetected()).isZero();
+		assertThat(live.snapshot().getTotalOrders()).isEqualTo(3L);
+
+		assertThat(live.reconcile()).isTrue();
+		assertThat(live.getDriftsDetected()).isEqualTo(1L);
+		assertThat(live.snapshot().getTotalOrders()).isEqualTo(4L);
+		assertThat(live.snapshot().getTotalRevenue()).isEqualByComparingTo("45.00");
+	}
+
+	@Test
+	@DisplayName("reconcile should keep a write applied while the DB aggregate runs")
+	void reconcile_shouldNotLoseWriteDuringQuery() {
+		// The query sees the new order, its event arrives before reconcile is done
+		when(orderRepository.aggregateByStatus(null, null, null)).thenAnswer(inv -> {
+			live.onOrderChanged(OrderChangedEvent.created(snapshot(10L, OrderStatus.NEW, "10.00")));
+			return List.of(totals(OrderStatus.NEW, 3, "40.00"), totals(OrderStatus.CANCELLED, 1, "5.00"));
+		});
+
+		assertThat(live.reconcile()).isFalse();
+		assertThat(live.getDriftsDetected()).isZero();
+		assertThat(live.snapshot().getTotalOrders()).isEqualTo(4L);
+		assertThat(live.snapshot().getTotalRevenue()).isEqualByComparingTo("45.00");
+	}
+
+	@Test
+	@DisplayName("reconcile should not overwrite a write the DB aggregate did not see yet")
+	void reconcile_shouldCorrectByDeltaOnly() {
+		// The DB has a manual insert (10.00) the counters never saw; order 10
+		// (7.00) commits after the aggregate read, its event arrives meanwhile
+		when(orderRepository.aggregateByStatus(null, null, null)).thenAnswer(inv -> {
+			live.onOrderChanged(OrderChangedEvent.created(snapshot(10L, OrderStatus.NEW, "7.00")));
+			return List.of(totals(OrderStatus.NEW, 3, "40.00"), totals(OrderStatus.CANCELLED, 1, "5.00"));
+		});
+		assertThat(live.reconcile()).isFalse();
+
+		when(orderRepository.aggregateByStatus(null, null, null))
+				.thenReturn(List.of(totals(OrderStatus.NEW, 4, "47.00"), totals(OrderStatus.CANCELLED, 1, "5.00")));
+		assertThat(live.reconcile()).isFalse();
+		assertThat(live.reconcile()).isTrue();
+
+		assertThat(live.snapshot().getTotalOrders()).isEqualTo(5L);
+		assertThat(live.snapshot().getTotalRevenue()).isEqualByComparingTo("52.00");
+		assertThat(live.reconcile()).isFalse();
+	}
+
+	@Test
+	@DisplayName("reconcile should not count a write twice whose event arrives after the second sample")
+	void reconcile_shouldNotDoubleCountLateEvent() {
+		// commit -> query (sees order 10) -> both samples -> listener
+		when(orderRepository.aggregateByStatus(null, null, null))
+				.thenReturn(List.of(totals(OrderStatus.NEW, 3, "40.00"), totals(OrderStatus.CANCELLED, 1, "5.00")));
+		assertThat(live.reconcile()).isFalse();
+		live.onOrderChanged(OrderChangedEvent.created(snapshot(10L, OrderStatus.NEW, "10.00")));
+
+		assertThat(live.snapshot().getTotalOrders()).isEqualTo(4L);
+		assertThat(live.snapshot().getTotalRevenue()).isEqualByComparingTo("45.00");
+
+		// the next reconciliation finds the counters in line, nothing to correct
+		assertThat(live.reconcile()).isFalse();
+		assertThat(live.reconcile()).isFalse();
+		assertThat(live.getDriftsDetected()).isZero();
+		assertThat(live.snapshot().getTotalOrders()).isEqualTo(4L);
+	}
+
+	@Test
+	@DisplayName("disabled live analytics should never become ready")
+	void disabled_shouldNotSeed() {
+		LiveOrderAnalytics disabled = new LiveOrderAnalytics(orderRepository, false);
+		disabled.seed();
+
+		assertThat(disabled.isReady()).isFalse();
+	}
+
+	// ----------------- helpers -----------------
+
+	private static OrderSnapshot snapshot(Long id, OrderStatus status, String total) {
+		return new OrderSnapshot(id, "ORD-" + id, status, new BigDecimal(total), null, Instant.now(), Instant.now());
+	}
+
+	private static OrderStatusTotals totals(OrderStatus status, long count, String revenue) {
+		return new OrderStatusTotals() {
+			@Override
+			public OrderStatus getStatus() {
+				return status;
+			}
+
+			@Override
+			public long getOrderCount() {
+				return count;
+			}
+
+			@Override
+			public BigDecimal getTotalRevenue() {
+				return new BigDecimal(revenue);
+			}
+		};
+	}
+}
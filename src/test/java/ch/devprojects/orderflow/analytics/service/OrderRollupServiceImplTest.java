@@ -0,0 +1,148 @@
+package ch.devprojects.orderflow.analytics.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import ch.devprojects.orderflow.analytics.dto.TimeseriesPointDto;
+import ch.devprojects.orderflow.domain.Order;
+import ch.devprojects.orderflow.domain.OrderRollupId;
+import ch.devprojects.orderflow.domain.OrderStatus;
+import ch.devprojects.orderflow.domain.RollupGranularity;
+import ch.devprojects.orderflow.repository.OrderRepository;
+import ch.devprojects.orderflow.repository.OrderRollupRepository;
+import ch.devprojects.orderflow.service.event.OrderChangedEvent;
+import ch.devprojects.orderflow.service.event.OrderSnapshot;
+
+/**
+ * Tests for {@link OrderRollupServiceImpl} against H2 + Flyway (V7 rollup
+ * table).
+ *
+ * Dataset (UTC): - 2025-01-30 23:30 NEW 10.00 - 2025-01-31 10:00 PAID 5.00 -
+ * 2025-02-01 01:00 NEW 20.00 - 2025-02-15 12:00 NEW 1.00 - 2025-03-02 05:00
+ * CANCELLED 2.00
+ */
+@DataJpaTest
+@Import(OrderRollupServiceImpl.class)
+class OrderRollupServiceImplTest {
+
+	@Autowired
+	private OrderRollupServiceImpl rollupService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private OrderRollupRepository rollupRepository;
+
+	@BeforeEach
+	void setUp() {
+		orderRepository.deleteAllInBatch();
+		rollupRepository.deleteAllInBatch();
+
+		save("TS-1", OrderStatus.NEW, "10.00", "2025-01-30T23:30:00Z");
+		save("TS-2", OrderStatus.PAID, "5.00", "2025-01-31T10:00:00Z");
+		save("TS-3", OrderStatus.NEW, "20.00", "2025-02-01T01:00:00Z");
+		save("TS-4", OrderStatus.NEW, "1.00", "2025-02-15T12:00:00Z");
+		save("TS-5", OrderStatus.CANCELLED, "2.00", "2025-03-02T05:00:00Z");
+
+		rollupService.rebuildFrom(Instant.EPOCH);
+	}
+
+	@Test
+	@DisplayName("monthly series with ragged edges should merge hour/day/month buckets")
+	void getTimeseries_monthly_withRaggedEdges() {
+		List<TimeseriesPointDto> points = rollupService.getTimeseries(Instant.parse("2025-01-30T12:00:00Z"),
+				Instant.parse("2025-03-02T06:00:00Z"), RollupGranularity.MONTH, null);
+
+		assertThat(points).extracting(TimeseriesPointDto::getBucketStart).containsExactly(
+				Instant.parse("2025-01-01T00:00:00Z"), Instant.parse("2025-02-01T00:00:00Z"),
+				Instant.parse("2025-03-01T00:00:00Z"));
+		assertThat(points).extracting(TimeseriesPointDto::getOrders).containsExactly(2L, 2L, 1L);
+		assertThat(points.get(0).getRevenue()).isEqualByComparingTo("15.00");
+		assertThat(points.get(1).getRevenue()).isEqualByComparingTo("21.00");
+	}
+
+	@Test
+	@DisplayName("daily series should zero-fill empty buckets and apply the status filter")
+	void getTimeseries_daily_withStatusFilter() {
+		List<TimeseriesPointDto> points = rollupService.getTimeseries(Instant.parse("2025-01-30T00:00:00Z"),
+				Instant.parse("2025-02-02T00:00:00Z"), RollupGranularity.DAY, OrderStatus.NEW);
+
+		assertThat(points).extracting(TimeseriesPointDto::getOrders).containsExactly(1L, 0L, 1L);
+	}
+
+	@Test
+	@DisplayName("committed write events should reach the rollup table on flush")
+	void onOrderChanged_thenFlush_shouldUpdateBuckets() {
+		Instant createdAt = Instant.parse("2025-02-15T13:10:00Z");
+		OrderSnapshot created = new OrderSnapshot(99L, "TS-99", OrderStatus.PAID, new BigDecimal("4.00"), null,
+				createdAt, createdAt);
+
+		rollupService.onOrderChanged(OrderChangedEvent.created(created));
+		rollupService.flush();
+
+		OrderRollupId month = new OrderRollupId(RollupGranularity.MONTH, Instant.parse("2025-02-01T00:00:00Z"),
+				OrderStatus.PAID);
+		assertThat(rollupRepository.findById(month)).get().satisfies(r -> {
+			assertThat(r.getOrderCount()).isEqualTo(1L);
+			assertThat(r.getRevenue()).isEqualByComparingTo("4.00");
+		});
+
+		// Status change PAID -> SHIPPED moves the order to another status bucket
+		OrderSnapshot shipped = new OrderSnapshot(99L, "TS-99", OrderStatus.SHIPPED, new BigDecimal("4.00"), null,
+				createdAt, Instant.now());
+		rollupService.onOrderChanged(OrderChangedEvent.updated(created, shipped));
+		rollupService.flush();
+
+		assertThat(rollupRepository.findById(month)).isEmpty();
+	}
+
+	@Test
+	@DisplayName("plan should use full coarse buckets and finer ones only at the edges")
+	void plan_shouldSplitRangeByGranularity() {
+		Map<RollupGranularity, List<Instant[]>> plan = new EnumMap<>(RollupGranularity.class);
+
+		OrderRollupServiceImpl.plan(RollupGranularity.MONTH, Instant.parse("2025-01-30T12:00:00Z"),
+				Instant.parse("2025-03-02T06:00:00Z"), plan);
+
+		assertThat(plan.get(RollupGranularity.MONTH)).hasSize(1);
+		assertThat(plan.get(RollupGranularity.MONTH).get(0))
+				.containsExactly(Instant.parse("2025-02-01T00:00:00Z"), Instant.parse("2025-03-01T00:00:00Z"));
+		assertThat(plan.get(RollupGranularity.DAY)).hasSize(2);
+		assertThat(plan.get(RollupGranularity.HOUR)).hasSize(2);
+	}
+
+	@Test
+	@DisplayName("too many points should be rejected")
+	void getTimeseries_shouldRejectHugeRanges() {
+		assertThatThrownBy(() -> rollupService.getTimeseries(Instant.parse("2000-01-01T00:00:00Z"),
+				Instant.parse("2025-01-01T00:00:00Z"), RollupGranularity.HOUR, null))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	// ----------------- helpers -----------------
+
+	private void save(String code, OrderStatus status, String total, String createdAt) {
+		Order order = new Order();
+		order.setCode(code);
+		order.setStatus(status);
+		order.setTotal(new BigDecimal(total));
+		order.setCreatedAt(Instant.parse(createdAt));
+		order.setUpdatedAt(Instant.parse(createdAt));
+		orderRepository.save(order);
+	}
+}
@@ -0,0 +1,38 @@
+package ch.devprojects.orderflow.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Scrapes /actuator/prometheus after one real request and checks that every
+ * layer shows up: controller method, repository, mapper, pool and Hibernate.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability
+class PrometheusEndpointTest {
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Test
+	void scrape_containsRequestRepositoryMapperPoolAndHibernateMeters() {
+		assertThat(restTemplate.getForEntity("/api/orders", String.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+		ResponseEntity<String> scrape = restTemplate.getForEntity("/actuator/prometheus", String.class);
+
+		assertThat(scrape.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(scrape.getBody())
+				.containsPattern("http_server_requests_seconds_bucket\\{[^}]*handler=\"OrderController#getAll\"")
+				.containsPattern("spring_data_repository_invocations_seconds_count\\{[^}]*repository=\"OrderRepository\"")
+				.containsPattern("orderflow_mapper_seconds_count\\{[^}]*method=\"toDto\"")
+				.contains("hikaricp_connections_active")
+				.contains("hibernate_statements_total");
+	}
+}
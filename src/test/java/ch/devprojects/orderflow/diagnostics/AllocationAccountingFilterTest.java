@@ -0,0 +1,44 @@
+package ch.devprojects.orderflow.diagnostics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Allocation accounting of a real list request, with a budget small enough to
+ * be exceeded.
+ */
+@SpringBootTest(properties = "orderflow.diagnostics.allocation.budget=1KB")
+@AutoConfigureMockMvc
+@ExtendWith(OutputCaptureExtension.class)
+class AllocationAccountingFilterTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void listRequest_isRecordedPerHandlerAndWarnedAboveBudget(CapturedOutput output) throws Exception {
+		mockMvc.perform(get("/api/orders")).andExpect(status().isOk());
+
+		DistributionSummary summary = meterRegistry.get(AllocationAccountingFilter.METRIC)
+				.tag("handler", "OrderController#getAll").summary();
+		assertThat(summary.count()).isEqualTo(1);
+		assertThat(summary.totalAmount()).isGreaterThan(1024);
+		assertThat(output).contains("GET /api/orders (OrderController#getAll) allocated").contains("budget 1 KB");
+	}
+}
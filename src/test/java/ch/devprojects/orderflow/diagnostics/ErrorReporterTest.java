@@ -0,0 +1,83 @@
+package ch.devprojects.orderflow.diagnostics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Sampling and counting of {@link ErrorReporter} with a fake ticker.
+ */
+@ExtendWith(OutputCaptureExtension.class)
+class ErrorReporterTest {
+
+	private final AtomicLong nanos = new AtomicLong();
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private ErrorReporter reporter;
+
+	@BeforeEach
+	void setUp() {
+		StaticListableBeanFactory beans = new StaticListableBeanFactory();
+		beans.addBean("meterRegistry", meterRegistry);
+		reporter = new ErrorReporter(beans.getBeanProvider(MeterRegistry.class), Duration.ofMinutes(1), 3, nanos::get);
+	}
+
+	@Test
+	@DisplayName("5xx stack traces are logged once per N occurrences of a type within a window")
+	void serverErrors_shouldBeSampledPerTypeAndWindow() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders");
+
+		assertThat(IntStream.rangeClosed(1, 7).filter(i -> reporter.report(new IllegalStateException(), request, 500)))
+				.containsExactly(1, 4, 7);
+		// other exception types have their own window
+		assertThat(reporter.report(new NullPointerException(), request, 500)).isTrue();
+
+		nanos.addAndGet(Duration.ofMinutes(1).toNanos());
+		assertThat(reporter.report(new IllegalStateException(), request, 500)).isTrue();
+		assertThat(reporter.report(new IllegalStateException(), request, 500)).isFalse();
+	}
+
+	@Test
+	@DisplayName("5xx occurrences without a sampled stack trace are still logged, without the stack")
+	void unsampledServerErrors_shouldStillBeLogged(CapturedOutput output) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders");
+
+		assertThat(reporter.report(new IllegalStateException("first"), request, 500)).isTrue();
+		assertThat(reporter.report(new IllegalStateException("second"), request, 500)).isFalse();
+
+		assertThat(output).contains("IllegalStateException in GET /api/orders (none), occurrence 1 in window")
+				.contains("occurrence 2 in window, stack omitted: java.lang.IllegalStateException: second");
+		String unsampled = output.getOut().lines().filter(line -> line.contains("occurrence 2")).findFirst()
+				.orElseThrow();
+		assertThat(output.getOut().substring(output.getOut().indexOf(unsampled) + unsampled.length()))
+				.doesNotContain("\tat ");
+	}
+
+	@Test
+	@DisplayName("Every error is counted by type, handler and status; 4xx are not logged")
+	void errors_shouldBeCountedByTypeHandlerAndStatus() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders/x");
+
+		assertThat(reporter.report(new IllegalArgumentException("bad"), request, 400)).isFalse();
+		reporter.report(new IllegalArgumentException("bad"), request, 400);
+		reporter.report(new IllegalStateException(), request, 500);
+
+		assertThat(meterRegistry.get(ErrorReporter.METRIC).tag("exception", "IllegalArgumentException")
+				.tag("handler", "none").tag("status", "400").counter().count()).isEqualTo(2);
+		assertThat(meterRegistry.get(ErrorReporter.METRIC).tag("exception", "IllegalStateException")
+				.tag("status", "500").counter().count()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,61 @@
+package ch.devprojects.orderflow.diagnostics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class RequestTraceBufferTest {
+
+	@Test
+	void keepsTheSlowestTracesPerEndpoint_slowestFirst() {
+		RequestTraceBuffer buffer = new RequestTraceBuffer(3);
+
+		for (int ms : new int[] { 5, 50, 1, 20, 30, 2 }) {
+			buffer.offer(trace("OrderController#search", ms));
+		}
+		buffer.offer(trace("OrderController#getOne", 7));
+
+		Map<String, List<RequestTraceRecord>> snapshot = buffer.snapshot();
+		assertThat(snapshot.get("OrderController#search")).extracting(t -> t.duration().toMillis())
+				.containsExactly(50L, 30L, 20L);
+		assertThat(snapshot.get("OrderController#getOne")).hasSize(1);
+	}
+
+	@Test
+	void concurrentOffers_keepTheGlobalSlowest() throws Exception {
+		RequestTraceBuffer buffer = new RequestTraceBuffer(5);
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+
+		IntStream.rangeClosed(1, 2_000).forEach(ms -> pool.execute(() -> buffer.offer(trace("x", ms))));
+		pool.shutdown();
+		assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+		// traces may lose a CAS race, but never to a faster one
+		assertThat(buffer.snapshot().get("x")).hasSize(5)
+				.allSatisfy(t -> assertThat(t.duration().toMillis()).isGreaterThan(1_900L));
+	}
+
+	@Test
+	void clear_dropsEverything() {
+		RequestTraceBuffer buffer = new RequestTraceBuffer(2);
+		buffer.offer(trace("x", 1));
+
+		buffer.clear();
+
+		assertThat(buffer.snapshot()).isEmpty();
+	}
+
+	private static RequestTraceRecord trace(String endpoint, int ms) {
+		return new RequestTraceRecord(endpoint, "GET /api/orders", 200, Instant.now(), Duration.ofMillis(ms),
+				Map.of("total", (double) ms));
+	}
+}
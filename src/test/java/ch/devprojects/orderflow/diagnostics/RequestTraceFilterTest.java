@@ -0,0 +1,58 @@
+package ch.devprojects.orderflow.diagnostics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Phase breakdown of a real search request: header and kept trace.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class RequestTraceFilterTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private RequestTraceEndpoint endpoint;
+
+	@BeforeEach
+	void clear() {
+		endpoint.clear();
+	}
+
+	@Test
+	void search_reportsEveryPhaseInServerTimingAndKeepsTheTrace() throws Exception {
+		List<String> serverTiming = mockMvc.perform(get("/api/orders/search?size=5&customer=Anna Muster"))
+				.andExpect(status().isOk()).andReturn().getResponse().getHeaders(RequestTraceFilter.SERVER_TIMING_HEADER);
+
+		String phases = serverTiming.stream().filter(value -> value.startsWith("total;")).findFirst().orElseThrow();
+		assertThat(phases).matches(
+				"total;dur=[\\d.]+, handler;dur=[\\d.]+, service;dur=[\\d.]+, repo;dur=[\\d.]+, mapping;dur=[\\d.]+, serialize;dur=[\\d.]+");
+		assertThat(phases).doesNotContain("service;dur=0.0,");
+
+		List<RequestTraceRecord> traces = endpoint.traces().get("OrderController#search");
+		assertThat(traces).singleElement().satisfies(trace -> {
+			assertThat(trace.request()).isEqualTo("GET /api/orders/search?size=*&customer=*");
+			assertThat(trace.status()).isEqualTo(200);
+			assertThat(trace.phasesMs()).containsKeys("total", "handler", "service", "repo", "mapping", "serialize");
+		});
+	}
+
+	@Test
+	void redactQuery_keepsOnlyParameterNames() {
+		assertThat(RequestTargets.redactQuery(null)).isEmpty();
+		assertThat(RequestTargets.redactQuery("customer=anna%20muster&page=0&flag"))
+				.isEqualTo("?customer=*&page=*&flag");
+	}
+}
@@ -0,0 +1,54 @@
+package ch.devprojects.orderflow.diagnostics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import ch.devprojects.orderflow.diagnostics.RequestTracingConfig.SpillingBuffer;
+
+/**
+ * Unit tests for the bounded serialization buffer of the tracing converter.
+ */
+class SpillingBufferTest {
+
+	@Test
+	@DisplayName("bodies up to the limit should stay buffered until finish")
+	void smallBody_shouldBeBufferedUntilFinish() throws Exception {
+		MockHttpOutputMessage target = new MockHttpOutputMessage();
+		SpillingBuffer buffer = new SpillingBuffer(target, 16);
+
+		buffer.write(bytes("0123456789"));
+		buffer.write(bytes("abcdef"));
+		buffer.flush();
+
+		assertThat(buffer.spilled()).isFalse();
+		assertThat(target.getBodyAsString()).isEmpty();
+
+		buffer.finish();
+		assertThat(target.getBodyAsString()).isEqualTo("0123456789abcdef");
+	}
+
+	@Test
+	@DisplayName("the first write beyond the limit should send the buffer and write through afterwards")
+	void largeBody_shouldSpillAndWriteThrough() throws Exception {
+		MockHttpOutputMessage target = new MockHttpOutputMessage();
+		SpillingBuffer buffer = new SpillingBuffer(target, 16);
+
+		buffer.write(bytes("0123456789"));
+		buffer.write(bytes("abcdefgh"));
+		assertThat(buffer.spilled()).isTrue();
+		assertThat(target.getBodyAsString()).isEqualTo("0123456789abcdefgh");
+
+		buffer.write('!');
+		buffer.finish();
+		assertThat(target.getBodyAsString()).isEqualTo("0123456789abcdefgh!");
+	}
+
+	private static byte[] bytes(String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,76 @@
+package ch.devprojects.orderflow.diagnostics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Statement accounting end to end: real DataSource proxy, real filter.
+ */
+@SpringBootTest(properties = "orderflow.diagnostics.sql.repeat-threshold=5")
+@AutoConfigureMockMvc
+@ExtendWith(OutputCaptureExtension.class)
+class SqlAccountingFilterTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private SqlAccountingFilter filter;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void searchPage_reportsStatementsAndDbTimeInHeaders() throws Exception {
+		mockMvc.perform(get("/api/orders/search").param("size", "5")).andExpect(status().isOk())
+				.andExpect(header().string(SqlAccountingFilter.QUERY_COUNT_HEADER, "3"))
+				.andExpect(header().string(SqlAccountingFilter.SERVER_TIMING_HEADER,
+						Matchers.matchesPattern("db;dur=\\d+\\.\\d;desc=\"3 statements, \\d+ rows\"")));
+	}
+
+	@Test
+	void repeatedStatement_isLoggedAsProbableNPlusOne(CapturedOutput output) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(new MockHttpServletRequest("GET", "/api/n-plus-one"), response, (req, res) -> {
+			for (long id = 1; id <= 6; id++) {
+				jdbcTemplate.queryForObject("select count(*) from orders where id = ?", Long.class, id);
+			}
+		});
+
+		assertThat(response.getHeader(SqlAccountingFilter.QUERY_COUNT_HEADER)).isEqualTo("6");
+		assertThat(response.getHeader(SqlAccountingFilter.SERVER_TIMING_HEADER)).contains("6 statements, 6 rows");
+		assertThat(output).contains("GET /api/n-plus-one: 6 statements, 6 rows")
+				.contains("probable N+1: 6 x select count(*) from orders where id = ?");
+	}
+
+	@Test
+	void thresholdWarning_namesQueryParametersWithoutValues(CapturedOutput output) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/n-plus-one");
+		request.setQueryString("customer=Anna%20Muster&size=5");
+
+		filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+			for (long id = 1; id <= 6; id++) {
+				jdbcTemplate.queryForObject("select count(*) from orders where id = ?", Long.class, id);
+			}
+		});
+
+		assertThat(output).contains("GET /api/n-plus-one?customer=*&size=*: 6 statements").doesNotContain("Muster")
+				.doesNotContain("size=5");
+	}
+}
@@ -0,0 +1,88 @@
+package ch.devprojects.orderflow.diagnostics.jfr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+
+import ch.devprojects.orderflow.analytics.service.AnalyticsService;
+import ch.devprojects.orderflow.domain.OrderStatus;
+import ch.devprojects.orderflow.dto.OrderDto;
+import ch.devprojects.orderflow.service.CountMode;
+import ch.devprojects.orderflow.service.OrderQueryService;
+import ch.devprojects.orderflow.service.OrderService;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Records order writes, a query and analytics through the actuator operations
+ * and reads the downloaded file back.
+ */
+@SpringBootTest
+class JfrRecordingEndpointTest {
+
+	@Autowired
+	private JfrRecordingEndpoint endpoint;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderQueryService orderQueryService;
+
+	@Autowired
+	private AnalyticsService analyticsService;
+
+	@AfterEach
+	void stopRecording() {
+		endpoint.stop();
+	}
+
+	@Test
+	void recording_containsOrderQueryAndAnalyticsEvents() throws Exception {
+		assertThat(endpoint.start(null).getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+		assertThat(endpoint.status()).containsEntry("state", "RUNNING");
+		assertThat(endpoint.start(null).getStatus()).isEqualTo(WebEndpointResponse.STATUS_BAD_REQUEST);
+
+		OrderDto dto = new OrderDto();
+		dto.setCode("JFR-1");
+		dto.setCustomerName("Jfr Customer");
+		dto.setTotal(new BigDecimal("12.50"));
+		OrderDto created = orderService.create(dto);
+		created.setStatus("PAID");
+		orderService.update(created.getId(), created);
+		orderService.delete(created.getId());
+		orderQueryService.search(null, OrderStatus.NEW, null, null, BigDecimal.ONE, null, PageRequest.of(0, 5),
+				CountMode.NONE);
+		analyticsService.getOverview(Instant.EPOCH, null, null);
+
+		WebEndpointResponse<Resource> response = endpoint.stop();
+		List<RecordedEvent> events = RecordingFile.readAllEvents(response.getBody().getFile().toPath());
+
+		assertThat(events).filteredOn(e -> e.getEventType().getName().equals(OrderWriteEvent.NAME))
+				.extracting(e -> e.getString("operation") + ":" + e.getString("code"))
+				.containsExactly("create:JFR-1", "update:JFR-1", "delete:JFR-1");
+		assertThat(events).filteredOn(e -> e.getEventType().getName().equals(OrderQueryEvent.NAME))
+				.anySatisfy(e -> {
+					assertThat(e.getString("operation")).isEqualTo("search");
+					assertThat(e.getString("filterShape")).isEqualTo("status+total");
+					assertThat(e.getString("countMode")).isEqualTo("NONE");
+					assertThat(e.getInt("pageSize")).isEqualTo(5);
+					assertThat(e.getLong("total")).isEqualTo(-1L);
+				});
+		assertThat(events).filteredOn(e -> e.getEventType().getName().equals(AnalyticsEvent.NAME))
+				.anySatisfy(e -> {
+					assertThat(e.getString("source")).isEqualTo("sql");
+					assertThat(e.getString("filterShape")).isEqualTo("createdAt");
+				});
+	}
+}
@@ -0,0 +1,117 @@
+package ch.devprojects.orderflow.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import ch.devprojects.orderflow.domain.Order;
+import ch.devprojects.orderflow.domain.OrderStatus;
+
+/**
+ * Repository tests against an embedded H2 database migrated by Flyway.
+ *
+ * Important: - @DataJpaTest rolls back after each test, so rows inserted here
+ * never leak into other tests. - The seed data (V6) is deleted first to make
+ * the expected numbers explicit.
+ */
+@DataJpaTest
+class OrderRepositoryTest {
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@BeforeEach
+	void setUp() {
+		orderRepository.deleteAllInBatch();
+
+		save("AGG-1", OrderStatus.NEW, "10.00", "Anna Muster", "2025-01-05T10:00:00Z");
+		save("AGG-2", OrderStatus.NEW, "20.00", "Beat Keller", "2025-01-20T10:00:00Z");
+		save("AGG-3", OrderStatus.PAID, "5.50", "anna muster", "2025-02-10T10:00:00Z");
+		save("AGG-4", OrderStatus.CANCELLED, "7.00", "Chris Meier", "2025-03-01T10:00:00Z");
+	}
+
+	@Test
+	@DisplayName("aggregateByStatus without filters should count and sum per status")
+	void aggregateByStatus_withoutFilters() {
+		Map<OrderStatus, OrderStatusTotals> byStatus = index(orderRepository.aggregateByStatus(null, null, null));
+
+		assertThat(byStatus).containsOnlyKeys(OrderStatus.NEW, OrderStatus.PAID, OrderStatus.CANCELLED);
+		assertThat(byStatus.get(OrderStatus.NEW).getOrderCount()).isEqualTo(2L);
+		assertThat(byStatus.get(OrderStatus.NEW).getTotalRevenue()).isEqualByComparingTo("30.00");
+		assertThat(byStatus.get(OrderStatus.PAID).getTotalRevenue()).isEqualByComparingTo("5.50");
+	}
+
+	@Test
+	@DisplayName("aggregateByStatus should push createdAt range and customer filters into SQL")
+	void aggregateByStatus_withFilters() {
+		Map<OrderStatus, OrderStatusTotals> january = index(orderRepository.aggregateByStatus(
+				Instant.parse("2025-01-01T00:00:00Z"), Instant.parse("2025-02-01T00:00:00Z"), null));
+		assertThat(january).containsOnlyKeys(OrderStatus.NEW);
+		assertThat(january.get(OrderStatus.NEW).getOrderCount()).isEqualTo(2L);
+
+		Map<OrderStatus, OrderStatusTotals> anna = index(orderRepository.aggregateByStatus(null, null, "%muster%"));
+		assertThat(anna).containsOnlyKeys(OrderStatus.NEW, OrderStatus.PAID);
+		assertThat(anna.get(OrderStatus.NEW).getTotalRevenue()).isEqualByComparingTo("10.00");
+	}
+
+	@Test
+	@DisplayName("aggregateByStatus should match escaped wildcards in the customer pattern literally")
+	void aggregateByStatus_escapedCustomerPattern() {
+		save("AGG-5", OrderStatus.NEW, "1.00", "100%_Sure AG", "2025-03-02T10:00:00Z");
+		save("AGG-6", OrderStatus.NEW, "2.00", "1000 Sure AG", "2025-03-03T10:00:00Z");
+
+		String pattern = "%" + OrderRepository.escapeLike("0%_s") + "%";
+		Map<OrderStatus, OrderStatusTotals> literal = index(orderRepository.aggregateByStatus(null, null, pattern));
+
+		assertThat(literal).containsOnlyKeys(OrderStatus.NEW);
+		assertThat(literal.get(OrderStatus.NEW).getOrderCount()).isEqualTo(1L);
+		assertThat(literal.get(OrderStatus.NEW).getTotalRevenue()).isEqualByComparingTo("1.00");
+	}
+
+	@Test
+	@DisplayName("Updates should increment the row version (entity update and bulk updateStatus)")
+	void updates_shouldIncrementVersion() {
+		Order order = orderRepository.findByCode("AGG-1").orElseThrow();
+		assertThat(order.getVersion()).isZero();
+
+		order.setTotal(new BigDecimal("11.00"));
+		orderRepository.saveAndFlush(order);
+		assertThat(order.getVersion()).isEqualTo(1L);
+
+		entityManager.clear();
+		assertThat(orderRepository.updateStatus(List.of(order.getId()), OrderStatus.PAID, Instant.now())).isEqualTo(1);
+		assertThat(orderRepository.findById(order.getId()).orElseThrow().getVersion()).isEqualTo(2L);
+	}
+
+	// ----------------- helpers -----------------
+
+	private void save(String code, OrderStatus status, String total, String customer, String createdAt) {
+		Order order = new Order();
+		order.setCode(code);
+		order.setStatus(status);
+		order.setTotal(new BigDecimal(total));
+		order.setCustomerName(customer);
+		order.setCreatedAt(Instant.parse(createdAt));
+		order.setUpdatedAt(Instant.parse(createdAt));
+		orderRepository.save(order);
+	}
+
+	private static Map<OrderStatus, OrderStatusTotals> index(List<OrderStatusTotals> rows) {
+		return rows.stream().collect(Collectors.toMap(OrderStatusTotals::getStatus, r -> r));
+	}
+}
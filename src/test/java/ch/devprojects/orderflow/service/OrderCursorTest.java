@@ -0,0 +1,42 @@
+package ch.devprojects.orderflow.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link OrderCursor} token encoding.
+ */
+class OrderCursorTest {
+
+	@Test
+	@DisplayName("encode/decode should round-trip createdAt (with nanos) and id")
+	void roundTrip_withTimestamp() {
+		Instant ts = Instant.parse("2025-03-01T10:15:30.123456Z");
+
+		OrderCursor decoded = OrderCursor.decode(new OrderCursor(ts, 42L).encode());
+
+		assertThat(decoded.getCreatedAt()).isEqualTo(ts);
+		assertThat(decoded.getId()).isEqualTo(42L);
+	}
+
+	@Test
+	@DisplayName("encode/decode should round-trip a cursor without createdAt")
+	void roundTrip_withoutTimestamp() {
+		OrderCursor decoded = OrderCursor.decode(new OrderCursor(null, 7L).encode());
+
+		assertThat(decoded.getCreatedAt()).isNull();
+		assertThat(decoded.getId()).isEqualTo(7L);
+	}
+
+	@Test
+	@DisplayName("decode should reject garbage with IllegalArgumentException")
+	void decode_shouldRejectInvalidToken() {
+		assertThatThrownBy(() -> OrderCursor.decode("not-a-cursor!")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> OrderCursor.decode("   ")).isInstanceOf(IllegalArgumentException.class);
+	}
+}
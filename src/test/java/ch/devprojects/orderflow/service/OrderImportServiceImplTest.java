@@ -0,0 +1,132 @@
+package ch.devprojects.orderflow.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import ch.devprojects.orderflow.domain.Order;
+import ch.devprojects.orderflow.domain.OrderStatus;
+import ch.devprojects.orderflow.dto.OrderBatchItemResult;
+import ch.devprojects.orderflow.dto.OrderBatchItemResult.Outcome;
+import ch.devprojects.orderflow.dto.OrderBatchResponse;
+import ch.devprojects.orderflow.dto.OrderDto;
+import ch.devprojects.orderflow.repository.OrderRepository;
+
+/**
+ * Batch import against the real (H2 + Flyway) schema, including the pooled id
+ * generator from V8.
+ *
+ * Not @Transactional on purpose: every chunk commits on its own, like in
+ * production. Created orders ("BATCH-*") are removed after each test.
+ */
+@SpringBootTest
+class OrderImportServiceImplTest {
+
+	@Autowired
+	private OrderImportService orderImportService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@AfterEach
+	void removeImportedOrders() {
+		orderRepository.deleteAll(
+				orderRepository.findAll().stream().filter(o -> o.getCode().startsWith("BATCH-")).toList());
+	}
+
+	@Test
+	@DisplayName("should create more than one chunk of orders with unique pooled ids")
+	void importOrders_shouldCreateAcrossChunks() {
+		List<OrderDto> input = new ArrayList<>();
+		for (int i = 0; i < 120; i++) {
+			input.add(order("BATCH-" + i, "10.00"));
+		}
+
+		OrderBatchResponse response = orderImportService.importOrders(input.iterator(), true);
+
+		assertThat(response.getCreated()).isEqualTo(120);
+		assertThat(response.getFailed()).isZero();
+		assertThat(response.getItems()).extracting(OrderBatchItemResult::getIndex)
+				.containsExactlyElementsOf(IntStream.range(0, 120).boxed().toList());
+		assertThat(response.getItems()).extracting(OrderBatchItemResult::getId).doesNotContainNull()
+				.doesNotHaveDuplicates();
+		assertThat(orderRepository.findByCode("BATCH-119")).isPresent();
+	}
+
+	@Test
+	@DisplayName("should validate per element and upsert existing codes")
+	void importOrders_shouldReportPerElementResults() {
+		orderImportService.importOrders(List.of(order("BATCH-A", "10.00")).iterator(), true);
+
+		OrderDto update = order("BATCH-A", "99.00");
+		update.setStatus("paid");
+
+		OrderBatchResponse response = orderImportService.importOrders(List.of(update, order("BATCH-B", "-1"),
+				order(" BATCH-C ", "5.00"), order("BATCH-C", "6.00"), orderWithStatus("BATCH-D", "nope")).iterator(),
+				true);
+
+		assertThat(response.getItems()).extracting(OrderBatchItemResult::getOutcome).containsExactly(Outcome.UPDATED,
+				Outcome.FAILED, Outcome.CREATED, Outcome.UPDATED, Outcome.FAILED);
+		assertThat(response.getItems().get(1).getError()).isEqualTo("total must be > 0");
+		assertThat(response.getItems().get(4).getError()).isEqualTo("invalid status: nope");
+
+		Order a = orderRepository.findByCode("BATCH-A").orElseThrow();
+		assertThat(a.getTotal()).isEqualByComparingTo("99.00");
+		assertThat(a.getStatus()).isEqualTo(OrderStatus.PAID);
+		assertThat(orderRepository.findByCode("BATCH-C").orElseThrow().getTotal()).isEqualByComparingTo("6.00");
+		assertThat(orderRepository.findByCode("BATCH-B")).isEmpty();
+	}
+
+	@Test
+	@DisplayName("upsert=false should reject existing codes")
+	void importOrders_withoutUpsert_shouldRejectExistingCodes() {
+		orderImportService.importOrders(List.of(order("BATCH-X", "10.00")).iterator(), true);
+
+		OrderBatchResponse response = orderImportService
+				.importOrders(List.of(order("BATCH-X", "20.00"), order("BATCH-Y", "20.00")).iterator(), false);
+
+		assertThat(response.getItems()).extracting(OrderBatchItemResult::getOutcome).containsExactly(Outcome.FAILED,
+				Outcome.CREATED);
+		assertThat(orderRepository.findByCode("BATCH-X").orElseThrow().getTotal()).isEqualByComparingTo("10.00");
+	}
+
+	@Test
+	@DisplayName("a row rejected by the database should only fail that element")
+	void importOrders_shouldIsolateDatabaseFailures() {
+		String tooLong = "BATCH-" + "x".repeat(80); // orders.code is varchar(64)
+
+		OrderBatchResponse response = orderImportService.importOrders(
+				List.of(order("BATCH-1", "1.00"), order(tooLong, "1.00"), order("BATCH-2", "1.00")).iterator(), true);
+
+		assertThat(response.getItems()).extracting(OrderBatchItemResult::getOutcome).containsExactly(Outcome.CREATED,
+				Outcome.FAILED, Outcome.CREATED);
+		assertThat(orderRepository.findByCode("BATCH-1")).isPresent();
+		assertThat(orderRepository.findByCode("BATCH-2")).isPresent();
+	}
+
+	// ----------------- helpers -----------------
+
+	private static OrderDto order(String code, String total) {
+		OrderDto dto = new OrderDto();
+		dto.setCode(code);
+		dto.setTotal(new BigDecimal(total));
+		dto.setCustomerName("Batch Customer");
+		return dto;
+	}
+
+	private static OrderDto orderWithStatus(String code, String status) {
+		OrderDto dto = order(code, "1.00");
+		dto.setStatus(status);
+		return dto;
+	}
+}
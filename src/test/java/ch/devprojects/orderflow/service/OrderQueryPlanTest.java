@@ -0,0 +1,105 @@
+package ch.devprojects.orderflow.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import ch.devprojects.orderflow.domain.Order;
+import ch.devprojects.orderflow.domain.OrderStatus;
+import ch.devprojects.orderflow.repository.OrderRepository;
+import ch.devprojects.orderflow.testing.SqlCapture;
+
+/**
+ * Query-plan regression suite for the search paths (H2 + Flyway, incl. the V9
+ * indexes).
+ *
+ * How: - each shape is built with {@link OrderQueryServiceImpl#buildSpec} and
+ * run through the repository like the service does - the SQL Hibernate
+ * generated is captured (criteria values inlined, so it can be explained as is)
+ * - EXPLAIN must not report a table scan, and pages without a filter must be
+ * read in index order ("index sorted", i.e. no sort step)
+ *
+ * Every entry of ALLOWED_SORT_FIELDS is covered automatically, so adding a sort
+ * field without an index fails the build.
+ */
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.session_factory.statement_inspector=ch.devprojects.orderflow.testing.SqlCapture",
+		"spring.jpa.properties.hibernate.criteria.value_handling_mode=inline" })
+class OrderQueryPlanTest {
+
+	private static final Sort DEFAULT_SORT = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	static Stream<Arguments> filterShapes() {
+		BigDecimal ten = new BigDecimal("10.00");
+		return Stream.of(
+				Arguments.of("status", OrderQueryServiceImpl.buildSpec(null, OrderStatus.NEW, null, null, null, null)),
+				Arguments.of("totalMin", OrderQueryServiceImpl.buildSpec(null, null, null, null, ten, null)),
+				Arguments.of("totalMax", OrderQueryServiceImpl.buildSpec(null, null, null, null, null, ten)),
+				Arguments.of("codeFrom/codeTo", OrderQueryServiceImpl.buildSpec(null, null, "ORD-1", "ORD-2", null, null)),
+				Arguments.of("status + total range",
+						OrderQueryServiceImpl.buildSpec(null, OrderStatus.NEW, null, null, ten, ten)),
+				// LIKE '%x%' cannot seek; the page is read along the createdAt index
+				Arguments.of("customer", OrderQueryServiceImpl.buildSpec("ali", null, null, null, null, null)));
+	}
+
+	static Stream<Arguments> sortShapes() {
+		List<Arguments> shapes = new ArrayList<>();
+		shapes.add(Arguments.of("default page", DEFAULT_SORT));
+		for (String field : OrderQueryServiceImpl.ALLOWED_SORT_FIELDS) {
+			shapes.add(Arguments.of(field + " asc", Sort.by(Sort.Direction.ASC, field)));
+			shapes.add(Arguments.of(field + " desc", Sort.by(Sort.Direction.DESC, field)));
+		}
+		return shapes.stream();
+	}
+
+	@ParameterizedTest(name = "filter: {0}")
+	@MethodSource("filterShapes")
+	void filteredPage_shouldUseAnIndex(String name, Specification<Order> spec) {
+		String plan = explainPage(spec, DEFAULT_SORT);
+
+		assertThat(plan).as(name).doesNotContain("tableScan");
+	}
+
+	@ParameterizedTest(name = "sort: {0}")
+	@MethodSource("sortShapes")
+	void unfilteredPage_shouldReadInIndexOrder(String name, Sort sort) {
+		String plan = explainPage(OrderQueryServiceImpl.buildSpec(null, null, null, null, null, null), sort);
+
+		assertThat(plan).as(name).doesNotContain("tableScan").contains("index sorted");
+	}
+
+	// ----------------- helpers -----------------
+
+	private String explainPage(Specification<Order> spec, Sort sort) {
+		SqlCapture.clear();
+		orderRepository.findAll(spec, PageRequest.of(0, 20, sort));
+
+		String sql = SqlCapture.statements().stream().filter(s -> s.contains(" offset ")).findFirst()
+				.orElseThrow(() -> new AssertionError("no page query captured: " + SqlCapture.statements()));
+
+		// Only OFFSET/FETCH are still bind parameters
+		String explainable = sql.replace("offset ? rows", "offset 0 rows").replace("fetch first ? rows only",
+				"fetch first 20 rows only");
+		return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + explainable, String.class));
+	}
+}
@@ -0,0 +1,190 @@
+package ch.devprojects.orderflow.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import ch.devprojects.orderflow.domain.Order;
+import ch.devprojects.orderflow.domain.OrderStatus;
+import ch.devprojects.orderflow.dto.OrderDto;
+import ch.devprojects.orderflow.dto.OrdersPageResponse;
+import ch.devprojects.orderflow.repository.OrderRepository;
+import ch.devprojects.orderflow.service.cache.OrderCountCache;
+import ch.devprojects.orderflow.service.search.CustomerNameTrigramIndex;
+
+/**
+ * Count modes of the paged order queries against the real (H2 + Flyway)
+ * schema.
+ *
+ * All orders of a test share the customer "Count Mode Customer", so the filter
+ * isolates them from the seed data. Created orders ("COUNT-*") are removed
+ * after each test.
+ */
+@SpringBootTest
+class OrderQueryServiceCountModeTest {
+
+	private static final String CUSTOMER = "Count Mode Customer";
+
+	private static final PageRequest FIRST_PAGE = PageRequest.of(0, 2, Sort.by("code"));
+
+	@Autowired
+	private OrderQueryService orderQueryService;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private OrderCountCache orderCountCache;
+
+	@Autowired
+	private CustomerNameTrigramIndex customerNameIndex;
+
+	@BeforeEach
+	void createOrders() {
+		orderCountCache.invalidateAll();
+		for (int i = 1; i <= 5; i++) {
+			orderService.create(order("COUNT-" + i));
+		}
+	}
+
+	@AfterEach
+	void removeOrders() {
+		orderRepository.deleteAll(
+				orderRepository.findAll().stream().filter(o -> o.getCode().startsWith("COUNT-")).toList());
+	}
+
+	@Test
+	@DisplayName("none should return a Slice with hasNext and no total")
+	void none_shouldReturnSlice() {
+		Slice<OrderDto> first = search(FIRST_PAGE, CountMode.NONE);
+		assertThat(first).isNotInstanceOf(Page.class);
+		assertThat(first.getContent()).extracting(OrderDto::getCode).containsExactly("COUNT-1", "COUNT-2");
+		assertThat(first.hasNext()).isTrue();
+
+		Slice<OrderDto> last = search(PageRequest.of(2, 2, Sort.by("code")), CountMode.NONE);
+		assertThat(last.getContent()).extracting(OrderDto::getCode).containsExactly("COUNT-5");
+		assertThat(last.hasNext()).isFalse();
+
+		OrdersPageResponse response = orderQueryService.findOrders(CUSTOMER, null, 0, 2, "code", "asc", null, null,
+				CountMode.NONE);
+		assertThat(response.getTotalElements()).isNull();
+		assertThat(response.getTotalPages()).isNull();
+		assertThat(response.isHasNext()).isTrue();
+	}
+
+	@Test
+	@DisplayName("window should return the same page and total as exact")
+	void window_shouldMatchExact() {
+		Page<OrderDto> exact = (Page<OrderDto>) search(FIRST_PAGE, CountMode.EXACT);
+		Slice<OrderDto> window = search(FIRST_PAGE, CountMode.WINDOW);
+
+		assertThat(window).isInstanceOf(Page.class);
+		assertThat(((Page<OrderDto>) window).getTotalElements()).isEqualTo(5).isEqualTo(exact.getTotalElements());
+		assertThat(window.getContent()).extracting(OrderDto::getCode)
+				.containsExactlyElementsOf(exact.getContent().stream().map(OrderDto::getCode).toList());
+
+		// past the last page there is no row to carry the total
+		Page<OrderDto> beyond = (Page<OrderDto>) search(PageRequest.of(10, 2), CountMode.WINDOW);
+		assertThat(beyond.getContent()).isEmpty();
+		assertThat(beyond.getTotalElements()).isEqualTo(5);
+	}
+
+	@Test
+	@DisplayName("cached should reuse the total until the next order write")
+	void cached_shouldReuseTotalUntilNextWrite() {
+		assertThat(total(CountMode.CACHED)).isEqualTo(5);
+
+		// Direct repository write: no OrderChangedEvent, so the memoized total stays
+		Order hidden = new Order();
+		hidden.setCode("COUNT-HIDDEN");
+		hidden.setCustomerName(CUSTOMER);
+		hidden.setTotal(BigDecimal.ONE);
+		hidden.setStatus(OrderStatus.NEW);
+		orderRepository.save(hidden);
+		// the customer filter runs on the trigram index, which also only sees
+		// service writes until its next rebuild
+		customerNameIndex.rebuild();
+
+		assertThat(total(CountMode.CACHED)).isEqualTo(5);
+		assertThat(total(CountMode.EXACT)).isEqualTo(6);
+
+		// A service write bumps the data version and invalidates the total
+		orderService.create(order("COUNT-6"));
+		assertThat(total(CountMode.CACHED)).isEqualTo(7);
+	}
+
+	@Test
+	@DisplayName("etag should change with every write to a matching row, also writes that bypass the service")
+	void etag_shouldFollowDirectWrites() {
+		String initial = etag();
+		assertThat(etag()).isEqualTo(initial);
+
+		// Direct repository writes: no OrderChangedEvent, as from another instance
+		Order order = orderRepository.findAll().stream().filter(o -> o.getCode().equals("COUNT-1")).findFirst()
+				.orElseThrow();
+		order.setStatus(OrderStatus.PAID);
+		orderRepository.save(order);
+		String updated = etag();
+		assertThat(updated).isNotEqualTo(initial);
+
+		orderRepository.delete(orderRepository.findById(order.getId()).orElseThrow());
+		customerNameIndex.rebuild();
+		assertThat(etag()).isNotEqualTo(updated).isNotEqualTo(initial);
+	}
+
+	@Test
+	@DisplayName("countMode parameter should be case-insensitive and reject unknown values")
+	void countMode_shouldParse() {
+		assertThat(CountMode.from(null)).isEqualTo(CountMode.EXACT);
+		assertThat(CountMode.from(" Window ")).isEqualTo(CountMode.WINDOW);
+		assertThatThrownBy(() -> CountMode.from("approx")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	@DisplayName("count signature should ignore case, whitespace and decimal scale")
+	void countSignature_shouldNormalizeFilters() {
+		assertThat(OrderQueryServiceImpl.countSignature(" ALICE ", OrderStatus.NEW, null, null, new BigDecimal("10"),
+				null))
+				.isEqualTo(OrderQueryServiceImpl.countSignature("alice", OrderStatus.NEW, "", null,
+						new BigDecimal("10.00"), null));
+	}
+
+	// ----------------- helpers -----------------
+
+	private Slice<OrderDto> search(PageRequest pageable, CountMode countMode) {
+		return orderQueryService.search(CUSTOMER, null, null, null, null, null, pageable, countMode);
+	}
+
+	private String etag() {
+		return orderQueryService.etag(CUSTOMER, null, null, null, null, null);
+	}
+
+	private long total(CountMode countMode) {
+		return ((Page<OrderDto>) search(FIRST_PAGE, countMode)).getTotalElements();
+	}
+
+	private static OrderDto order(String code) {
+		OrderDto dto = new OrderDto();
+		dto.setCode(code);
+		dto.setCustomerName(CUSTOMER);
+		dto.setTotal(new BigDecimal("10.00"));
+		dto.setStatus("NEW");
+		return dto;
+	}
+}
@@ -0,0 +1,89 @@
+package ch.devprojects.orderflow.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import ch.devprojects.orderflow.domain.Order;
+import ch.devprojects.orderflow.domain.OrderStatus;
+import ch.devprojects.orderflow.repository.OrderRepository;
+import ch.devprojects.orderflow.service.search.CustomerNameTrigramIndex;
+
+/**
+ * The customer filter must select the same rows whether the trigram index
+ * answers it or the SQL fallback ({@link OrderQueryServiceImpl#buildSpec}) does
+ * (H2 + Flyway).
+ */
+@DataJpaTest
+class OrderQueryServiceCustomerFilterTest {
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private CustomerNameTrigramIndex index;
+
+	@BeforeEach
+	void setUp() {
+		orderRepository.deleteAllInBatch();
+
+		save("CF-1", "100%_Sure AG");
+		save("CF-2", "1000 Sure AG");
+		save("CF-3", "Under_Score GmbH");
+		save("CF-4", "UnderXScore GmbH");
+		save("CF-5", "Bang! Bang! Ltd");
+		orderRepository.flush();
+
+		index = new CustomerNameTrigramIndex(orderRepository, transactionManager, true, 100);
+		index.build();
+	}
+
+	@Test
+	@DisplayName("'%' and '_' in the term should match literally in SQL")
+	void buildSpec_shouldEscapeLikeWildcards() {
+		assertThat(codes("0%_s")).containsExactly("CF-1");
+		assertThat(codes("r_s")).containsExactly("CF-3");
+		assertThat(codes("g! b")).containsExactly("CF-5");
+	}
+
+	@ParameterizedTest(name = "term: {0}")
+	@ValueSource(strings = { "0%_s", "r_s", "rxs", "g! b", " SURE ", "gmbh" })
+	void buildSpec_shouldMatchTheIndex(String term) {
+		List<Long> viaSql = orderRepository.findAll(OrderQueryServiceImpl.buildSpec(term, null, null, null, null, null))
+				.stream().map(Order::getId).sorted().toList();
+
+		assertThat(index.resolve(term)).contains(viaSql);
+	}
+
+	// ----------------- helpers -----------------
+
+	private List<String> codes(String customer) {
+		return orderRepository.findAll(OrderQueryServiceImpl.buildSpec(customer, null, null, null, null, null))
+				.stream().map(Order::getCode).sorted().toList();
+	}
+
+	private void save(String code, String customer) {
+		Order order = new Order();
+		order.setCode(code);
+		order.setStatus(OrderStatus.NEW);
+		order.setTotal(new BigDecimal("10.00"));
+		order.setCustomerName(customer);
+		order.setCreatedAt(Instant.parse("2025-01-05T10:00:00Z"));
+		order.setUpdatedAt(Instant.parse("2025-01-05T10:00:00Z"));
+		orderRepository.save(order);
+	}
+}
@@ -0,0 +1,110 @@
+package ch.devprojects.orderflow.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import ch.devprojects.orderflow.domain.OrderStatus;
+import ch.devprojects.orderflow.dto.OrderDto;
+import ch.devprojects.orderflow.repository.OrderRepository;
+
+/**
+ * Sparse fieldsets ({@link OrderQueryService#searchFields}) against the real
+ * (H2 + Flyway) schema. Created orders ("FIELDS-*") are removed after each
+ * test.
+ */
+@SpringBootTest
+class OrderQueryServiceFieldsTest {
+
+	private static final String CUSTOMER = "Sparse Fields Customer";
+
+	private static final PageRequest FIRST_PAGE = PageRequest.of(0, 2, Sort.by("code"));
+
+	@Autowired
+	private OrderQueryService orderQueryService;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@BeforeEach
+	void createOrders() {
+		for (int i = 1; i <= 3; i++) {
+			OrderDto dto = new OrderDto();
+			dto.setCode("FIELDS-" + i);
+			dto.setCustomerName(CUSTOMER);
+			dto.setTotal(new BigDecimal(i + "0.00"));
+			dto.setStatus("NEW");
+			dto.setDescription("long text " + i);
+			orderService.create(dto);
+		}
+	}
+
+	@AfterEach
+	void removeOrders() {
+		orderRepository.deleteAll(
+				orderRepository.findAll().stream().filter(o -> o.getCode().startsWith("FIELDS-")).toList());
+	}
+
+	@Test
+	@DisplayName("should return only the selected fields in the requested order")
+	void searchFields_shouldSelectOnlyRequestedFields() {
+		Slice<Map<String, Object>> page = search(List.of("total", "code", "status"), CountMode.EXACT);
+
+		assertThat(page).isInstanceOf(Page.class);
+		assertThat(((Page<Map<String, Object>>) page).getTotalElements()).isEqualTo(3);
+		assertThat(page.getContent()).hasSize(2);
+
+		Map<String, Object> first = page.getContent().get(0);
+		assertThat(first.keySet()).containsExactly("total", "code", "status");
+		assertThat(first.get("code")).isEqualTo("FIELDS-1");
+		assertThat((BigDecimal) first.get("total")).isEqualByComparingTo("10.00");
+		assertThat(first.get("status")).isEqualTo(OrderStatus.NEW);
+	}
+
+	@Test
+	@DisplayName("should honour the count modes")
+	void searchFields_shouldHonourCountModes() {
+		Slice<Map<String, Object>> none = search(List.of("code"), CountMode.NONE);
+		assertThat(none).isNotInstanceOf(Page.class);
+		assertThat(none.getContent()).hasSize(2);
+		assertThat(none.hasNext()).isTrue();
+
+		Slice<Map<String, Object>> window = search(List.of("code"), CountMode.WINDOW);
+		assertThat(((Page<Map<String, Object>>) window).getTotalElements()).isEqualTo(3);
+		assertThat(window.getContent().get(0).keySet()).containsExactly("code");
+	}
+
+	@Test
+	@DisplayName("fields parameter should expand summary, drop duplicates and reject unknown names")
+	void parse_shouldValidateFields() {
+		assertThat(OrderFields.parse(null)).isNull();
+		assertThat(OrderFields.parse(" code, total ,code")).containsExactly("code", "total");
+		assertThat(OrderFields.parse("summary")).doesNotContain("description").contains("code", "status");
+		assertThatThrownBy(() -> OrderFields.parse("code,secret")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> OrderFields.parse(" , ")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	// ----------------- helpers -----------------
+
+	private Slice<Map<String, Object>> search(List<String> fields, CountMode countMode) {
+		return orderQueryService.searchFields(CUSTOMER, null, null, null, null, null, FIRST_PAGE, countMode, fields);
+	}
+}
@@ -0,0 +1,55 @@
+package ch.devprojects.orderflow.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import ch.devprojects.orderflow.dto.OrderDto;
+import ch.devprojects.orderflow.dto.OrdersCursorResponse;
+import ch.devprojects.orderflow.repository.OrderRepository;
+
+/**
+ * Keyset paging against the real (H2 + Flyway) schema.
+ *
+ * The V6 seed inserts all rows with the same CURRENT_TIMESTAMP, so this also
+ * checks that the id tie-breaker never skips or repeats rows.
+ */
+@SpringBootTest
+class OrderQueryServiceKeysetTest {
+
+	@Autowired
+	private OrderQueryService orderQueryService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Test
+	@DisplayName("walking all cursor pages should visit every order exactly once")
+	void findOrdersAfter_shouldVisitEveryOrderExactlyOnce() {
+		Set<Long> seen = new HashSet<>();
+		String cursor = null;
+		int pages = 0;
+
+		do {
+			OrdersCursorResponse page = orderQueryService.findOrdersAfter(cursor, 7);
+			assertThat(page.getContent().size()).isLessThanOrEqualTo(7);
+
+			for (OrderDto dto : page.getContent()) {
+				assertThat(seen.add(dto.getId())).as("order %s returned twice", dto.getId()).isTrue();
+			}
+
+			cursor = page.getNextCursor();
+			assertThat(page.isHasNext()).isEqualTo(cursor != null);
+			pages++;
+		} while (cursor != null && pages < 1000);
+
+		assertThat((long) seen.size()).isEqualTo(orderRepository.count());
+	}
+}
@@ -1,10 +1,18 @@
 package ch.devprojects.orderflow.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.fail;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -24,6 +32,11 @@ import ch.devprojects.orderflow.domain.OrderStatus;
 import ch.devprojects.orderflow.dto.OrderDto;
 import ch.devprojects.orderflow.dto.OrdersPageResponse;
 import ch.devprojects.orderflow.repository.OrderRepository;
+import ch.devprojects.orderflow.service.cache.OrderCountCache;
+import ch.devprojects.orderflow.service.cache.OrderDataVersion;
+import ch.devprojects.orderflow.service.cache.SingleFlight;
+import ch.devprojects.orderflow.service.search.CustomerNameTrigramIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 /**
  * Unit tests for {@link OrderQueryServiceImpl}.
@@ -38,7 +51,8 @@ class OrderQueryServiceTest {
 	void findOrders_shouldApplySortingAndMapDtos() {
 		// Arrange
 		OrderRepository repo = Mockito.mock(OrderRepository.class);
-		OrderQueryServiceImpl service = new OrderQueryServiceImpl(repo);
+		OrderQueryServiceImpl service = new OrderQueryServiceImpl(repo, OrderCountCache.disabled(),
+				CustomerNameTrigramIndex.disabled(), SingleFlight.disabled(), new OrderDataVersion());
 
 		Order o1 = new Order();
 		o1.setId(10L);
@@ -94,4 +108,77 @@ class OrderQueryServiceTest {
 		assertThat(d2.getCode()).isEqualTo("ORD-11");
 		assertThat(d2.getStatus()).isEqualTo("PAID");
 	}
-}
\ No newline at end of file
+
+	@Test
+	@DisplayName("findOrders should clamp huge page sizes to MAX_PAGE_SIZE")
+	void findOrders_shouldCapPageSize() {
+		OrderRepository repo = Mockito.mock(OrderRepository.class);
+		OrderQueryServiceImpl service = new OrderQueryServiceImpl(repo, OrderCountCache.disabled(),
+				CustomerNameTrigramIndex.disabled(), SingleFlight.disabled(), new OrderDataVersion());
+
+		ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+		Mockito.when(repo.findAll(Mockito.<Specification<Order>>any(), pageableCaptor.capture()))
+				.thenReturn(Page.empty());
+
+		service.findOrders(null, null, 0, 1_000_000);
+
+		assertThat(pageableCaptor.getValue().getPageSize()).isEqualTo(OrderQueryService.MAX_PAGE_SIZE);
+	}
+
+	@Test
+	@DisplayName("coalesced findOrders callers should get their own copies, and not join a query older than a write")
+	void findOrders_coalescedCallersShouldGetCopiesOfTheSameVersion() throws Exception {
+		OrderRepository repo = Mockito.mock(OrderRepository.class);
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		SingleFlight singleFlight = new SingleFlight(true);
+		singleFlight.bindTo(meterRegistry);
+		OrderDataVersion dataVersion = new OrderDataVersion();
+		OrderQueryServiceImpl service = new OrderQueryServiceImpl(repo, OrderCountCache.disabled(),
+				CustomerNameTrigramIndex.disabled(), singleFlight, dataVersion);
+
+		Order order = new Order();
+		order.setId(10L);
+		order.setCode("ORD-10");
+		order.setStatus(OrderStatus.NEW);
+		AtomicInteger queries = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Mockito.when(repo.findAll(Mockito.<Specification<Order>>any(), Mockito.any(Pageable.class))).thenAnswer(inv -> {
+			if (queries.incrementAndGet() == 1) {
+				started.countDown();
+				release.await(5, TimeUnit.SECONDS);
+			}
+			return new PageImpl<>(List.of(order), inv.getArgument(1), 1);
+		});
+
+		try (ExecutorService pool = Executors.newFixedThreadPool(2)) {
+			Future<OrdersPageResponse> first = pool.submit(() -> service.findOrders(null, null, 0, 20));
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+			Future<OrdersPageResponse> joined = pool.submit(() -> service.findOrders(null, null, 0, 20));
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (meterRegistry.find("orderflow.singleflight.calls").tag("outcome", "coalesced").functionCounter()
+					.count() < 1) {
+				if (System.nanoTime() - deadline > 0) {
+					release.countDown();
+					fail("second findOrders call was not coalesced within 5 s");
+				}
+				Thread.sleep(5);
+			}
+
+			// a write committed: the running query may predate it, so run a new one
+			dataVersion.onOrderChanged(null);
+			service.findOrders(null, null, 0, 20);
+			assertThat(queries).hasValue(2);
+
+			release.countDown();
+			OrdersPageResponse a = first.get(5, TimeUnit.SECONDS);
+			OrdersPageResponse b = joined.get(5, TimeUnit.SECONDS);
+			assertThat(queries).hasValue(2);
+			assertThat(a).isNotSameAs(b);
+			assertThat(a.getContent().get(0)).isNotSameAs(b.getContent().get(0));
+			assertThat(b.getContent().get(0).getCode()).isEqualTo("ORD-10");
+			assertThatThrownBy(() -> a.getContent().add(new OrderDto()))
+					.isInstanceOf(UnsupportedOperationException.class);
+		}
+	}
+}
@@ -2,6 +2,7 @@ package ch.devprojects.orderflow.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -14,12 +15,16 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.jpa.domain.Specification;
 
 import ch.devprojects.orderflow.domain.Order;
 import ch.devprojects.orderflow.domain.OrderStatus;
 import ch.devprojects.orderflow.dto.OrderDto;
+import ch.devprojects.orderflow.service.cache.OrderLookupCache;
+import ch.devprojects.orderflow.service.event.OrderChangedEvent;
 
 /**
  * Unit tests for {@link OrderServiceImpl}.
@@ -46,6 +51,18 @@ class OrderServiceImplTest {
 	@Mock
 	private ch.devprojects.orderflow.mapper.OrderMapper orderMapper;
 
+	/**
+	 * Write operations publish OrderChangedEvent; the publisher must be non-null.
+	 */
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	/**
+	 * Real (but disabled) cache: lookups always reach the mocked repository.
+	 */
+	@Spy
+	private OrderLookupCache orderLookupCache = OrderLookupCache.disabled();
+
 	@InjectMocks
 	private OrderServiceImpl orderService;
 
@@ -86,6 +103,7 @@ class OrderServiceImplTest {
 		verify(orderMapper, times(1)).toEntityForCreate(input);
 		verify(orderRepository, times(1)).save(mappedEntity);
 		verify(orderMapper, times(1)).toDto(savedEntity);
+		verify(eventPublisher, times(1)).publishEvent(any(OrderChangedEvent.class));
 
 		verifyNoMoreInteractions(orderRepository, orderMapper);
 	}
@@ -138,6 +156,19 @@ class OrderServiceImplTest {
 		verifyNoInteractions(orderMapper);
 	}
 
+	@Test
+	@DisplayName("lookupByCode should return empty, and findByCode throw a stackless exception, when missing")
+	void lookupByCode_shouldReturnEmpty_whenNotFound() {
+		when(orderRepository.findByCode("MISSING")).thenReturn(Optional.empty());
+
+		assertTrue(orderService.lookupByCode("MISSING").isEmpty());
+
+		OrderNotFoundException ex = assertThrows(OrderNotFoundException.class,
+				() -> orderService.findByCode(" MISSING "));
+		assertEquals("Order not found, code=MISSING", ex.getMessage());
+		assertEquals(0, ex.getStackTrace().length);
+	}
+
 	@Test
 	@DisplayName("search without filters should delegate to repository.findAll(spec)")
 	void search_withoutFilters_shouldDelegateToRepository() {
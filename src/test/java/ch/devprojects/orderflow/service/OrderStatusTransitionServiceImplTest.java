@@ -0,0 +1,229 @@
+package ch.devprojects.orderflow.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ch.devprojects.orderflow.domain.Order;
+import ch.devprojects.orderflow.domain.OrderStatus;
+import ch.devprojects.orderflow.dto.OrderStatusTransitionRequest;
+import ch.devprojects.orderflow.dto.OrderStatusTransitionRequest.Filter;
+import ch.devprojects.orderflow.dto.OrderStatusTransitionResponse;
+import ch.devprojects.orderflow.repository.OrderRepository;
+import ch.devprojects.orderflow.service.event.OrderChangedEvent;
+
+/**
+ * Bulk status transitions against the real (H2 + Flyway) schema.
+ *
+ * Works on its own "TRANS-*" orders (customer "Transition Tester") and removes
+ * them afterwards, so the shared seed data stays untouched.
+ */
+@SpringBootTest
+class OrderStatusTransitionServiceImplTest {
+
+	/**
+	 * Collects the change events of every thread (the transitions run on their
+	 * own threads in the concurrency test).
+	 */
+	@TestConfiguration
+	static class EventCollectorConfig {
+
+		@Bean
+		EventCollector eventCollector() {
+			return new EventCollector();
+		}
+	}
+
+	static class EventCollector {
+
+		final List<OrderChangedEvent> events = new CopyOnWriteArrayList<>();
+
+		@EventListener
+		void onOrderChanged(OrderChangedEvent event) {
+			events.add(event);
+		}
+	}
+
+	@Autowired
+	private OrderStatusTransitionService transitionService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private EventCollector eventCollector;
+
+	private TransactionTemplate transactionTemplate;
+
+	@BeforeEach
+	void setUp() {
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		save("TRANS-1", OrderStatus.PAID);
+		save("TRANS-2", OrderStatus.PAID);
+		save("TRANS-3", OrderStatus.NEW);
+		save("TRANS-4", OrderStatus.SHIPPED);
+	}
+
+	@AfterEach
+	void tearDown() {
+		orderRepository.deleteAll(
+				orderRepository.findAll().stream().filter(o -> o.getCode().startsWith("TRANS-")).toList());
+	}
+
+	@Test
+	@DisplayName("ids with fromStatus guard should only move the matching orders")
+	void transition_byIds_withGuard() {
+		OrderStatusTransitionRequest request = request("SHIPPED");
+		request.setFromStatus("paid");
+		request.setIds(List.of(id("TRANS-1"), id("TRANS-2"), id("TRANS-3"), 999_999L));
+
+		OrderStatusTransitionResponse response = transitionService.transition(request);
+
+		assertThat(response.getMatched()).isEqualTo(2);
+		assertThat(response.getUpdated()).isEqualTo(2);
+		assertThat(response.getNotMatched()).isEqualTo(2);
+		assertThat(status("TRANS-1")).isEqualTo(OrderStatus.SHIPPED);
+		assertThat(status("TRANS-3")).isEqualTo(OrderStatus.NEW);
+
+		Order moved = orderRepository.findByCode("TRANS-2").orElseThrow();
+		assertThat(moved.getUpdatedAt()).isAfter(moved.getCreatedAt());
+	}
+
+	@Test
+	@DisplayName("codes already in the target status should be counted as unchanged")
+	void transition_byCodes_countsUnchanged() {
+		OrderStatusTransitionRequest request = request("SHIPPED");
+		request.setCodes(List.of("TRANS-3", " TRANS-4 ", "TRANS-4"));
+
+		OrderStatusTransitionResponse response = transitionService.transition(request);
+
+		assertThat(response.getMatched()).isEqualTo(2);
+		assertThat(response.getUpdated()).isEqualTo(1);
+		assertThat(response.getUnchanged()).isEqualTo(1);
+		assertThat(status("TRANS-3")).isEqualTo(OrderStatus.SHIPPED);
+	}
+
+	@Test
+	@DisplayName("filter should select orders like the search endpoints")
+	void transition_byFilter() {
+		Filter filter = new Filter();
+		filter.setCustomer("transition tester");
+		filter.setStatus("PAID");
+		OrderStatusTransitionRequest request = request("CANCELLED");
+		request.setFilter(filter);
+
+		OrderStatusTransitionResponse response = transitionService.transition(request);
+
+		assertThat(response.getUpdated()).isEqualTo(2);
+		assertThat(status("TRANS-1")).isEqualTo(OrderStatus.CANCELLED);
+		assertThat(status("TRANS-2")).isEqualTo(OrderStatus.CANCELLED);
+		assertThat(status("TRANS-4")).isEqualTo(OrderStatus.SHIPPED);
+	}
+
+	@Test
+	@DisplayName("a row changed concurrently should be read after that change (locked), no event with a wrong before")
+	void transition_concurrentChange_waitsForLockAndPublishesNoStaleEvent() throws Exception {
+		Long id = id("TRANS-1");
+		CountDownLatch locked = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(tx -> {
+			orderRepository.updateStatus(List.of(id), OrderStatus.SHIPPED, Instant.now());
+			locked.countDown();
+			await(release);
+		}));
+		assertThat(locked.await(5, TimeUnit.SECONDS)).isTrue();
+		eventCollector.events.clear();
+
+		OrderStatusTransitionRequest request = request("SHIPPED");
+		request.setIds(List.of(id));
+		CompletableFuture<OrderStatusTransitionResponse> transition = CompletableFuture
+				.supplyAsync(() -> transitionService.transition(request));
+		Thread.sleep(300);
+		assertThat(transition).isNotDone();
+		release.countDown();
+		writer.get(5, TimeUnit.SECONDS);
+
+		OrderStatusTransitionResponse response = transition.get(5, TimeUnit.SECONDS);
+		assertThat(response.getMatched()).isEqualTo(1);
+		assertThat(response.getUpdated()).isZero();
+		assertThat(response.getUnchanged()).isEqualTo(1);
+		assertThat(eventCollector.events).isEmpty();
+	}
+
+	@Test
+	@DisplayName("invalid requests should be rejected")
+	void transition_invalidRequests() {
+		OrderStatusTransitionRequest noSelector = request("SHIPPED");
+		assertThatThrownBy(() -> transitionService.transition(noSelector))
+				.isInstanceOf(IllegalArgumentException.class).hasMessageContaining("exactly one");
+
+		OrderStatusTransitionRequest emptyFilter = request("SHIPPED");
+		emptyFilter.setFilter(new Filter());
+		assertThatThrownBy(() -> transitionService.transition(emptyFilter))
+				.isInstanceOf(IllegalArgumentException.class).hasMessageContaining("at least one criterion");
+
+		OrderStatusTransitionRequest badStatus = request("LOST");
+		badStatus.setIds(List.of(1L));
+		assertThatThrownBy(() -> transitionService.transition(badStatus))
+				.isInstanceOf(IllegalArgumentException.class).hasMessage("invalid targetStatus: LOST");
+	}
+
+	// ----------------- helpers -----------------
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static OrderStatusTransitionRequest request(String targetStatus) {
+		OrderStatusTransitionRequest request = new OrderStatusTransitionRequest();
+		request.setTargetStatus(targetStatus);
+		return request;
+	}
+
+	private void save(String code, OrderStatus status) {
+		Instant createdAt = Instant.parse("2025-01-01T00:00:00Z");
+		Order order = new Order();
+		order.setCode(code);
+		order.setStatus(status);
+		order.setTotal(new BigDecimal("10.00"));
+		order.setCustomerName("Transition Tester");
+		order.setCreatedAt(createdAt);
+		order.setUpdatedAt(createdAt);
+		orderRepository.save(order);
+	}
+
+	private Long id(String code) {
+		return orderRepository.findByCode(code).orElseThrow().getId();
+	}
+
+	private OrderStatus status(String code) {
+		return orderRepository.findByCode(code).orElseThrow().getStatus();
+	}
+}
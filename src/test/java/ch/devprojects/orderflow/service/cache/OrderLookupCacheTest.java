@@ -0,0 +1,242 @@
+package ch.devprojects.orderflow.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ch.devprojects.orderflow.domain.OrderStatus;
+import ch.devprojects.orderflow.dto.OrderDto;
+import ch.devprojects.orderflow.service.event.OrderChangedEvent;
+import ch.devprojects.orderflow.service.event.OrderSnapshot;
+
+/**
+ * Unit tests for {@link OrderLookupCache} (fake ticker, no Spring context).
+ */
+class OrderLookupCacheTest {
+
+	private final AtomicLong nanos = new AtomicLong();
+	private final AtomicInteger loads = new AtomicInteger();
+
+	private OrderLookupCache cache;
+
+	@BeforeEach
+	void setUp() {
+		cache = new OrderLookupCache(true, 100, Duration.ofMinutes(10), Duration.ofSeconds(30), nanos::get);
+	}
+
+	@Test
+	@DisplayName("second lookup should be served from the cache as a copy")
+	void getByCode_shouldCacheHits() {
+		OrderDto first = cache.getByCode("ORD-1", this::load).orElseThrow();
+		first.setTotal(BigDecimal.ONE); // must not leak into the cache
+
+		OrderDto second = cache.getByCode("ORD-1", this::load).orElseThrow();
+
+		assertThat(loads).hasValue(1);
+		assertThat(second).isNotSameAs(first);
+		assertThat(second.getTotal()).isEqualByComparingTo("10.00");
+	}
+
+	@Test
+	@DisplayName("misses should be cached only for the negative TTL")
+	void getByCode_shouldCacheMissesBriefly() {
+		assertThat(cache.getByCode("UNKNOWN", this::load)).isEmpty();
+		assertThat(cache.getByCode("UNKNOWN", this::load)).isEmpty();
+		assertThat(loads).hasValue(1);
+
+		nanos.addAndGet(TimeUnit.SECONDS.toNanos(31));
+
+		assertThat(cache.getByCode("UNKNOWN", this::load)).isEmpty();
+		assertThat(loads).hasValue(2);
+	}
+
+	@Test
+	@DisplayName("change events should evict id, old code and new code")
+	void onOrderChanged_shouldEvictAllKeys() {
+		cache.getById(1L, id -> load("ORD-1"));
+		cache.getByCode("ORD-1", this::load);
+		cache.getByCode("ORD-NEW", this::load); // negative entry
+		assertThat(loads).hasValue(3);
+
+		OrderSnapshot before = snapshot("ORD-1");
+		OrderSnapshot after = snapshot("ORD-NEW");
+		cache.onOrderChanged(OrderChangedEvent.updated(before, after));
+
+		cache.getById(1L, id -> load("ORD-NEW"));
+		cache.getByCode("ORD-1", this::load);
+		cache.getByCode("ORD-NEW", this::load);
+		assertThat(loads).hasValue(6);
+	}
+
+	@Test
+	@DisplayName("a code cached under another spelling should be evicted by update, delete and create events")
+	void onOrderChanged_shouldEvictVariantCasedCodes() {
+		// MariaDB's _ci collation: "ord-1" loads ORD-1
+		assertThat(cache.getByCode("ord-1", this::loadIgnoringCase)).isPresent();
+		assertThat(cache.getByCode("ord-1", this::loadIgnoringCase)).isPresent();
+		assertThat(loads).hasValue(1);
+
+		cache.onOrderChanged(OrderChangedEvent.updated(snapshot("ORD-1"), snapshot("ORD-1")));
+		cache.getByCode("ord-1", this::loadIgnoringCase);
+		assertThat(loads).hasValue(2);
+
+		cache.onOrderChanged(OrderChangedEvent.deleted(snapshot("ORD-1")));
+		assertThat(cache.getByCode("ord-1", code -> {
+			loads.incrementAndGet();
+			return Optional.empty();
+		})).isEmpty();
+		assertThat(loads).hasValue(3);
+
+		// negative entry under another spelling, then the order is created
+		cache.onOrderChanged(OrderChangedEvent.created(snapshot("ORD-1")));
+		assertThat(cache.getByCode("ord-1", this::loadIgnoringCase)).isPresent();
+		assertThat(loads).hasValue(4);
+	}
+
+	@Test
+	@DisplayName("another spelling of a cached code should be answered by the loader, not by the entry")
+	void getByCode_otherSpellingShouldNotBeServedFromTheEntry() {
+		cache.getByCode("ORD-1", this::load);
+
+		// case-sensitive DB (H2): "ord-1" does not exist
+		assertThat(cache.getByCode("ord-1", this::load)).isEmpty();
+		assertThat(cache.getByCode("ORD-1", this::load)).isPresent();
+		assertThat(loads).hasValue(2);
+	}
+
+	@Test
+	@DisplayName("concurrent misses of the same key should share one load")
+	void getByCode_concurrentMissesShouldShareOneLoad() throws Exception {
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Optional<OrderDto>> first = CompletableFuture
+				.supplyAsync(() -> cache.getByCode("ORD-1", code -> blockingLoad(code, loading, release)));
+		assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+		CompletableFuture<Optional<OrderDto>> second = CompletableFuture
+				.supplyAsync(() -> cache.getByCode("ORD-1", this::load));
+		Thread.sleep(100);
+		assertThat(second).isNotDone();
+
+		release.countDown();
+		assertThat(first.get(5, TimeUnit.SECONDS)).isPresent();
+		assertThat(second.get(5, TimeUnit.SECONDS)).isPresent();
+		assertThat(loads).hasValue(1);
+	}
+
+	@Test
+	@DisplayName("an eviction should drop a running load: its result goes to its callers but is never cached")
+	void onOrderChanged_shouldDropRunningLoad() throws Exception {
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Optional<OrderDto>> stale = CompletableFuture
+				.supplyAsync(() -> cache.getByCode("ORD-1", code -> blockingLoad(code, loading, release)));
+		assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+		cache.onOrderChanged(OrderChangedEvent.updated(snapshot("ORD-1"), snapshot("ORD-1")));
+
+		// new load after the eviction, does not wait for the running one
+		OrderDto fresh = cache.getByCode("ORD-1", this::load).orElseThrow();
+		assertThat(loads).hasValue(2);
+
+		release.countDown();
+		assertThat(stale.get(5, TimeUnit.SECONDS).orElseThrow().getTotal()).isEqualByComparingTo("99.00");
+		assertThat(cache.getByCode("ORD-1", this::load).orElseThrow().getTotal())
+				.isEqualByComparingTo(fresh.getTotal());
+		assertThat(loads).hasValue(2);
+	}
+
+	@Test
+	@DisplayName("a loader throwing an Error should fail its callers and leave nothing in the cache")
+	void getByCode_loaderErrorShouldNotLeaveAPendingLoad() {
+		Error boom = new Error("boom");
+		assertThatThrownBy(() -> cache.getByCode("ORD-1", code -> {
+			throw boom;
+		})).isSameAs(boom);
+
+		assertTimeoutPreemptively(Duration.ofSeconds(5),
+				() -> assertThat(cache.getByCode("ORD-1", this::load)).isPresent());
+		assertThat(loads).hasValue(1);
+	}
+
+	@Test
+	@DisplayName("stats should report hits and misses per key space")
+	@SuppressWarnings("unchecked")
+	void stats_shouldCountHitsAndMisses() {
+		cache.getByCode("ORD-1", this::load);
+		cache.getByCode("ORD-1", this::load);
+
+		Map<String, Object> byCode = (Map<String, Object>) cache.stats().get(OrderLookupCache.BY_CODE);
+
+		assertThat(byCode).containsEntry("hits", 1L).containsEntry("misses", 1L).containsEntry("size", 1L);
+	}
+
+	@Test
+	@DisplayName("disabled cache should always call the loader")
+	void disabled_shouldAlwaysLoad() {
+		OrderLookupCache disabled = OrderLookupCache.disabled();
+
+		disabled.getByCode("ORD-1", this::load);
+		disabled.getByCode("ORD-1", this::load);
+
+		assertThat(loads).hasValue(2);
+	}
+
+	// ----------------- helpers -----------------
+
+	/**
+	 * Signals loading, waits for release, then returns an order with total 99.00
+	 * (counted like every load).
+	 */
+	private Optional<OrderDto> blockingLoad(String code, CountDownLatch loading, CountDownLatch release) {
+		Optional<OrderDto> order = load(code);
+		loading.countDown();
+		try {
+			release.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		order.ifPresent(dto -> dto.setTotal(new BigDecimal("99.00")));
+		return order;
+	}
+
+	private Optional<OrderDto> load(String code) {
+		loads.incrementAndGet();
+		if (!code.startsWith("ORD-1")) {
+			return Optional.empty();
+		}
+		OrderDto dto = new OrderDto();
+		dto.setId(1L);
+		dto.setCode(code);
+		dto.setTotal(new BigDecimal("10.00"));
+		return Optional.of(dto);
+	}
+
+	/**
+	 * Like a case-insensitive collation: any spelling of ORD-1 finds ORD-1.
+	 */
+	private Optional<OrderDto> loadIgnoringCase(String code) {
+		return load(code.toUpperCase(Locale.ROOT));
+	}
+
+	private static OrderSnapshot snapshot(String code) {
+		return new OrderSnapshot(1L, code, OrderStatus.NEW, new BigDecimal("10.00"), null, Instant.EPOCH,
+				Instant.EPOCH);
+	}
+}
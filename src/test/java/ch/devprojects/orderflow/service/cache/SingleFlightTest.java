@@ -0,0 +1,119 @@
+package ch.devprojects.orderflow.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for {@link SingleFlight} (real threads, no Spring context).
+ */
+class SingleFlightTest {
+
+	private static final int CALLERS = 8;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final AtomicInteger runs = new AtomicInteger();
+
+	private SingleFlight singleFlight;
+
+	@BeforeEach
+	void setUp() {
+		singleFlight = new SingleFlight(true);
+		singleFlight.bindTo(meterRegistry);
+	}
+
+	@Test
+	@DisplayName("concurrent identical calls should share one computation and its result")
+	void execute_shouldCoalesceConcurrentIdenticalCalls() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		List<Future<String>> results = new ArrayList<>();
+
+		try (ExecutorService pool = Executors.newFixedThreadPool(CALLERS)) {
+			for (int i = 0; i < CALLERS; i++) {
+				results.add(pool.submit(() -> singleFlight.execute("overview", "k", () -> {
+					runs.incrementAndGet();
+					await(release);
+					return "result";
+				})));
+			}
+			// all but the running caller have joined before the computation ends
+			while (count("coalesced") < CALLERS - 1) {
+				Thread.sleep(5);
+			}
+			release.countDown();
+
+			for (Future<String> result : results) {
+				assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+			}
+		}
+		assertThat(runs).hasValue(1);
+		assertThat(count("executed")).isEqualTo(1);
+		assertThat(count("coalesced")).isEqualTo(CALLERS - 1);
+	}
+
+	@Test
+	@DisplayName("different keys, sequential calls and the disabled mode should each run the computation")
+	void execute_shouldNotShareAcrossKeysOrCompletedCalls() {
+		assertThat(singleFlight.execute("overview", "a", runs::incrementAndGet)).isEqualTo(1);
+		assertThat(singleFlight.execute("overview", "b", runs::incrementAndGet)).isEqualTo(2);
+		assertThat(singleFlight.execute("overview", "a", runs::incrementAndGet)).isEqualTo(3);
+		assertThat(SingleFlight.disabled().execute("overview", "a", runs::incrementAndGet)).isEqualTo(4);
+		assertThat(count("executed")).isEqualTo(3);
+		assertThat(count("coalesced")).isZero();
+	}
+
+	@Test
+	@DisplayName("a failure should reach the running caller and the coalesced ones, and not stick")
+	void execute_shouldShareFailures() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+
+		try (ExecutorService pool = Executors.newFixedThreadPool(2)) {
+			List<Future<Object>> results = new ArrayList<>();
+			for (int i = 0; i < 2; i++) {
+				results.add(pool.submit(() -> singleFlight.execute("overview", "k", () -> {
+					await(release);
+					throw new IllegalStateException("db down");
+				})));
+			}
+			while (count("coalesced") < 1) {
+				Thread.sleep(5);
+			}
+			release.countDown();
+
+			for (Future<Object> result : results) {
+				assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS)).hasRootCauseMessage("db down");
+			}
+		}
+		assertThat(singleFlight.execute("overview", "k", () -> "recovered")).isEqualTo("recovered");
+	}
+
+	private double count(String outcome) {
+		// registered on the first call of the operation
+		FunctionCounter counter = meterRegistry.find(SingleFlight.METRIC).tag("operation", "overview")
+				.tag("outcome", outcome).functionCounter();
+		return counter == null ? 0 : counter.count();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package ch.devprojects.orderflow.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import ch.devprojects.orderflow.domain.OrderStatus;
+import ch.devprojects.orderflow.repository.OrderCustomerName;
+import ch.devprojects.orderflow.repository.OrderRepository;
+import ch.devprojects.orderflow.service.event.OrderChangedEvent;
+import ch.devprojects.orderflow.service.event.OrderSnapshot;
+
+/**
+ * Unit tests for {@link CustomerNameTrigramIndex} (mocked repository, no Spring
+ * context).
+ */
+class CustomerNameTrigramIndexTest {
+
+	private final OrderRepository orderRepository = mock(OrderRepository.class);
+
+	private CustomerNameTrigramIndex index;
+
+	@BeforeEach
+	void setUp() {
+		when(orderRepository.streamCustomerNames()).thenAnswer(inv -> Stream.of(row(1L, "Alice Smith"),
+				row(2L, "Natalie Brown"), row(3L, "Bob"), row(4L, "abc-bcd"), row(5L, "ALICE Jones")));
+		index = new CustomerNameTrigramIndex(orderRepository, mock(PlatformTransactionManager.class), true, 3);
+	}
+
+	@Test
+	@DisplayName("should not answer before the first build")
+	void resolve_shouldFallBackUntilBuilt() {
+		assertThat(index.resolve("alice")).isEmpty();
+
+		index.build();
+
+		assertThat(index.isReady()).isTrue();
+		assertThat(index.resolve("alice")).contains(List.of(1L, 5L));
+	}
+
+	@Test
+	@DisplayName("should match substrings case-insensitively and verify candidates")
+	void resolve_shouldReturnExactMatches() {
+		index.build();
+
+		assertThat(index.resolve(" ALI ")).contains(List.of(1L, 2L, 5L));
+		assertThat(index.resolve("brown")).contains(List.of(2L));
+		assertThat(index.resolve("zzz")).contains(List.of());
+		// all trigrams of "abcd" occur in "abc-bcd", the substring does not
+		assertThat(index.resolve("abcd")).contains(List.of());
+	}
+
+	@Test
+	@DisplayName("should leave short terms and too many matches to SQL")
+	void resolve_shouldFallBackForShortTermsAndLargeResults() {
+		index.build();
+
+		assertThat(index.resolve("al")).isEmpty();
+		assertThat(index.resolve("i")).isEmpty();
+		// max-ids = 1, two names contain "alice"
+		assertThat(new CustomerNameTrigramIndex(orderRepository, mock(PlatformTransactionManager.class), true, 1)
+				.resolve("alice")).isEmpty();
+	}
+
+	@Test
+	@DisplayName("should follow committed creates, renames and deletes")
+	void onOrderChanged_shouldUpdateIndex() {
+		index.build();
+
+		index.onOrderChanged(OrderChangedEvent.created(snapshot(6L, "Alicia Keys")));
+		index.onOrderChanged(OrderChangedEvent.updated(snapshot(1L, "Alice Smith"), snapshot(1L, "Carol Smith")));
+		index.onOrderChanged(OrderChangedEvent.deleted(snapshot(5L, "ALICE Jones")));
+
+		assertThat(index.resolve("alic")).contains(List.of(6L));
+		assertThat(index.resolve("smith")).contains(List.of(1L));
+		assertThat(index.resolve("jones")).contains(List.of());
+	}
+
+	@Test
+	@DisplayName("disabled index should never answer")
+	void disabled_shouldNeverAnswer() {
+		CustomerNameTrigramIndex disabled = CustomerNameTrigramIndex.disabled();
+		disabled.build();
+
+		assertThat(disabled.resolve("alice")).isEmpty();
+	}
+
+	// ----------------- helpers -----------------
+
+	private static OrderCustomerName row(Long id, String customerName) {
+		return new OrderCustomerName() {
+			@Override
+			public Long getId() {
+				return id;
+			}
+
+			@Override
+			public String getCustomerName() {
+				return customerName;
+			}
+		};
+	}
+
+	private static OrderSnapshot snapshot(Long id, String customerName) {
+		return new OrderSnapshot(id, "ORD-" + id, OrderStatus.NEW, BigDecimal.TEN, customerName, Instant.EPOCH,
+				Instant.EPOCH);
+	}
+}
@@ -0,0 +1,99 @@
+package ch.devprojects.orderflow.testing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.ChainListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+
+/**
+ * Fails a {@link QueryBudget} test that executes more SQL statements than its
+ * budget.
+ *
+ * How it counts: - hooks into the datasource-proxy the application already
+ * puts around the DataSource (orderflow.diagnostics.sql.enabled), so JPA and
+ * JdbcTemplate statements are both seen - only statements on the test thread,
+ * and only while the test method body runs (@BeforeEach fixtures are free) -
+ * MockMvc requests run on the test thread and are included
+ *
+ * Usage: - @SpringBootTest class with @ExtendWith(QueryBudgetExtension.class) -
+ * {@code @QueryBudget(2)} on each test method that should be checked
+ */
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+	private static final Recorder RECORDER = new Recorder();
+
+	@Override
+	public void beforeTestExecution(ExtensionContext context) throws Exception {
+		if (budget(context) == null) {
+			return;
+		}
+		DataSource dataSource = SpringExtension.getApplicationContext(context).getBean(DataSource.class);
+		if (!(dataSource instanceof ProxyDataSource proxy)) {
+			throw new IllegalStateException("QueryBudget needs the SQL accounting DataSource proxy, got "
+					+ dataSource.getClass().getName());
+		}
+		synchronized (RECORDER) {
+			if (!(proxy.getProxyConfig().getQueryListener() instanceof ChainListener chain)
+					|| !chain.getListeners().contains(RECORDER)) {
+				proxy.addListener(RECORDER);
+			}
+		}
+		RECORDER.start();
+	}
+
+	@Override
+	public void afterTestExecution(ExtensionContext context) {
+		QueryBudget budget = budget(context);
+		if (budget == null) {
+			return;
+		}
+		List<String> statements = RECORDER.stop();
+		if (statements.size() > budget.value()) {
+			throw new AssertionError("Query budget exceeded: " + statements.size() + " statements, budget "
+					+ budget.value() + statements.stream().collect(Collectors.joining("\n  ", "\n  ", "")));
+		}
+	}
+
+	private static QueryBudget budget(ExtensionContext context) {
+		return context.getRequiredTestMethod().getAnnotation(QueryBudget.class);
+	}
+
+	private static final class Recorder implements QueryExecutionListener {
+
+		private final ThreadLocal<List<String>> statements = new ThreadLocal<>();
+
+		void start() {
+			statements.set(new ArrayList<>());
+		}
+
+		List<String> stop() {
+			List<String> recorded = statements.get();
+			statements.remove();
+			return recorded == null ? List.of() : recorded;
+		}
+
+		@Override
+		public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		}
+
+		@Override
+		public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+			List<String> recorded = statements.get();
+			if (recorded != null && !queryInfoList.isEmpty()) {
+				recorded.add(queryInfoList.get(0).getQuery());
+			}
+		}
+	}
+}
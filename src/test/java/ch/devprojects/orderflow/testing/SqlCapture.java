@@ -0,0 +1,33 @@
+package ch.devprojects.orderflow.testing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate StatementInspector that records the SQL prepared on the current
+ * thread.
+ *
+ * Usage: - register via
+ * "spring.jpa.properties.hibernate.session_factory.statement_inspector" -
+ * {@link #clear()} before, {@link #statements()} after the code under test
+ */
+public class SqlCapture implements StatementInspector {
+
+	private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+	@Override
+	public String inspect(String sql) {
+		STATEMENTS.get().add(sql);
+		return sql;
+	}
+
+	public static void clear() {
+		STATEMENTS.get().clear();
+	}
+
+	public static List<String> statements() {
+		return List.copyOf(STATEMENTS.get());
+	}
+}
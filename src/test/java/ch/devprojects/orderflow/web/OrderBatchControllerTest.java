@@ -0,0 +1,127 @@
+package ch.devprojects.orderflow.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import ch.devprojects.orderflow.dto.OrderBatchItemResult;
+import ch.devprojects.orderflow.dto.OrderBatchItemResult.Outcome;
+import ch.devprojects.orderflow.dto.OrderBatchResponse;
+import ch.devprojects.orderflow.dto.OrderDto;
+import ch.devprojects.orderflow.service.OrderImportService;
+
+/**
+ * Web slice test for POST /api/orders/batch: body parsing only.
+ *
+ * The mocked service drains the iterator the same way the real one does and
+ * records what it saw (parsed DTOs and per-element errors).
+ */
+@WebMvcTest(OrderBatchController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class OrderBatchControllerTest {
+
+	@MockitoBean
+	private OrderImportService orderImportService;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	private final List<String> seen = new ArrayList<>();
+
+	@BeforeEach
+	void drainIterator() {
+		when(orderImportService.importOrders(any(), anyBoolean())).thenAnswer(invocation -> {
+			Iterator<OrderDto> orders = invocation.getArgument(0);
+			OrderBatchResponse response = new OrderBatchResponse();
+			int index = 0;
+			while (orders.hasNext()) {
+				try {
+					OrderDto dto = orders.next();
+					seen.add(dto.getCode());
+					response.add(OrderBatchItemResult.success(index, Outcome.CREATED, dto.getCode(), (long) index));
+				} catch (IllegalArgumentException ex) {
+					seen.add("error: " + ex.getMessage());
+					response.add(OrderBatchItemResult.failed(index, null, ex.getMessage()));
+				}
+				index++;
+			}
+			return response;
+		});
+	}
+
+	@Test
+	@DisplayName("JSON array body should be read element by element")
+	void importOrders_jsonArray() throws Exception {
+		mockMvc.perform(post("/api/orders/batch").contentType(MediaType.APPLICATION_JSON)
+				.content("[{\"code\":\"A\",\"total\":1},{\"code\":\"B\",\"total\":2}]")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.created").value(2)).andExpect(jsonPath("$.items[1].code").value("B"));
+
+		assertThat(seen).containsExactly("A", "B");
+	}
+
+	@Test
+	@DisplayName("NDJSON body should be read line by line")
+	void importOrders_ndjson() throws Exception {
+		mockMvc.perform(post("/api/orders/batch").contentType(MediaType.APPLICATION_NDJSON)
+				.content("{\"code\":\"A\",\"total\":1}\n{\"code\":\"B\",\"total\":2}\n{\"code\":\"C\",\"total\":3}\n"))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.created").value(3));
+
+		assertThat(seen).containsExactly("A", "B", "C");
+	}
+
+	@Test
+	@DisplayName("an element with a wrongly typed value should fail alone")
+	void importOrders_bindingErrorFailsOneElement() throws Exception {
+		mockMvc.perform(post("/api/orders/batch").contentType(MediaType.APPLICATION_NDJSON)
+				.content("{\"code\":\"A\",\"total\":\"abc\"}\n{\"code\":\"B\",\"total\":2}\n"))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.failed").value(1))
+				.andExpect(jsonPath("$.created").value(1));
+
+		assertThat(seen).hasSize(2);
+		assertThat(seen.get(0)).startsWith("error: invalid order");
+		assertThat(seen.get(1)).isEqualTo("B");
+	}
+
+	@Test
+	@DisplayName("elements that are valid JSON but not objects should fail alone")
+	void importOrders_nonObjectElementFailsOneElement() throws Exception {
+		mockMvc.perform(post("/api/orders/batch").contentType(MediaType.APPLICATION_JSON)
+				.content("[{\"code\":\"A\",\"total\":1},42,[{\"code\":\"X\"}],null,\"x\",{\"code\":\"B\",\"total\":2}]"))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.created").value(2))
+				.andExpect(jsonPath("$.failed").value(4));
+
+		assertThat(seen).hasSize(6);
+		assertThat(seen.subList(1, 5)).allMatch(item -> item.startsWith("error: invalid order"));
+		assertThat(seen.get(5)).isEqualTo("B");
+	}
+
+	@Test
+	@DisplayName("broken JSON should fail the current element and stop reading")
+	void importOrders_malformedJsonStops() throws Exception {
+		mockMvc.perform(post("/api/orders/batch").contentType(MediaType.APPLICATION_JSON)
+				.content("[{\"code\":\"A\",\"total\":1},{\"code\":\"B\",]")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.created").value(1)).andExpect(jsonPath("$.failed").value(1));
+
+		assertThat(seen).hasSize(2);
+		assertThat(seen.get(1)).startsWith("error: malformed JSON");
+	}
+}
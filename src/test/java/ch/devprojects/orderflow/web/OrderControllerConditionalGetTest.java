@@ -0,0 +1,141 @@
+package ch.devprojects.orderflow.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import ch.devprojects.orderflow.domain.OrderStatus;
+import ch.devprojects.orderflow.dto.OrderDto;
+import ch.devprojects.orderflow.service.OrderQueryService;
+import ch.devprojects.orderflow.service.OrderService;
+import ch.devprojects.orderflow.service.cache.OrderDataVersion;
+import ch.devprojects.orderflow.service.event.OrderChangedEvent;
+import ch.devprojects.orderflow.service.event.OrderSnapshot;
+
+/**
+ * Web slice test for ETag / If-None-Match on the order GET endpoints (in-memory
+ * list ETags as in the dev profile; the database validator is used otherwise).
+ */
+@WebMvcTest(controllers = OrderController.class, properties = "orderflow.http.list-etag.in-memory=true")
+@Import(OrderDataVersion.class)
+@AutoConfigureMockMvc(addFilters = false)
+class OrderControllerConditionalGetTest {
+
+	@MockitoBean
+	private OrderService orderService;
+
+	@MockitoBean
+	private OrderQueryService orderQueryService;
+
+	@Autowired
+	private OrderDataVersion orderDataVersion;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	@DisplayName("GET /api/orders/{id} should return 304 for a matching ETag")
+	void getOne_shouldReturn304_whenETagMatches() throws Exception {
+		OrderDto order = order(3L);
+		when(orderService.lookupById(5L)).thenReturn(Optional.of(order));
+		String etag = "\"" + OrderDataVersion.etagOf(order) + "\"";
+
+		mockMvc.perform(get("/api/orders/5")).andExpect(status().isOk()).andExpect(header().string(HttpHeaders.ETAG, etag));
+
+		mockMvc.perform(get("/api/orders/5").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified()).andExpect(content().string(""));
+
+		// row version changed (same updatedAt second on MariaDB) -> new representation
+		when(orderService.lookupById(5L)).thenReturn(Optional.of(order(4L)));
+		mockMvc.perform(get("/api/orders/5").header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isOk());
+	}
+
+	@Test
+	@DisplayName("GET /api/orders/code/{code} should carry the same ETag as GET /api/orders/{id}")
+	void getByCode_shouldReturn304_whenETagMatches() throws Exception {
+		OrderDto order = order(3L);
+		when(orderService.lookupByCode("ORD-5")).thenReturn(Optional.of(order));
+		String etag = "\"" + OrderDataVersion.etagOf(order) + "\"";
+
+		mockMvc.perform(get("/api/orders/code/ORD-5")).andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, etag));
+		mockMvc.perform(get("/api/orders/code/ORD-5").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified()).andExpect(content().string(""));
+	}
+
+	@Test
+	@DisplayName("GET /api/orders/search should answer 304 without querying until the next write")
+	void search_shouldReturn304_untilNextWrite() throws Exception {
+		String etag = "\"" + orderDataVersion.etag() + "\"";
+
+		mockMvc.perform(get("/api/orders/search").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+		verify(orderQueryService, never()).search(any(), any(), any(), any(), any(), any(), any(), any());
+
+		orderDataVersion.onOrderChanged(OrderChangedEvent.created(snapshot()));
+
+		mockMvc.perform(get("/api/orders").header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"" + orderDataVersion.etag() + "\""));
+		verify(orderService).findAll();
+	}
+
+	@Test
+	@DisplayName("Without the in-memory shortcut the database validator decides, whichever instance wrote")
+	void inMemoryDisabled_shouldUseDatabaseValidator() {
+		OrderDataVersion dbOnly = new OrderDataVersion(false);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders");
+		request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"q3.7.9.\"");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		assertThat(dbOnly.etag()).isNull();
+		assertThat(new ServletWebRequest(request, response).checkNotModified(dbOnly.listEtag(() -> "q3.7.9.")))
+				.isTrue();
+
+		// another instance updated a row: local counter unchanged, validator moved
+		response = new MockHttpServletResponse();
+		assertThat(new ServletWebRequest(request, response).checkNotModified(dbOnly.listEtag(() -> "q3.7.10.")))
+				.isFalse();
+		assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"q3.7.10.\"");
+	}
+
+	// ----------------- helpers -----------------
+
+	private static OrderDto order(long version) {
+		OrderDto dto = new OrderDto();
+		dto.setId(5L);
+		dto.setCode("ORD-5");
+		dto.setStatus("NEW");
+		dto.setTotal(new BigDecimal("10.00"));
+		dto.setUpdatedAt(Instant.parse("2025-01-01T10:00:00Z"));
+		dto.setVersion(version);
+		return dto;
+	}
+
+	private static OrderSnapshot snapshot() {
+		return new OrderSnapshot(6L, "ORD-6", OrderStatus.NEW, BigDecimal.ONE, null, Instant.EPOCH, Instant.EPOCH);
+	}
+}
@@ -15,12 +15,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import ch.devprojects.orderflow.service.OrderQueryService;
 import ch.devprojects.orderflow.service.OrderService;
+import ch.devprojects.orderflow.service.cache.OrderDataVersion;
 
 /**
  * Web slice tests for the DELETE endpoint of {@link OrderController}.
@@ -31,6 +33,7 @@ import ch.devprojects.orderflow.service.OrderService;
  * Controller dependencies: - OrderService - OrderQueryService
  */
 @WebMvcTest(OrderController.class)
+@Import(OrderDataVersion.class)
 @AutoConfigureMockMvc(addFilters = false)
 class OrderControllerDeleteTest {
 
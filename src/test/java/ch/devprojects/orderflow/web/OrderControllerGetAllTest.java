@@ -1,5 +1,7 @@
 package ch.devprojects.orderflow.web;
 
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -11,6 +13,7 @@ import java.util.List;
 import ch.devprojects.orderflow.dto.OrderDto;
 import ch.devprojects.orderflow.service.OrderQueryService;
 import ch.devprojects.orderflow.service.OrderService;
+import ch.devprojects.orderflow.service.cache.OrderDataVersion;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,7 +21,9 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -29,6 +34,7 @@ import org.springframework.test.web.servlet.MockMvc;
  * must be mocked for @WebMvcTest slice
  */
 @WebMvcTest(controllers = OrderController.class)
+@Import(OrderDataVersion.class)
 @AutoConfigureMockMvc(addFilters = false)
 class OrderControllerGetAllTest {
 
@@ -60,4 +66,17 @@ class OrderControllerGetAllTest {
 				.andExpect(jsonPath("$[0].id").value(1)).andExpect(jsonPath("$[0].code").value("ORD-1"))
 				.andExpect(jsonPath("$[0].status").value("NEW"));
 	}
+
+	@Test
+	@DisplayName("getAll should take its ETag from the database validator by default and answer 304 without listing")
+	void getAll_shouldUseDatabaseValidatorByDefault() throws Exception {
+		when(orderQueryService.etag(null, null, null, null, null, null)).thenReturn("q2.8.5.");
+		when(orderService.findAll()).thenReturn(List.of());
+
+		mockMvc.perform(get("/api/orders")).andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"q2.8.5.\""));
+		mockMvc.perform(get("/api/orders").header(HttpHeaders.IF_NONE_MATCH, "\"q2.8.5.\""))
+				.andExpect(status().isNotModified());
+		verify(orderService, times(1)).findAll();
+	}
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import java.math.BigDecimal;
+import java.util.Optional;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,6 +13,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -19,6 +21,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import ch.devprojects.orderflow.dto.OrderDto;
 import ch.devprojects.orderflow.service.OrderQueryService;
 import ch.devprojects.orderflow.service.OrderService;
+import ch.devprojects.orderflow.service.cache.OrderDataVersion;
 
 /**
  * Web slice test for {@link OrderController} - lookup by id.
@@ -27,6 +30,7 @@ import ch.devprojects.orderflow.service.OrderService;
  * controller dependencies must be mocked: OrderService + OrderQueryService
  */
 @WebMvcTest(OrderController.class)
+@Import(OrderDataVersion.class)
 @AutoConfigureMockMvc(addFilters = false)
 class OrderControllerGetOneTest {
 
@@ -48,11 +52,23 @@ class OrderControllerGetOneTest {
 		dto.setStatus("NEW"); // DTO uses String
 		dto.setTotal(BigDecimal.TEN);
 
-		when(orderService.findById(1L)).thenReturn(dto);
+		when(orderService.lookupById(1L)).thenReturn(Optional.of(dto));
 
 		mockMvc.perform(get("/api/orders/{id}", 1L).accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
 				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
 				.andExpect(jsonPath("$.id").value(1)).andExpect(jsonPath("$.code").value("ORD-1"))
 				.andExpect(jsonPath("$.status").value("NEW")).andExpect(jsonPath("$.total").value(10));
 	}
-}
\ No newline at end of file
+
+	@Test
+	@DisplayName("GET /api/orders/{id} should return 404 with error body when missing")
+	void getOne_shouldReturn404_whenMissing() throws Exception {
+		when(orderService.lookupById(99L)).thenReturn(Optional.empty());
+
+		mockMvc.perform(get("/api/orders/{id}", 99L).accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isNotFound()).andExpect(jsonPath("$.status").value(404))
+				.andExpect(jsonPath("$.error").value("Not Found"))
+				.andExpect(jsonPath("$.message").value("Order not found, id=99"))
+				.andExpect(jsonPath("$.path").value("/api/orders/99"));
+	}
+}
@@ -0,0 +1,92 @@
+package ch.devprojects.orderflow.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import ch.devprojects.orderflow.dto.OrderDto;
+import ch.devprojects.orderflow.dto.OrdersCursorResponse;
+import ch.devprojects.orderflow.service.CountMode;
+import ch.devprojects.orderflow.service.OrderQueryService;
+import ch.devprojects.orderflow.service.OrderService;
+import ch.devprojects.orderflow.service.cache.OrderDataVersion;
+
+/**
+ * Web slice test for {@link OrderController} GET /api/orders/search.
+ *
+ * Covers both modes: - offset paging (page/size) delegated to the DB via
+ * OrderQueryService - keyset paging (cursor/size)
+ */
+@WebMvcTest(OrderController.class)
+@Import(OrderDataVersion.class)
+@AutoConfigureMockMvc(addFilters = false)
+class OrderControllerSearchTest {
+
+	@MockitoBean
+	private OrderService orderService;
+
+	@MockitoBean
+	private OrderQueryService orderQueryService;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	@DisplayName("GET /api/orders/search pages in the DB and caps the page size")
+	void search_shouldDelegateToQueryServiceWithCappedSize() throws Exception {
+		OrderDto dto = new OrderDto();
+		dto.setId(1L);
+		dto.setCode("ORD-1");
+
+		ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+		when(orderQueryService.search(isNull(), isNull(), isNull(), isNull(), isNull(), isNull(),
+				pageableCaptor.capture(), eq(CountMode.EXACT))).thenReturn(new PageImpl<>(List.of(dto)));
+
+		mockMvc.perform(get("/api/orders/search").param("page", "2").param("size", "100000"))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.content[0].code").value("ORD-1"));
+
+		Pageable used = pageableCaptor.getValue();
+		assertThat(used.getPageNumber()).isEqualTo(2);
+		assertThat(used.getPageSize()).isEqualTo(OrderQueryService.MAX_PAGE_SIZE);
+		assertThat(used.getSort().getOrderFor("createdAt")).isNotNull();
+		assertThat(used.getSort().getOrderFor("id")).isNotNull();
+	}
+
+	@Test
+	@DisplayName("GET /api/orders/search?cursor=... uses keyset paging")
+	void search_withCursor_shouldUseKeysetPaging() throws Exception {
+		OrdersCursorResponse response = new OrdersCursorResponse();
+		response.setSize(5);
+		response.setHasNext(true);
+		response.setNextCursor("abc");
+
+		when(orderQueryService.findOrdersAfter(eq(""), ArgumentMatchers.eq(5))).thenReturn(response);
+
+		mockMvc.perform(get("/api/orders/search").param("cursor", "").param("size", "5"))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.hasNext").value(true))
+				.andExpect(jsonPath("$.nextCursor").value("abc"));
+
+		verify(orderQueryService).findOrdersAfter("", 5);
+	}
+}
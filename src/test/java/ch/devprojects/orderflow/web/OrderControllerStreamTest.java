@@ -0,0 +1,152 @@
+package ch.devprojects.orderflow.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import ch.devprojects.orderflow.dto.OrderDto;
+import ch.devprojects.orderflow.service.OrderQueryService;
+import ch.devprojects.orderflow.service.OrderService;
+import ch.devprojects.orderflow.service.cache.OrderDataVersion;
+
+/**
+ * Web slice test for the streaming variant of GET /api/orders.
+ *
+ * Important: - StreamingResponseBody is written asynchronously, so every test
+ * needs an asyncDispatch(...) to get the final body.
+ */
+@WebMvcTest(OrderController.class)
+@Import(OrderDataVersion.class)
+@AutoConfigureMockMvc(addFilters = false)
+class OrderControllerStreamTest {
+
+	@MockitoBean
+	private OrderService orderService;
+
+	@MockitoBean
+	private OrderQueryService orderQueryService;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void streamTwoOrders() {
+		doAnswer(invocation -> {
+			Consumer<OrderDto> consumer = invocation.getArgument(0);
+			consumer.accept(order(1L, "ORD-1"));
+			consumer.accept(order(2L, "ORD-2"));
+			return null;
+		}).when(orderService).streamAll(any());
+	}
+
+	@Test
+	@DisplayName("GET /api/orders?stream=json should write a JSON array")
+	void stream_json_shouldWriteArray() throws Exception {
+		MvcResult started = mockMvc.perform(get("/api/orders").param("stream", "json"))
+				.andExpect(request().asyncStarted()).andReturn();
+
+		mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+				.andExpect(jsonPath("$.length()").value(2)).andExpect(jsonPath("$[1].code").value("ORD-2"));
+	}
+
+	@Test
+	@DisplayName("GET /api/orders?stream=ndjson should write one JSON object per line")
+	void stream_ndjson_shouldWriteOneOrderPerLine() throws Exception {
+		MvcResult started = mockMvc.perform(get("/api/orders").param("stream", "ndjson"))
+				.andExpect(request().asyncStarted()).andReturn();
+
+		String body = mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)).andReturn()
+				.getResponse().getContentAsString();
+
+		String[] lines = body.split("\n");
+		assertThat(lines).hasSize(2);
+		assertThat(lines[0]).startsWith("{").contains("\"code\":\"ORD-1\"");
+		assertThat(lines[1]).startsWith("{").contains("\"code\":\"ORD-2\"");
+	}
+
+	@Test
+	@DisplayName("GET /api/orders?stream=ndjson should gzip when the client accepts it")
+	void stream_ndjson_shouldGzipWhenAccepted() throws Exception {
+		MvcResult started = mockMvc
+				.perform(get("/api/orders").param("stream", "ndjson").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+				.andExpect(request().asyncStarted()).andReturn();
+
+		byte[] compressed = mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip")).andReturn().getResponse()
+				.getContentAsByteArray();
+
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+			String body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+			assertThat(body.split("\n")).hasSize(2);
+		}
+	}
+
+	@Test
+	@DisplayName("GET /api/orders?stream=ndjson should not gzip when the client refuses it with q=0")
+	void stream_ndjson_shouldNotGzipWhenRefused() throws Exception {
+		MvcResult started = mockMvc.perform(
+				get("/api/orders").param("stream", "ndjson").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, *"))
+				.andExpect(request().asyncStarted()).andReturn();
+
+		String body = mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk())
+				.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING)).andReturn().getResponse()
+				.getContentAsString();
+		assertThat(body.split("\n")).hasSize(2);
+	}
+
+	@ParameterizedTest(name = "[{0}] -> {1}")
+	@CsvSource(delimiter = '|', nullValues = "null", value = { "null | false", "gzip | true", "GZIP | true",
+			"x-gzip | true", "gzip;q=0 | false", "gzip; Q=0.000 | false", "gzip;q=0.5 | true",
+			"deflate, gzip;q=0.1 | true", "deflate | false", "br;q=1, identity | false", "* | true",
+			"*;q=0 | false", "gzip;q=0, * | false", "*;q=0, gzip | true", "gzip;q=abc | false",
+			"gzipx | false" })
+	void acceptsGzip_shouldHonorQValues(String acceptEncoding, boolean expected) {
+		assertThat(OrderController.acceptsGzip(acceptEncoding)).isEqualTo(expected);
+	}
+
+	@Test
+	@DisplayName("GET /api/orders?stream=xml should be rejected with 400")
+	void stream_unknownMode_shouldReturn400() throws Exception {
+		mockMvc.perform(get("/api/orders").param("stream", "xml")).andExpect(status().isBadRequest());
+	}
+
+	private static OrderDto order(Long id, String code) {
+		OrderDto dto = new OrderDto();
+		dto.setId(id);
+		dto.setCode(code);
+		dto.setStatus("NEW");
+		dto.setTotal(BigDecimal.TEN);
+		return dto;
+	}
+}
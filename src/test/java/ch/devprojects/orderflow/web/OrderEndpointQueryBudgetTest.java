@@ -0,0 +1,125 @@
+package ch.devprojects.orderflow.web;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import ch.devprojects.orderflow.domain.OrderStatus;
+import ch.devprojects.orderflow.service.OrderQueryService;
+import ch.devprojects.orderflow.testing.QueryBudget;
+import ch.devprojects.orderflow.testing.QueryBudgetExtension;
+
+/**
+ * SQL statement budgets of the read endpoints against the seeded H2 schema.
+ *
+ * A failing budget means a change added a query (or a per-row load) to the
+ * endpoint; raise the budget only if that is intended.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ExtendWith(QueryBudgetExtension.class)
+class OrderEndpointQueryBudgetTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private OrderQueryService orderQueryService;
+
+	private long id;
+	private String code;
+	private String newOrdersEtag;
+
+	@BeforeEach
+	void pickSeededOrder() {
+		id = jdbcTemplate.queryForObject("select min(id) from orders", Long.class);
+		code = jdbcTemplate.queryForObject("select code from orders where id = ?", String.class, id);
+		newOrdersEtag = "\"" + orderQueryService.etag(null, OrderStatus.NEW, null, null, null, null) + "\"";
+	}
+
+	@Test
+	@DisplayName("GET /api/orders = 2 statements (ETag validator + list)")
+	@QueryBudget(2)
+	void getAll() throws Exception {
+		mockMvc.perform(get("/api/orders")).andExpect(status().isOk());
+	}
+
+	@Test
+	@DisplayName("GET /api/orders/query with a matching ETag = 1 statement (validator only, 304)")
+	@QueryBudget(1)
+	void queryNotModified() throws Exception {
+		mockMvc.perform(get("/api/orders/query").param("status", "NEW").header(HttpHeaders.IF_NONE_MATCH, newOrdersEtag))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	@DisplayName("GET /api/orders/{id} = 1 statement")
+	@QueryBudget(1)
+	void getOne() throws Exception {
+		mockMvc.perform(get("/api/orders/{id}", id)).andExpect(status().isOk());
+	}
+
+	@Test
+	@DisplayName("GET /api/orders/code/{code} = 1 statement")
+	@QueryBudget(1)
+	void getByCode() throws Exception {
+		mockMvc.perform(get("/api/orders/code/{code}", code)).andExpect(status().isOk());
+	}
+
+	@Test
+	@DisplayName("search page with exact count = 3 statements (validator + page + count)")
+	@QueryBudget(3)
+	void searchPage() throws Exception {
+		mockMvc.perform(get("/api/orders/search").param("size", "5")).andExpect(status().isOk());
+	}
+
+	@Test
+	@DisplayName("search page with countMode=none = 2 statements (validator + page)")
+	@QueryBudget(2)
+	void searchPageWithoutCount() throws Exception {
+		mockMvc.perform(get("/api/orders/search").param("size", "5").param("countMode", "none"))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	@DisplayName("query with filters and sparse fields = 3 statements (validator + page + count)")
+	@QueryBudget(3)
+	void queryWithFields() throws Exception {
+		mockMvc.perform(get("/api/orders/query").param("status", "NEW").param("size", "5").param("fields", "summary"))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	@DisplayName("order lookup by id = 1 statement (0 when cached)")
+	@QueryBudget(1)
+	void lookup() throws Exception {
+		mockMvc.perform(get("/api/order-lookup/{id}", id)).andExpect(status().isOk());
+	}
+
+	@Test
+	@DisplayName("analytics overview = 0 statements (live counters)")
+	@QueryBudget(0)
+	void analyticsOverview() throws Exception {
+		mockMvc.perform(get("/api/analytics/overview")).andExpect(status().isOk());
+	}
+
+	@Test
+	@DisplayName("analytics overview with filter = 1 statement (one GROUP BY)")
+	@QueryBudget(1)
+	void analyticsOverviewFiltered() throws Exception {
+		mockMvc.perform(get("/api/analytics/overview").param("customer", "a")).andExpect(status().isOk());
+	}
+}
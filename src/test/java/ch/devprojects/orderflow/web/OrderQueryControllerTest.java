@@ -1,17 +1,25 @@
 package ch.devprojects.orderflow.web;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -22,6 +30,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import ch.devprojects.orderflow.domain.OrderStatus;
 import ch.devprojects.orderflow.dto.OrderDto;
 import ch.devprojects.orderflow.service.OrderQueryService;
+import ch.devprojects.orderflow.service.cache.OrderDataVersion;
 
 /**
  * MVC test for OrderQueryController.
@@ -29,6 +38,7 @@ import ch.devprojects.orderflow.service.OrderQueryService;
  * IMPORTANT: - Endpoint is /api/orders/query (NOT /api/orders/search)
  */
 @WebMvcTest(controllers = OrderQueryController.class)
+@Import(OrderDataVersion.class)
 class OrderQueryControllerTest {
 
 	@Autowired
@@ -47,8 +57,32 @@ class OrderQueryControllerTest {
 
 		Page<OrderDto> page = new PageImpl<>(List.of(dto));
 
-		when(orderQueryService.search(any(), any(), any(), any(), any(), any(), any())).thenReturn(page);
+		when(orderQueryService.search(any(), any(), any(), any(), any(), any(), any(), any())).thenReturn(page);
 
 		mockMvc.perform(get("/api/orders/query")).andExpect(status().isOk());
 	}
-}
\ No newline at end of file
+
+	@Test
+	@DisplayName("GET /api/orders/query?fields=... should serialize only the selected fields")
+	void getQuery_withFields_shouldUseSparseFieldset() throws Exception {
+		Map<String, Object> row = new LinkedHashMap<>();
+		row.put("code", "ORD-001");
+		row.put("total", new BigDecimal("12.50"));
+
+		when(orderQueryService.searchFields(any(), any(), any(), any(), any(), any(), any(), any(),
+				eq(List.of("code", "total")))).thenReturn(new PageImpl<>(List.of(row)));
+
+		mockMvc.perform(get("/api/orders/query").param("fields", "code, total,code")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.content[0].code").value("ORD-001"))
+				.andExpect(jsonPath("$.content[0].total").value(12.5))
+				.andExpect(jsonPath("$.content[0].description").doesNotExist());
+	}
+
+	@Test
+	@DisplayName("GET /api/orders/query should reject unknown fields with 400")
+	void getQuery_withUnknownField_shouldReturnBadRequest() throws Exception {
+		mockMvc.perform(get("/api/orders/query").param("fields", "code,password")).andExpect(status().isBadRequest());
+
+		verify(orderQueryService, never()).searchFields(any(), any(), any(), any(), any(), any(), any(), any(), any());
+	}
+}